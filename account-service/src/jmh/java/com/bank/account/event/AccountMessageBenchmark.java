@@ -0,0 +1,83 @@
+package com.bank.account.event;
+
+import com.bank.account.model.dto.AccountDto;
+import com.bank.account.model.dto.AccountStatus;
+import com.bank.account.model.dto.AccountType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of {@link AccountDto} as the controllers do it, and the AMQP conversion done by
+ * {@link AccountEventPublisher} and {@link CustomerEventListener}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountMessageBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter();
+
+    private AccountDto accountDto;
+    private byte[] accountJson;
+    private Message accountMessage;
+    private Message customerDeletedMessage;
+
+    @Setup
+    public void setUp() throws IOException {
+        DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setTrustedPackages(AccountDto.class.getPackageName());
+        messageConverter.setJavaTypeMapper(typeMapper);
+
+        accountDto = new AccountDto(1L, "1234567123", AccountType.SAVINGS, 1500.0, AccountStatus.ACTIVE, 3L);
+        accountDto.setCustomerLegalId("1234567");
+        accountJson = objectMapper.writeValueAsBytes(accountDto);
+        accountMessage = messageConverter.toMessage(accountDto, new MessageProperties());
+        customerDeletedMessage = messageConverter.toMessage(42L, new MessageProperties());
+    }
+
+    @Benchmark
+    public byte[] serializeAccount() throws IOException {
+        return objectMapper.writeValueAsBytes(accountDto);
+    }
+
+    @Benchmark
+    public AccountDto deserializeAccount() throws IOException {
+        return objectMapper.readValue(accountJson, AccountDto.class);
+    }
+
+    @Benchmark
+    public Message toAccountEventMessage() {
+        return messageConverter.toMessage(accountDto, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object fromAccountEventMessage() {
+        return messageConverter.fromMessage(accountMessage);
+    }
+
+    @Benchmark
+    public Object fromCustomerDeletedMessage() {
+        return messageConverter.fromMessage(customerDeletedMessage);
+    }
+}
@@ -0,0 +1,73 @@
+package com.bank.account.model.mapper;
+
+import com.bank.account.model.dto.AccountDto;
+import com.bank.account.model.dto.AccountStatus;
+import com.bank.account.model.dto.AccountType;
+import com.bank.account.model.dto.AccountUpdateRequest;
+import com.bank.account.model.entity.Account;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountMapperBenchmark {
+
+    private final AccountMapper accountMapper = Mappers.getMapper(AccountMapper.class);
+
+    private Account account;
+    private AccountDto accountDto;
+    private AccountUpdateRequest updateRequest;
+
+    @Setup
+    public void setUp() {
+        account = new Account();
+        account.setId(1L);
+        account.setCustomerId(7L);
+        account.setAccountNumber("1234567123");
+        account.setType(AccountType.SAVINGS);
+        account.setBalance(1500.0);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setVersion(3L);
+
+        accountDto = new AccountDto();
+        accountDto.setCustomerLegalId("1234567");
+        accountDto.setType(AccountType.INVESTMENT);
+        accountDto.setBalance(25000.0);
+        accountDto.setStatus(AccountStatus.ACTIVE);
+
+        updateRequest = new AccountUpdateRequest();
+        updateRequest.setBalance(2000.0);
+    }
+
+    @Benchmark
+    public AccountDto toDto() {
+        return accountMapper.toDto(account);
+    }
+
+    @Benchmark
+    public Account toEntity() {
+        return accountMapper.toEntity(accountDto);
+    }
+
+    @Benchmark
+    public Account updateAccountFromDto() {
+        Account target = new Account();
+        accountMapper.updateAccountFromDto(updateRequest, target);
+        return target;
+    }
+}
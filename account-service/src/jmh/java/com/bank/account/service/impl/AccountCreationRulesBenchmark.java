@@ -0,0 +1,88 @@
+package com.bank.account.service.impl;
+
+import com.bank.account.exception.BusinessException;
+import com.bank.account.model.dto.AccountDto;
+import com.bank.account.model.dto.AccountStatus;
+import com.bank.account.model.dto.AccountType;
+import com.bank.account.model.dto.CustomerDto;
+import com.bank.account.model.dto.CustomerStatus;
+import com.bank.account.model.dto.CustomerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule evaluation of {@code createAccount} without the database; the account limit is a database write and not included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountCreationRulesBenchmark {
+
+    private AccountServiceImpl accountService;
+    private CustomerDto corporateCustomer;
+    private CustomerDto retailCustomer;
+    private AccountDto salaryAccount;
+    private AccountDto investmentAccount;
+
+    @Setup
+    public void setUp() {
+        accountService = new AccountServiceImpl(null, null, null, null, null, null, null);
+
+        corporateCustomer = new CustomerDto(1L, CustomerType.CORPORATE, CustomerStatus.ACTIVE);
+        retailCustomer = new CustomerDto(2L, CustomerType.RETAIL, CustomerStatus.ACTIVE);
+        salaryAccount = account(AccountType.SALARY, 500.0);
+        investmentAccount = account(AccountType.INVESTMENT, 500.0);
+    }
+
+    @Benchmark
+    public AccountDto validateAccepted() {
+        accountService.validateAccountCreation(salaryAccount, corporateCustomer);
+        return salaryAccount;
+    }
+
+    @Benchmark
+    public BusinessException validateRejectedRetailType() {
+        return rejection(salaryAccount, retailCustomer);
+    }
+
+    @Benchmark
+    public BusinessException validateRejectedMinimumBalance() {
+        return rejection(investmentAccount, corporateCustomer);
+    }
+
+    @Benchmark
+    public String generateAccountNumber() {
+        return accountService.generateAccountNumber("1234567");
+    }
+
+    private BusinessException rejection(AccountDto accountDto, CustomerDto customer) {
+        try {
+            accountService.validateAccountCreation(accountDto, customer);
+            throw new IllegalStateException("Expected a rejection.");
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+
+    private static AccountDto account(AccountType type, double balance) {
+        AccountDto accountDto = new AccountDto();
+        accountDto.setCustomerLegalId("1234567");
+        accountDto.setType(type);
+        accountDto.setBalance(balance);
+        accountDto.setStatus(AccountStatus.ACTIVE);
+        return accountDto;
+    }
+}
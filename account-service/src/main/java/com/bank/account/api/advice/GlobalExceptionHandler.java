@@ -1,24 +1,63 @@
 package com.bank.account.api.advice;
 
+import com.bank.account.exception.BusinessErrors;
 import com.bank.account.exception.BusinessException;
+import com.bank.account.exception.ConcurrentUpdateException;
 import com.bank.account.exception.SystemException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.postgresql.util.PSQLException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.Map;
+import java.util.regex.Pattern;
+
 @Slf4j
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    // Business rules enforced by the database, keyed by the name of the constraint or unique index.
+    private static final Map<String, BusinessErrors> CONSTRAINT_ERRORS = Map.of(
+            "uk_account_customer_salary", BusinessErrors.SALARY_ACCOUNT_ALREADY_EXISTS);
+
+    // Indexes of the account partitions are named after their parent, see V7__name_account_partition_indexes.sql.
+    private static final Pattern PARTITION_SUFFIX = Pattern.compile("_p\\d+$");
+
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(BusinessException.class)
     public ErrorResponse handleBusinessException(BusinessException ex) {
         log.warn("Business exception occurred: {}", ex.getMessage());
+        countRejection(ex);
         return ErrorResponse.builder(ex, ex.getStatus(), ex.getMessage()).build();
     }
 
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ErrorResponse handleConcurrentUpdateException(ConcurrentUpdateException ex) {
+        log.warn("Concurrent update conflict, current version: {}", ex.getCurrentVersion());
+        countRejection(ex);
+        return ErrorResponse.builder(ex, ex.getStatus(), ex.getMessage())
+                .property("currentVersion", ex.getCurrentVersion())
+                .build();
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ErrorResponse handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        BusinessErrors error = violatedRule(ex);
+        if (error == null) {
+            log.error("Data integrity violation", ex);
+            return ErrorResponse.builder(ex, HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation.").build();
+        }
+        return handleBusinessException(error.exception());
+    }
+
     @ExceptionHandler(SystemException.class)
     public ErrorResponse handleSystemException(SystemException ex) {
         log.error("System exception occurred", ex);
@@ -30,4 +69,19 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         log.warn("Illegal argument exception: {}", ex.getMessage());
         return ErrorResponse.builder(ex, HttpStatus.BAD_REQUEST, ex.getMessage()).build();
     }
+
+    // Read from the error's constraint field, which unlike the message text is not localized.
+    private static BusinessErrors violatedRule(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof PSQLException psqlException && psqlException.getServerErrorMessage() != null) {
+                String constraint = psqlException.getServerErrorMessage().getConstraint();
+                return constraint != null ? CONSTRAINT_ERRORS.get(PARTITION_SUFFIX.matcher(constraint).replaceFirst("")) : null;
+            }
+        }
+        return null;
+    }
+
+    private void countRejection(BusinessException ex) {
+        meterRegistry.counter("account.business.rejections", "code", ex.getError().name()).increment();
+    }
 }
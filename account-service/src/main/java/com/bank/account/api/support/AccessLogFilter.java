@@ -0,0 +1,95 @@
+package com.bank.account.api.support;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.event.Level;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes one structured line per request to the {@code account.access} logger, with route, status, outcome and duration.
+ * Successes are logged at INFO and can be sampled, client errors at WARN and server errors at ERROR.
+ * <p>
+ * Runs inside the observation filter so the line carries the trace ID, and outside security so 401 and 403 are logged.
+ */
+@Slf4j(topic = "account.access")
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            logRequest(request, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, start);
+            throw e;
+        }
+        if (isAsyncStarted(request)) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    logRequest(request, response.getStatus(), start);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                    // Completion follows and is logged there.
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                    // Completion follows and is logged there.
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                    // Nothing to log until completion.
+                }
+            });
+            return;
+        }
+        logRequest(request, response.getStatus(), start);
+    }
+
+    private void logRequest(HttpServletRequest request, int status, long start) {
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : request.getRequestURI();
+        Outcome outcome = Outcome.forStatus(status);
+        log.atLevel(levelFor(outcome))
+                .addKeyValue("http.method", request.getMethod())
+                .addKeyValue("http.route", route)
+                .addKeyValue("http.status", status)
+                .addKeyValue("outcome", outcome)
+                .addKeyValue("duration.ms", durationMs)
+                .log("{} {} {} {} ms", request.getMethod(), route, status, durationMs);
+    }
+
+    private static Level levelFor(Outcome outcome) {
+        return switch (outcome) {
+            case SERVER_ERROR -> Level.ERROR;
+            case CLIENT_ERROR -> Level.WARN;
+            default -> Level.INFO;
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.bank.account.api.support;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps in-flight requests at a limit that follows observed latency. The limit is scaled by the ratio of the
+ * long-term latency to the recent latency: it shrinks when requests start queueing behind a saturated resource
+ * and grows back, by about its square root per sample, while latency stays near the baseline. The baseline
+ * averages roughly the last 600 requests, so a lasting change in latency eventually becomes the new normal.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LONG_RTT_WEIGHT = 1.0 / 600;
+    private static final double SHORT_RTT_WEIGHT = 1.0 / 10;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double longRttNanos;
+    private double shortRttNanos;
+
+    /**
+     * @param tolerance how much slower than the baseline recent requests may get before the limit shrinks
+     * @param smoothing share of each new estimate applied to the limit, between 0 and 1
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1 || smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Invalid concurrency limit settings.");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot taken by {@link #tryAcquire()} and feeds the request's latency into the limit.
+     */
+    public void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(rttNanos, inFlightBefore);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightBefore) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            shortRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) * LONG_RTT_WEIGHT;
+            shortRttNanos += (rttNanos - shortRttNanos) * SHORT_RTT_WEIGHT;
+        }
+        double current = limit;
+        double gradient = Math.clamp(tolerance * longRttNanos / shortRttNanos, MIN_GRADIENT, 1.0);
+        // Growing while most slots sit idle would only raise the limit without evidence it can be sustained.
+        if (gradient >= 1.0 && inFlightBefore * 2 < current) {
+            return;
+        }
+        double target = current * gradient + Math.sqrt(current);
+        limit = Math.clamp(current * (1 - smoothing) + target * smoothing, minLimit, maxLimit);
+    }
+}
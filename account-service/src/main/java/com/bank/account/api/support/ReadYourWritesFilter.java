@@ -0,0 +1,112 @@
+package com.bank.account.api.support;
+
+import com.bank.account.config.ReplicaRoutingDataSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps a client's reads on the primary for a while after it wrote, so it never reads an older state than its own
+ * write from a lagging replica. Writes themselves also read from the primary, e.g. the current version after a
+ * conflict.
+ * <p>
+ * A successful write answers with a {@value #COOKIE} cookie holding its time, set before the response is committed;
+ * the client sends it back with its next requests, so any instance behind the load balancer can tell.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "account_last_write";
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final long windowMs;
+    private final LongSupplier clock;
+
+    public ReadYourWritesFilter(long windowMs) {
+        this(windowMs, System::currentTimeMillis);
+    }
+
+    ReadYourWritesFilter(long windowMs, LongSupplier clock) {
+        this.windowMs = windowMs;
+        this.clock = clock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = WRITE_METHODS.contains(request.getMethod());
+        ReplicaRoutingDataSource.preferPrimary(write || wroteRecently(request));
+        try {
+            if (write) {
+                WriteMarkingResponse marking = new WriteMarkingResponse(response);
+                filterChain.doFilter(request, marking);
+                marking.mark();
+            } else {
+                filterChain.doFilter(request, response);
+            }
+        } finally {
+            ReplicaRoutingDataSource.preferPrimary(false);
+        }
+    }
+
+    private boolean wroteRecently(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        long now = clock.getAsLong();
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    long writtenAt = Long.parseLong(cookie.getValue());
+                    return writtenAt <= now + windowMs && now - writtenAt < windowMs;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Adds the cookie right before the first byte of the body goes out, or after the chain if it is still buffered. An
+    // error sent with sendError is not known yet at that point and marks the client too, which only costs replica reads.
+    private final class WriteMarkingResponse extends OnCommittedResponseWrapper {
+
+        private boolean marked;
+
+        private WriteMarkingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            mark();
+        }
+
+        private void mark() {
+            if (marked || getStatus() >= SC_BAD_REQUEST || isCommitted()) {
+                return;
+            }
+            marked = true;
+            // Taken once the write is done, so a slow write still keeps its reads pinned for the whole window
+            Cookie cookie = new Cookie(COOKIE, Long.toString(clock.getAsLong()));
+            cookie.setPath("/api");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(windowMs + 999)));
+            addCookie(cookie);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.bank.account.api.support;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * One token bucket per client. A bucket holds up to {@code burst} tokens and refills at {@code ratePerSecond};
+ * each admitted request takes one token.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int MAX_TRACKED_CLIENTS = 10_000;
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(double ratePerSecond, int burst) {
+        this(ratePerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(double ratePerSecond, int burst, LongSupplier nanoClock) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1.");
+        }
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = burst;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes a token for the client.
+     *
+     * @return 0 when admitted, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String client) {
+        long now = nanoClock.getAsLong();
+        if (buckets.size() >= MAX_TRACKED_CLIENTS) {
+            evictFull(now);
+        }
+        return buckets.computeIfAbsent(client, key -> new Bucket(capacity, now)).tryTake(now);
+    }
+
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+
+    // A full bucket behaves exactly like a new one, so dropping it loses nothing.
+    private void evictFull(long now) {
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+
+        private synchronized long tryTake(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        private synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+                refilledAt = now;
+            }
+        }
+    }
+}
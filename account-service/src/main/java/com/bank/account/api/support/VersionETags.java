@@ -0,0 +1,53 @@
+package com.bank.account.api.support;
+
+import com.bank.account.exception.BusinessErrors;
+import org.springframework.http.ETag;
+
+import java.util.List;
+
+/**
+ * Strong entity tags derived from the row version.
+ */
+public final class VersionETags {
+
+    private VersionETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + (version == null ? 0L : version) + "\"";
+    }
+
+    public static boolean noneMatch(String ifNoneMatch, Long version) {
+        if (ifNoneMatch == null) {
+            return true;
+        }
+        ETag current = ETag.create(of(version));
+        for (ETag candidate : ETag.parse(ifNoneMatch)) {
+            if (candidate.isWildcard() || candidate.compare(current, false)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resolves the version a conditional write expects, {@code null} when any version is acceptable.
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.size() == 1 && tags.getFirst().isWildcard()) {
+            return null;
+        }
+        if (tags.size() != 1 || tags.getFirst().weak()) {
+            throw BusinessErrors.VERSION_MISMATCH.exception();
+        }
+        try {
+            return Long.valueOf(tags.getFirst().tag());
+        } catch (NumberFormatException e) {
+            throw BusinessErrors.VERSION_MISMATCH.exception();
+        }
+    }
+}
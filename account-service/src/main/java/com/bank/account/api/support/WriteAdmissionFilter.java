@@ -0,0 +1,101 @@
+package com.bank.account.api.support;
+
+import com.bank.account.exception.BusinessErrors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for write requests: a token-bucket rate limit per authenticated principal, then a shared
+ * adaptive concurrency limit. Rejected requests get 429 with {@code Retry-After}.
+ * <p>
+ * Registered with the default filter order, after the security filter chain, so the principal is known and
+ * unauthenticated requests never take a token.
+ */
+@Component
+public class WriteAdmissionFilter extends OncePerRequestFilter {
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final long OVERLOAD_RETRY_AFTER_SECONDS = 1;
+    private static final double LIMIT_SMOOTHING = 0.2;
+
+    private final HandlerExceptionResolver exceptionResolver;
+    private final boolean enabled;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Counter rateLimitedCounter;
+    private final Counter overloadedCounter;
+
+    public WriteAdmissionFilter(MeterRegistry meterRegistry,
+                                @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+                                @Value("${account.write.admission.enabled}") boolean enabled,
+                                @Value("${account.write.admission.rate-per-second}") double ratePerSecond,
+                                @Value("${account.write.admission.burst}") int burst,
+                                @Value("${account.write.admission.initial-limit}") int initialLimit,
+                                @Value("${account.write.admission.min-limit}") int minLimit,
+                                @Value("${account.write.admission.max-limit}") int maxLimit,
+                                @Value("${account.write.admission.latency-tolerance}") double latencyTolerance) {
+        this.exceptionResolver = exceptionResolver;
+        this.enabled = enabled;
+        this.rateLimiter = new TokenBucketRateLimiter(ratePerSecond, burst);
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyTolerance, LIMIT_SMOOTHING);
+        this.rateLimitedCounter = meterRegistry.counter("account.write.admission.rejected", "reason", "rate");
+        this.overloadedCounter = meterRegistry.counter("account.write.admission.rejected", "reason", "concurrency");
+        meterRegistry.gauge("account.write.admission.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("account.write.admission.in.flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight);
+        meterRegistry.gauge("account.write.admission.clients", rateLimiter, TokenBucketRateLimiter::getTrackedClients);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !WRITE_METHODS.contains(request.getMethod()) || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long waitNanos = rateLimiter.tryAcquire(clientOf(request));
+        if (waitNanos > 0) {
+            rateLimitedCounter.increment();
+            long retryAfterSeconds = Math.max(1, (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+            reject(request, response, BusinessErrors.RATE_LIMITED, retryAfterSeconds);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            overloadedCounter.increment();
+            reject(request, response, BusinessErrors.OVERLOADED, OVERLOAD_RETRY_AFTER_SECONDS);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, BusinessErrors error, long retryAfterSeconds) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        exceptionResolver.resolveException(request, response, null, error.exception());
+    }
+}
@@ -1,27 +1,46 @@
 package com.bank.account.api.v1;
 
+import com.bank.account.api.support.VersionETags;
+import com.bank.account.cache.SerializedResponseCache;
+import com.bank.account.config.ReplicaRoutingDataSource;
 import com.bank.account.model.dto.AccountDto;
+import com.bank.account.model.dto.AccountStatsDto;
+import com.bank.account.model.dto.AccountSummary;
 import com.bank.account.model.dto.AccountUpdateRequest;
 import com.bank.account.service.AccountService;
+import com.bank.account.service.AccountStatsService;
+import com.bank.account.service.support.OptimisticLockRetryExecutor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 
@@ -33,41 +52,144 @@ import java.util.List;
 public class AccountControllerV1 {
 
     private final AccountService accountService;
+    private final AccountStatsService accountStatsService;
+    private final OptimisticLockRetryExecutor retryExecutor;
+    private final SerializedResponseCache responseCache;
+    private final ObjectMapper objectMapper;
 
     @Operation(description = "Create a new account.")
     @ApiResponse(responseCode = "201", description = "Account created successfully.")
     @PostMapping
     public ResponseEntity<AccountDto> createAccount(@RequestBody @Valid AccountDto accountDto) {
-        log.info("Request received to create account for customer with legal ID: {}", accountDto.getCustomerLegalId());
+        log.debug("Request received to create account for customer with legal ID: {}", accountDto.getCustomerLegalId());
         AccountDto createdAccount = accountService.createAccount(accountDto);
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(createdAccount.getId()).toUri();
         return ResponseEntity.created(uri).body(createdAccount);
     }
 
     @Operation(description = "Get account by ID.")
-    @ApiResponse(responseCode = "200", description = "Account info.")
+    @ApiResponse(responseCode = "200", description = "Account info.",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = AccountDto.class)))
+    @ApiResponse(responseCode = "304", description = "Account not modified since the version in If-None-Match.")
     @ApiResponse(responseCode = "404", description = "Account not found.")
     @GetMapping("/{id}")
-    public AccountDto getAccountById(@PathVariable Long id) {
-        log.info("Request received to get account by ID: {}", id);
-        return accountService.getAccount(id);
+    public ResponseEntity<?> getAccountById(@PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("Request received to get account by ID: {}", id);
+        if (ifNoneMatch != null || responseCache.isEnabled()) {
+            Long version = accountService.getAccountVersion(id);
+            if (!VersionETags.noneMatch(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(VersionETags.of(version)).build();
+            }
+            byte[] cached = responseCache.get(id, version);
+            if (cached != null) {
+                return ResponseEntity.ok().eTag(VersionETags.of(version)).contentType(MediaType.APPLICATION_JSON).body(cached);
+            }
+        }
+        AccountDto account = accountService.getAccount(id);
+        if (responseCache.isEnabled()) {
+            byte[] body = responseCache.put(id, account.getVersion(), account);
+            return ResponseEntity.ok().eTag(VersionETags.of(account.getVersion())).contentType(MediaType.APPLICATION_JSON).body(body);
+        }
+        return ResponseEntity.ok().eTag(VersionETags.of(account.getVersion())).body(account);
     }
 
     @Operation(description = "Get all accounts.")
     @ApiResponse(responseCode = "200", description = "List of all accounts.")
     @GetMapping
     public List<AccountDto> getAllAccounts() {
-        log.info("Request received to get all accounts.");
+        log.debug("Request received to get all accounts.");
         return accountService.getAllAccounts();
     }
 
+    @Operation(description = "Get a page of accounts ordered by ID, starting after the given ID.")
+    @ApiResponse(responseCode = "200", description = "Up to limit accounts; the last ID is the next page's afterId.")
+    @ApiResponse(responseCode = "400", description = "Limit out of range.")
+    @GetMapping(params = "limit")
+    public List<AccountDto> getAccountsPage(@RequestParam(defaultValue = "0") Long afterId, @RequestParam int limit) {
+        log.debug("Request received to get {} accounts after ID: {}", limit, afterId);
+        return accountService.getAccountsPage(afterId, limit);
+    }
+
+    @Operation(description = "Stream all accounts as newline-delimited JSON, read in keyset pages of 500 as the client consumes them.")
+    @ApiResponse(responseCode = "200", description = "One account per line.")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllAccounts() {
+        log.debug("Request received to stream all accounts.");
+        ObjectWriter writer = objectMapper.writerFor(AccountDto.class);
+        // The body runs on an async thread after the request thread let go of its routing, so it carries it along.
+        boolean preferPrimary = ReplicaRoutingDataSource.isPrimaryPreferred();
+        StreamingResponseBody body = out -> {
+            ReplicaRoutingDataSource.preferPrimary(preferPrimary);
+            try {
+                accountService.streamAllAccounts(account -> {
+                    try {
+                        out.write(writer.writeValueAsBytes(account));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } finally {
+                ReplicaRoutingDataSource.preferPrimary(false);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(description = "Get the accounts of a customer.")
+    @ApiResponse(responseCode = "200", description = "List of the customer's accounts, empty when it has none.")
+    @GetMapping(params = "customerId")
+    public List<AccountSummary> getAccountsByCustomerId(@RequestParam Long customerId) {
+        log.debug("Request received to get accounts for customer ID: {}", customerId);
+        return accountService.getAccountsByCustomerId(customerId);
+    }
+
+    @Operation(description = "Get the accounts of a customer by its legal ID.")
+    @ApiResponse(responseCode = "200", description = "List of the customer's accounts, empty when it has none.")
+    @ApiResponse(responseCode = "404", description = "Customer not found.")
+    @GetMapping(params = "customerLegalId")
+    public List<AccountSummary> getAccountsByCustomerLegalId(@RequestParam String customerLegalId) {
+        log.debug("Request received to get accounts for customer legal ID: {}", customerLegalId);
+        return accountService.getAccountsByCustomerLegalId(customerLegalId);
+    }
+
+    @Operation(description = "Get account counts and balance totals per type and status, and for one customer when given.")
+    @ApiResponse(responseCode = "200", description = "Account stats.")
+    @GetMapping("/stats")
+    public AccountStatsDto getAccountStats(@RequestParam(required = false) Long customerId) {
+        log.debug("Request received to get account stats.");
+        return accountStatsService.getStats(customerId);
+    }
+
     @Operation(description = "Update an existing account.")
     @ApiResponse(responseCode = "200", description = "Account updated successfully.")
     @ApiResponse(responseCode = "404", description = "Account not found.")
+    @ApiResponse(responseCode = "409", description = "Account was modified concurrently.")
+    @ApiResponse(responseCode = "412", description = "Account version does not match If-Match.")
     @PutMapping("/{id}")
-    public AccountDto updateAccount(@PathVariable Long id, @RequestBody @Valid AccountUpdateRequest accountUpdateRequest) {
-        log.info("Request received to update account with ID: {}", id);
-        return accountService.updateAccount(id, accountUpdateRequest);
+    public ResponseEntity<AccountDto> updateAccount(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                    @RequestBody @Valid AccountUpdateRequest accountUpdateRequest) {
+        log.debug("Request received to update account with ID: {}", id);
+        Long expectedVersion = VersionETags.expectedVersion(ifMatch);
+        AccountDto updatedAccount = retryExecutor.execute(() -> accountService.updateAccount(id, accountUpdateRequest, expectedVersion),
+                () -> accountService.getAccountVersion(id));
+        return ResponseEntity.ok().eTag(VersionETags.of(updatedAccount.getVersion())).body(updatedAccount);
+    }
+
+    @Operation(description = "Partially update an existing account, only the provided fields are changed.")
+    @ApiResponse(responseCode = "200", description = "Account patched successfully.")
+    @ApiResponse(responseCode = "400", description = "No field to patch was provided.")
+    @ApiResponse(responseCode = "404", description = "Account not found.")
+    @ApiResponse(responseCode = "412", description = "Account version does not match If-Match.")
+    @PatchMapping("/{id}")
+    public ResponseEntity<AccountDto> patchAccount(@PathVariable Long id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestBody @Valid AccountUpdateRequest accountUpdateRequest) {
+        log.debug("Request received to patch account with ID: {}", id);
+        AccountDto patchedAccount = accountService.patchAccount(id, accountUpdateRequest, VersionETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(VersionETags.of(patchedAccount.getVersion())).body(patchedAccount);
     }
 
     @Operation(description = "Delete a account by ID.")
@@ -76,7 +198,7 @@ public class AccountControllerV1 {
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteAccount(@PathVariable Long id) {
-        log.info("Request received to delete account with ID: {}", id);
+        log.debug("Request received to delete account with ID: {}", id);
         accountService.deleteAccount(id);
     }
 }
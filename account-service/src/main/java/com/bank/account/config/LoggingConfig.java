@@ -0,0 +1,31 @@
+package com.bank.account.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+
+@Configuration
+public class LoggingConfig {
+
+    /**
+     * Installs per-logger sampling from {@code account.logging.sampling[<logger>]=<rate>}.
+     */
+    @Bean(destroyMethod = "stop")
+    SamplingTurboFilter samplingTurboFilter(Environment environment) {
+        Map<String, Double> rates = Binder.get(environment)
+                .bind("account.logging.sampling", Bindable.mapOf(String.class, Double.class))
+                .orElseGet(Map::of);
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        SamplingTurboFilter filter = new SamplingTurboFilter(rates);
+        filter.setContext(loggerContext);
+        filter.start();
+        loggerContext.addTurboFilter(filter);
+        return filter;
+    }
+}
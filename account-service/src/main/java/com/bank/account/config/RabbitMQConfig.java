@@ -7,6 +7,7 @@ import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.amqp.RabbitTemplateCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -20,6 +21,9 @@ public class RabbitMQConfig {
 
     public static final String ACCOUNT_SERVICE_CUSTOMER_EVENTS_QUEUE = "account.service.customer.events.queue";
     public static final String CUSTOMER_EVENTS_TOPIC = "customer.events.topic";
+    public static final String CUSTOMER_DELETED_ROUTING_KEY = "customer.event.deleted";
+
+    public static final String PUBLISHED_AT_HEADER = "x-published-at";
 
     @Bean
     public TopicExchange accountEventsTopicExchange() {
@@ -38,11 +42,22 @@ public class RabbitMQConfig {
 
     @Bean
     public Binding accountServiceBinding() {
-        return BindingBuilder.bind(accountServiceCustomerEventsQueue()).to(customerEventsTopicExchange()).with("customer.event.deleted");
+        return BindingBuilder.bind(accountServiceCustomerEventsQueue()).to(customerEventsTopicExchange()).with(CUSTOMER_DELETED_ROUTING_KEY);
     }
 
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
     }
+
+    /**
+     * Stamps every published message in epoch millis; the AMQP timestamp property only has second resolution.
+     */
+    @Bean
+    public RabbitTemplateCustomizer publishTimestampCustomizer() {
+        return rabbitTemplate -> rabbitTemplate.addBeforePublishPostProcessors(message -> {
+            message.getMessageProperties().setHeader(PUBLISHED_AT_HEADER, System.currentTimeMillis());
+            return message;
+        });
+    }
 }
@@ -0,0 +1,83 @@
+package com.bank.account.config;
+
+import com.bank.account.api.support.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only transactions go to replicas when {@code account.datasource.replica-urls} lists any. The primary pool
+ * is then declared here instead of by Boot, and the application {@code DataSource} defers fetching a connection until
+ * the transaction's read-only flag is known. Ignored when the accounts are sharded.
+ */
+@Configuration
+@ConditionalOnExpression("!'${account.datasource.replica-urls:}'.isEmpty() && '${account.datasource.shard-urls:}'.isEmpty()")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                      DataSourceProperties properties,
+                                                      Environment environment,
+                                                      MeterRegistry meterRegistry,
+                                                      @Value("${account.datasource.replica-urls}") List<String> replicaUrls,
+                                                      @Value("${account.datasource.replica-max-lag-ms}") long maxLagMs) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(config));
+            config.setPoolName("account-replica-" + i);
+            config.setJdbcUrl(replicaUrls.get(i).trim());
+            config.setUsername(properties.determineUsername());
+            config.setPassword(properties.determinePassword());
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setReadOnly(true);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            // Started on first use, so an unreachable replica does not stop the service from starting.
+            HikariDataSource replica = new HikariDataSource();
+            config.copyStateTo(replica);
+            replicas.put("replica-" + i, VirtualThreadConfig.admissionControlled(replica, environment, meterRegistry));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, maxLagMs, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        // Set up front so the proxy does not open a connection at startup to find them out.
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(@Value("${account.datasource.read-your-writes-ms}") long windowMs) {
+        return new ReadYourWritesFilter(windowMs);
+    }
+}
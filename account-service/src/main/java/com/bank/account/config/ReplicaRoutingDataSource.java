@@ -0,0 +1,182 @@
+package com.bank.account.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections for read-only transactions. Replicas whose last measured replay lag is within
+ * {@code maxLagMs} take turns; when none qualifies, or the thread asked for {@link #preferPrimary(boolean)},
+ * the primary serves the read instead.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final long UNAVAILABLE = Long.MAX_VALUE;
+    // Zero when everything received has been replayed, otherwise the age of the last replayed transaction. Null when no
+    // WAL receiver runs, i.e. the replica lost the primary: it has then replayed all it received and would report zero.
+    private static final String LAG_QUERY = """
+            SELECT CASE WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver) THEN NULL
+                        WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END""";
+
+    private static final ThreadLocal<Boolean> PRIMARY_PREFERRED = new ThreadLocal<>();
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        // Unknown until the first check succeeds, so reads start on the primary.
+        private volatile long lagMs = UNAVAILABLE;
+        private volatile boolean checked;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private double lagOrNaN() {
+            return lagMs == UNAVAILABLE ? Double.NaN : lagMs;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter replicaReads;
+    private final Counter pinnedReads;
+    private final Counter laggingReads;
+    private final Counter unavailableReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long maxLagMs, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagMs = maxLagMs;
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            Gauge.builder("account.datasource.replica.lag", replica, Replica::lagOrNaN)
+                    .tag("replica", name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        });
+        this.replicaReads = meterRegistry.counter("account.datasource.reads", "route", "replica");
+        this.pinnedReads = meterRegistry.counter("account.datasource.reads", "route", "pinned");
+        this.laggingReads = meterRegistry.counter("account.datasource.reads", "route", "lagging");
+        this.unavailableReads = meterRegistry.counter("account.datasource.reads", "route", "unavailable");
+    }
+
+    /**
+     * Sends this thread's read-only transactions to the primary, for callers that must see their own writes.
+     */
+    public static void preferPrimary(boolean prefer) {
+        if (prefer) {
+            PRIMARY_PREFERRED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_PREFERRED.remove();
+        }
+    }
+
+    /**
+     * Whether this thread's reads go to the primary, for work that hands them to another thread.
+     */
+    public static boolean isPrimaryPreferred() {
+        return Boolean.TRUE.equals(PRIMARY_PREFERRED.get());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (isPrimaryPreferred()) {
+            pinnedReads.increment();
+            return primary.getConnection();
+        }
+        Replica replica = select();
+        if (replica == null) {
+            laggingReads.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.dataSource.getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            markUnavailable(replica, e);
+            unavailableReads.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials.");
+    }
+
+    @Scheduled(fixedDelayString = "${account.datasource.replica-lag-check-ms}")
+    public void refreshLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                if (!resultSet.next()) {
+                    throw new SQLException("Lag query returned no row.");
+                }
+                long lagMs = resultSet.getLong(1);
+                if (resultSet.wasNull()) {
+                    throw new SQLException("Replica is not receiving WAL from the primary.");
+                }
+                if (replica.lagMs == UNAVAILABLE) {
+                    log.info("Replica {} is available with {} ms lag.", replica.name, lagMs);
+                }
+                replica.lagMs = lagMs;
+                replica.checked = true;
+            } catch (SQLException | RuntimeException e) {
+                markUnavailable(replica, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Replica select() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.lagMs <= maxLagMs) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static void markUnavailable(Replica replica, Exception e) {
+        if (!replica.checked || replica.lagMs != UNAVAILABLE) {
+            log.warn("Replica {} is unavailable, reads fall back to the primary: {}", replica.name, e.getMessage());
+        }
+        replica.lagMs = UNAVAILABLE;
+        replica.checked = true;
+    }
+}
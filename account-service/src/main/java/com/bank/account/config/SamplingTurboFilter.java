@@ -0,0 +1,65 @@
+package com.bank.account.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps only a share of the INFO and finer events of the configured loggers, so busy success paths can be sampled.
+ * WARN and ERROR always pass, so failures are logged in full. Rates apply to a logger and its children, the most
+ * specific name winning, and are decided before the event is built.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final double ALL = 1.0;
+
+    private final Map<String, Double> rates;
+    private final Map<String, Double> resolvedRates = new ConcurrentHashMap<>();
+
+    public SamplingTurboFilter(Map<String, Double> rates) {
+        this.rates = Map.copyOf(rates);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXxxEnabled() checks come without a format; sampling them too would apply the rate twice.
+        if (format == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        double rate = resolvedRates.computeIfAbsent(logger.getName(), this::rateFor);
+        if (rate >= ALL || ThreadLocalRandom.current().nextDouble() < rate) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (getContext() instanceof LoggerContext loggerContext) {
+            loggerContext.getTurboFilterList().remove(this);
+        }
+    }
+
+    private double rateFor(String loggerName) {
+        String name = loggerName;
+        while (true) {
+            Double rate = rates.get(name);
+            if (rate != null) {
+                return rate;
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                return ALL;
+            }
+            name = name.substring(0, dot);
+        }
+    }
+}
@@ -24,8 +24,11 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize ->
                         authorize
                                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
+                                .requestMatchers(HttpMethod.POST, "/actuator/loggers/**").hasRole("ADMIN")
+                                .requestMatchers("/actuator/shards").hasRole("ADMIN")
                                 .requestMatchers(HttpMethod.POST, "/api/v1/account").hasRole("ADMIN")
                                 .requestMatchers(HttpMethod.PUT, "/api/v1/account/**").hasRole("ADMIN")
+                                .requestMatchers(HttpMethod.PATCH, "/api/v1/account/**").hasRole("ADMIN")
                                 .requestMatchers(HttpMethod.DELETE, "/api/v1/account/**").hasRole("ADMIN")
                                 .requestMatchers(HttpMethod.GET, "/api/v1/account", "/api/v1/account/**").hasAnyRole("USER", "ADMIN")
                                 .anyRequest().authenticated()
@@ -0,0 +1,172 @@
+package com.bank.account.config;
+
+import com.bank.account.repository.AccountShards;
+import com.bank.account.service.support.AccountShardRebalancer;
+import com.bank.account.service.support.AccountShardsEndpoint;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spreads customers over several databases when {@code account.datasource.shard-urls} lists any besides
+ * {@code spring.datasource}, which stays the first shard. Every shard gets the full schema, and hands out account IDs
+ * ending in the customer's bucket from a sequence interleaved with the others', so an ID tells the shard holding the
+ * account. Not combined with replicas.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("!'${account.datasource.shard-urls:}'.isEmpty()")
+public class ShardDataSourceConfig {
+
+    private static final String SHARDED_ID_FUNCTION = """
+            CREATE OR REPLACE FUNCTION account_sharded_id() RETURNS trigger AS $$
+            BEGIN
+                IF NEW.id IS NULL THEN
+                    NEW.id := nextval('%s') * %d + mod(NEW.customer_id, %d);
+                END IF;
+                RETURN NEW;
+            END
+            $$ LANGUAGE plpgsql""";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    ShardRoutingDataSource shardRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                  DataSourceProperties properties,
+                                                  Environment environment,
+                                                  MeterRegistry meterRegistry,
+                                                  @Value("${account.datasource.shard-urls}") List<String> shardUrls) {
+        if (shardUrls.size() + 1 > ShardRouter.MAX_SHARDS) {
+            throw new IllegalArgumentException("At most " + ShardRouter.MAX_SHARDS + " shards are supported.");
+        }
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put(ShardRouter.shardName(0), primary);
+        for (int i = 1; i <= shardUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(config));
+            config.setPoolName("account-shard-" + i);
+            config.setJdbcUrl(shardUrls.get(i - 1).trim());
+            config.setUsername(properties.determineUsername());
+            config.setPassword(properties.determinePassword());
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.put(ShardRouter.shardName(i),
+                    VirtualThreadConfig.admissionControlled(new HikariDataSource(config), environment, meterRegistry));
+        }
+        return new ShardRoutingDataSource(shards, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        // Set up front so the proxy does not open a connection at startup to find them out.
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    @Bean
+    FlywayMigrationStrategy shardMigrationStrategy(ShardRoutingDataSource shardRoutingDataSource) {
+        return flyway -> {
+            for (DataSource shard : shardRoutingDataSource.shards().values()) {
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate();
+            }
+            interleaveAccountIds(new ArrayList<>(shardRoutingDataSource.shards().entrySet()), 0);
+        };
+    }
+
+    @Bean
+    AccountShardRebalancer accountShardRebalancer(ShardRoutingDataSource shardRoutingDataSource, AccountShards accountShards,
+                                                  MeterRegistry meterRegistry) {
+        return new AccountShardRebalancer(shardRoutingDataSource.shards(), accountShards, meterRegistry);
+    }
+
+    @Bean
+    AccountShardsEndpoint accountShardsEndpoint(AccountShardRebalancer accountShardRebalancer) {
+        return new AccountShardsEndpoint(accountShardRebalancer);
+    }
+
+    // Locks the account table of every shard, each in its own transaction, so no ID is handed out while the floor is read.
+    private static void interleaveAccountIds(List<Map.Entry<String, DataSource>> shards, int locked) {
+        if (locked == shards.size()) {
+            interleaveAccountIds(shards);
+            return;
+        }
+        DataSource dataSource = shards.get(locked).getValue();
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status -> {
+            JdbcClient.create(dataSource).sql("LOCK TABLE account IN SHARE ROW EXCLUSIVE MODE").update();
+            interleaveAccountIds(shards, locked + 1);
+        });
+    }
+
+    // Shard i's sequence hands out the values with value % MAX_SHARDS == i, starting above every ID any shard holds, and
+    // a trigger turns them into IDs ending in the customer's bucket; moved accounts keep theirs. Done once per shard.
+    private static void interleaveAccountIds(List<Map.Entry<String, DataSource>> shards) {
+        long used = ShardRouter.FIRST_SHARDED_ID - 1;
+        Map<Integer, String> pending = new LinkedHashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            JdbcClient jdbcClient = JdbcClient.create(shards.get(i).getValue());
+            String sequence = jdbcClient.sql("SELECT pg_get_serial_sequence('account', 'id')").query(String.class).single();
+            long increment = jdbcClient.sql("SELECT seqincrement FROM pg_sequence WHERE seqrelid = CAST(:sequence AS regclass)")
+                    .param("sequence", sequence)
+                    .query(Long.class)
+                    .single();
+            used = Math.max(used, jdbcClient.sql("SELECT COALESCE(MAX(id), 0) FROM account").query(Long.class).single());
+            if (increment != ShardRouter.MAX_SHARDS) {
+                pending.put(i, sequence);
+                // IDs of inserts rolled back before sharding are not in the table.
+                used = Math.max(used, jdbcClient.sql("SELECT last_value FROM " + sequence).query(Long.class).single());
+            }
+        }
+        long first = used / ShardRouter.BUCKETS + 1;
+        for (Map.Entry<Integer, String> shard : pending.entrySet()) {
+            int index = shard.getKey();
+            String sequence = shard.getValue();
+            JdbcClient jdbcClient = JdbcClient.create(shards.get(index).getValue());
+            long next = first + Math.floorMod(index - first, (long) ShardRouter.MAX_SHARDS);
+            jdbcClient.sql("ALTER SEQUENCE " + sequence + " INCREMENT BY " + ShardRouter.MAX_SHARDS).update();
+            jdbcClient.sql("SELECT setval(CAST(:sequence AS regclass), :next, false)")
+                    .param("sequence", sequence)
+                    .param("next", next)
+                    .query(Long.class)
+                    .single();
+            jdbcClient.sql(SHARDED_ID_FUNCTION.formatted(sequence, ShardRouter.BUCKETS, ShardRouter.BUCKETS)).update();
+            jdbcClient.sql("ALTER TABLE account ALTER COLUMN id DROP DEFAULT").update();
+            jdbcClient.sql("CREATE OR REPLACE TRIGGER account_sharded_id BEFORE INSERT ON account"
+                    + " FOR EACH ROW EXECUTE FUNCTION account_sharded_id()").update();
+            log.info("Account IDs of {} now come from sequence values starting at {} and stepping by {}.",
+                    shards.get(index).getKey(), next, ShardRouter.MAX_SHARDS);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.bank.account.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Places customers on shards by consistent hashing. Customers fall into {@link #BUCKETS} buckets by ID, every shard
+ * owns {@code virtualNodes} points on a 64-bit ring and a bucket belongs to the first point at or after its hash, so
+ * adding a shard only takes buckets over from the others, about an equal share from each.
+ * <p>
+ * Account IDs handed out by shards end in their customer's bucket, so an ID alone tells the shard holding the account,
+ * even after it moved with its customer. Points are derived from the shard names alone, so every instance configured
+ * with the same shards builds the same ring.
+ */
+public class ShardRouter {
+
+    /**
+     * The shards' ID sequences are interleaved with this stride so they never repeat each other; it caps the shard count.
+     */
+    public static final int MAX_SHARDS = 64;
+
+    public static final int BUCKETS = 1024;
+
+    /**
+     * Shards hand out IDs from here on, {@code sequence * BUCKETS + bucket}; lower ones date from before sharding.
+     */
+    public static final long FIRST_SHARDED_ID = 1L << 40;
+
+    private final List<String> shards;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ShardRouter(List<String> shards, int virtualNodes) {
+        if (shards.isEmpty() || shards.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_SHARDS + " shards are supported, got " + shards.size());
+        }
+        this.shards = List.copyOf(shards);
+        for (String shard : shards) {
+            long seed = fnv1a(shard);
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.putIfAbsent(mix(seed + i), shard);
+            }
+        }
+    }
+
+    public static String shardName(int index) {
+        return "shard-" + index;
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public static boolean isShardedId(long accountId) {
+        return accountId >= FIRST_SHARDED_ID;
+    }
+
+    public String shardFor(long customerId) {
+        return shardForBucket(Math.floorMod(customerId, BUCKETS));
+    }
+
+    /**
+     * The shard holding the account, for IDs handed out by shards.
+     */
+    public String shardForAccount(long accountId) {
+        if (!isShardedId(accountId)) {
+            throw new IllegalArgumentException("Account ID " + accountId + " dates from before sharding.");
+        }
+        return shardForBucket(Math.floorMod(accountId, BUCKETS));
+    }
+
+    private String shardForBucket(long bucket) {
+        Map.Entry<Long, String> point = ring.ceilingEntry(mix(bucket));
+        return point != null ? point.getValue() : ring.firstEntry().getValue();
+    }
+
+    // MurmurHash3's 64-bit finalizer: consecutive buckets land far apart on the ring.
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long fnv1a(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,101 @@
+package com.bank.account.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections to the shard the current thread was routed to with {@link #route(String)}. Unrouted callers,
+ * such as Flyway and Hibernate at startup, get the first shard.
+ * <p>
+ * Behind a {@code LazyConnectionDataSourceProxy} the connection is only fetched at a transaction's first statement,
+ * so routing inside a {@code @Transactional} method still picks the shard for the whole transaction.
+ */
+public class ShardRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Restores the previous route of the thread when closed.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final String previous;
+
+        private Scope(String previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private final Map<String, DataSource> shards;
+    private final String defaultShard;
+    private final Map<String, Counter> connectionCounters = new HashMap<>();
+
+    public ShardRoutingDataSource(Map<String, DataSource> shards, MeterRegistry meterRegistry) {
+        this.shards = Collections.unmodifiableMap(new LinkedHashMap<>(shards));
+        this.defaultShard = shards.keySet().iterator().next();
+        shards.keySet().forEach(shard -> connectionCounters.put(shard,
+                meterRegistry.counter("account.datasource.shard.connections", "shard", shard)));
+    }
+
+    public static Scope route(String shard) {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(shard);
+        return scope;
+    }
+
+    public static String currentShard() {
+        return CURRENT.get();
+    }
+
+    public Map<String, DataSource> shards() {
+        return shards;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String shard = CURRENT.get();
+        if (shard == null) {
+            shard = defaultShard;
+        }
+        DataSource dataSource = shards.get(shard);
+        if (dataSource == null) {
+            throw new SQLException("Unknown shard " + shard);
+        }
+        Connection connection = dataSource.getConnection();
+        connectionCounters.get(shard).increment();
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Shard connections use the configured credentials.");
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : shards.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
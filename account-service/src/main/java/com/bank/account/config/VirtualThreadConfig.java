@@ -0,0 +1,60 @@
+package com.bank.account.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Extras for {@code spring.threads.virtual.enabled=true}, under which Tomcat, the Rabbit listeners and the task
+ * executors already run on virtual threads: admission control in front of the pool, and pinning reports.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor connectionAdmissionPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                              @Value("${account.datasource.admission-timeout-ms}") long timeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return admissionControlled(hikari, timeoutMs, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Admission for pools built inside other beans, such as shards and replicas, which the post-processor never sees.
+     * Returns the pool as is on platform threads.
+     */
+    public static DataSource admissionControlled(HikariDataSource pool, Environment environment, MeterRegistry meterRegistry) {
+        if (!Threading.VIRTUAL.isActive(environment)) {
+            return pool;
+        }
+        return admissionControlled(pool, environment.getRequiredProperty("account.datasource.admission-timeout-ms", Long.class),
+                meterRegistry);
+    }
+
+    private static DataSource admissionControlled(HikariDataSource pool, long timeoutMs, MeterRegistry meterRegistry) {
+        return new AdmissionControlledDataSource(pool, pool.getPoolName(), pool.getMaximumPoolSize(), timeoutMs, meterRegistry);
+    }
+
+    @Bean
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                                           @Value("${account.virtual-threads.pinning-threshold-ms}") long thresholdMs) {
+        return new VirtualThreadPinningMonitor(Duration.ofMillis(thresholdMs), meterRegistry);
+    }
+}
@@ -3,6 +3,8 @@ package com.bank.account.event;
 import com.bank.account.config.RabbitMQConfig;
 import com.bank.account.exception.SystemException;
 import com.bank.account.model.dto.AccountDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -14,6 +16,7 @@ import org.springframework.stereotype.Component;
 public class AccountEventPublisher {
 
     private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
 
     public void publishAccountCreatedEvent(AccountDto accountDto) {
         sendEvent(RabbitMQConfig.ACCOUNT_CREATED_ROUTING_KEY, accountDto, accountDto.getId());
@@ -28,10 +31,13 @@ public class AccountEventPublisher {
     }
 
     private <T> void sendEvent(String routingKey, T message, Object messageId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             rabbitTemplate.convertAndSend(RabbitMQConfig.ACCOUNT_EVENTS_TOPIC, routingKey, message);
+            sample.stop(meterRegistry.timer("account.events.publish", "routing.key", routingKey, "outcome", "success"));
             log.info("Published event to exchange '{}' with routing key '{}' for ID: {}.", RabbitMQConfig.ACCOUNT_EVENTS_TOPIC, routingKey, messageId);
         } catch (Exception e) {
+            sample.stop(meterRegistry.timer("account.events.publish", "routing.key", routingKey, "outcome", "failure"));
             log.error("Failed to publish event to exchange '{}' with routing key '{}' for ID: {}.", RabbitMQConfig.ACCOUNT_EVENTS_TOPIC, routingKey, messageId, e);
             throw new SystemException(e);
         }
@@ -1,26 +1,61 @@
 package com.bank.account.event;
 
 import com.bank.account.config.RabbitMQConfig;
+import com.bank.account.exception.BusinessErrors;
+import com.bank.account.exception.BusinessException;
 import com.bank.account.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class CustomerEventListener {
 
+    private static final int MOVING_ATTEMPTS = 3;
+
     private final AccountService accountService;
+    private final MeterRegistry meterRegistry;
 
     @RabbitListener(queues = RabbitMQConfig.ACCOUNT_SERVICE_CUSTOMER_EVENTS_QUEUE)
-    public void handleCustomerDeletedEvent(Long customerId) {
+    public void handleCustomerDeletedEvent(Long customerId,
+                                           @Header(name = RabbitMQConfig.PUBLISHED_AT_HEADER, required = false) Long publishedAt) {
         log.info("Received customer deleted event for customer ID: {}", customerId);
+        if (publishedAt != null) {
+            Duration lag = Duration.ofMillis(Math.max(0, System.currentTimeMillis() - publishedAt));
+            meterRegistry.timer("account.events.consume.lag", "routing.key", RabbitMQConfig.CUSTOMER_DELETED_ROUTING_KEY).record(lag);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
         try {
-            accountService.deleteAccountsByCustomerId(customerId);
+            deleteAccounts(customerId);
         } catch (Exception e) {
+            outcome = "failure";
             log.error("Error processing customer deleted event for customer ID: {}. Error: {}", customerId, e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("account.events.consume", "routing.key", RabbitMQConfig.CUSTOMER_DELETED_ROUTING_KEY, "outcome", outcome));
+        }
+    }
+
+    // The accounts moved to another shard between routing and locking; routed again, the retry finds them there.
+    private void deleteAccounts(Long customerId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                accountService.deleteAccountsByCustomerId(customerId);
+                return;
+            } catch (BusinessException e) {
+                if (e.getError() != BusinessErrors.CUSTOMER_MOVING || attempt == MOVING_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Accounts of customer ID: {} are being moved, retrying the delete.", customerId);
+            }
         }
     }
-}
\ No newline at end of file
+}
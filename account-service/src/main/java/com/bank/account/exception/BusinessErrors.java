@@ -12,7 +12,12 @@ public enum BusinessErrors {
     ACCOUNT_LIMIT_EXCEEDED(HttpStatus.BAD_REQUEST, "This customer has reached the maximum number of allowed accounts."),
     SALARY_ACCOUNT_ALREADY_EXISTS(HttpStatus.BAD_REQUEST, "This customer already has a salary account."),
     INVESTMENT_ACCOUNT_MIN_BALANCE(HttpStatus.BAD_REQUEST, "Investment accounts must have a minimum balance of 10,000."),
-    RETAIL_CUSTOMER_ACCOUNT_TYPE_INVALID(HttpStatus.BAD_REQUEST, "Retail customers can only open savings accounts.");
+    RETAIL_CUSTOMER_ACCOUNT_TYPE_INVALID(HttpStatus.BAD_REQUEST, "Retail customers can only open savings accounts."),
+    CONCURRENT_UPDATE(HttpStatus.CONFLICT, "The account was modified concurrently, please reload and try again."),
+    VERSION_MISMATCH(HttpStatus.PRECONDITION_FAILED, "The account version does not match the If-Match header."),
+    RATE_LIMITED(HttpStatus.TOO_MANY_REQUESTS, "Too many write requests from this client, please retry later."),
+    OVERLOADED(HttpStatus.TOO_MANY_REQUESTS, "The service is handling too many writes, please retry later."),
+    CUSTOMER_MOVING(HttpStatus.SERVICE_UNAVAILABLE, "The customer's accounts are being moved to another shard, please retry shortly.");
 
     private final HttpStatus httpStatus;
     private final String message;
@@ -23,6 +28,6 @@ public enum BusinessErrors {
     }
 
     public BusinessException exception() {
-        return new BusinessException(httpStatus, message);
+        return new BusinessException(this);
     }
 }
@@ -11,10 +11,12 @@ public class BusinessException extends RuntimeException {
     @Serial
     private static final long serialVersionUID = -4228006881198455905L;
 
+    private final BusinessErrors error;
     private final HttpStatus status;
 
-    public BusinessException(HttpStatus status, String message) {
-        super(message);
-        this.status = status;
+    public BusinessException(BusinessErrors error) {
+        super(error.getMessage());
+        this.error = error;
+        this.status = error.getHttpStatus();
     }
 }
@@ -0,0 +1,19 @@
+package com.bank.account.exception;
+
+import lombok.Getter;
+
+import java.io.Serial;
+
+@Getter
+public class ConcurrentUpdateException extends BusinessException {
+
+    @Serial
+    private static final long serialVersionUID = 3190342475063598741L;
+
+    private final Long currentVersion;
+
+    public ConcurrentUpdateException(Long currentVersion) {
+        super(BusinessErrors.CONCURRENT_UPDATE);
+        this.currentVersion = currentVersion;
+    }
+}
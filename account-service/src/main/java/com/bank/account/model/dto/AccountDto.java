@@ -3,8 +3,10 @@ package com.bank.account.model.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class AccountDto {
 
     private Long id;
@@ -22,4 +24,15 @@ public class AccountDto {
 
     @NotNull(message = "Status cannot be null")
     private AccountStatus status;
+
+    private Long version;
+
+    public AccountDto(Long id, String accountNumber, AccountType type, Double balance, AccountStatus status, Long version) {
+        this.id = id;
+        this.accountNumber = accountNumber;
+        this.type = type;
+        this.balance = balance;
+        this.status = status;
+        this.version = version;
+    }
 }
@@ -0,0 +1,7 @@
+package com.bank.account.model.dto;
+
+/**
+ * The account fields that feed the aggregates in {@code account_stats}.
+ */
+public record AccountSnapshot(Long customerId, AccountType type, AccountStatus status, double balance) {
+}
@@ -0,0 +1,7 @@
+package com.bank.account.model.dto;
+
+public enum AccountStatsDimension {
+    TYPE,
+    STATUS,
+    CUSTOMER
+}
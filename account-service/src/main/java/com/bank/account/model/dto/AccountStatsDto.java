@@ -0,0 +1,21 @@
+package com.bank.account.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountStatsDto {
+
+    private AccountTotals total;
+
+    private Map<AccountType, AccountTotals> byType;
+
+    private Map<AccountStatus, AccountTotals> byStatus;
+
+    private AccountTotals customer;
+}
@@ -0,0 +1,7 @@
+package com.bank.account.model.dto;
+
+/**
+ * Read-only view of an account, selected straight from the {@code (customer_id, type, status)} index.
+ */
+public record AccountSummary(Long id, String accountNumber, AccountType type, Double balance, AccountStatus status) {
+}
@@ -0,0 +1,15 @@
+package com.bank.account.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountTotals {
+
+    private long count;
+
+    private double balance;
+}
@@ -0,0 +1,4 @@
+package com.bank.account.model.dto;
+
+public record PatchedAccount(AccountDto account, AccountSnapshot previous, AccountSnapshot current) {
+}
@@ -9,20 +9,27 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.Data;
+import org.hibernate.annotations.PartitionKey;
 
 @Data
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_account_account_number", columnNames = {"customer_id", "account_number"}))
 public class Account {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
+    // Adds customer_id to entity updates and deletes, so they touch only the customer's partition.
+    @PartitionKey
+    @Column(nullable = false, updatable = false)
     private Long customerId;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String accountNumber;
 
     @Enumerated(EnumType.STRING)
@@ -35,4 +42,7 @@ public class Account {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private AccountStatus status;
+
+    @Version
+    private Long version;
 }
@@ -0,0 +1,51 @@
+package com.bank.account.model.entity;
+
+import com.bank.account.model.dto.AccountStatsDimension;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "account_stats")
+@IdClass(AccountStatsBucket.Key.class)
+public class AccountStatsBucket {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private AccountStatsDimension dimension;
+
+    @Id
+    private String bucket;
+
+    @Column(nullable = false)
+    private long accountCount;
+
+    @Column(nullable = false)
+    private double balanceSum;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 6405371582963350428L;
+
+        private AccountStatsDimension dimension;
+
+        private String bucket;
+    }
+}
@@ -12,6 +12,7 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 public interface AccountMapper {
 
     @Mapping(target = "customerId", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Account toEntity(AccountDto accountDto);
 
     @Mapping(target = "customerLegalId", ignore = true)
@@ -20,5 +21,6 @@ public interface AccountMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "customerId", ignore = true)
     @Mapping(target = "accountNumber", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateAccountFromDto(AccountUpdateRequest accountUpdateRequest, @MappingTarget Account entity);
 }
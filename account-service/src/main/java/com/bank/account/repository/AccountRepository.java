@@ -1,17 +1,38 @@
 package com.bank.account.repository;
 
-import com.bank.account.model.dto.AccountType;
+import com.bank.account.model.dto.AccountDto;
+import com.bank.account.model.dto.AccountSummary;
 import com.bank.account.model.entity.Account;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountRepositoryCustom {
 
-    long countByCustomerId(Long customerId);
+    String DTO_SELECT = "SELECT new com.bank.account.model.dto.AccountDto("
+            + "a.id, a.accountNumber, a.type, a.balance, a.status, a.version) FROM Account a";
 
-    Optional<Account> findByCustomerIdAndType(Long customerId, AccountType type);
+    @Query(DTO_SELECT + " WHERE a.id = :id")
+    Optional<AccountDto> findDtoById(Long id);
+
+    @Query(DTO_SELECT)
+    List<AccountDto> findAllDtos();
+
+    // Each page in a read-only transaction of its own when the caller has none, so paging holds no connection in between.
+    @Transactional(readOnly = true)
+    @Query(DTO_SELECT + " WHERE a.id > :afterId ORDER BY a.id")
+    List<AccountDto> findDtosAfter(Long afterId, Limit limit);
 
     List<Account> findByCustomerId(Long customerId);
+
+    @Query("SELECT new com.bank.account.model.dto.AccountSummary(a.id, a.accountNumber, a.type, a.balance, a.status) "
+            + "FROM Account a WHERE a.customerId = :customerId ORDER BY a.type, a.status")
+    List<AccountSummary> findSummariesByCustomerId(Long customerId);
+
+    @Query("SELECT COALESCE(a.version, 0) FROM Account a WHERE a.id = :id")
+    Optional<Long> findVersionById(Long id);
 }
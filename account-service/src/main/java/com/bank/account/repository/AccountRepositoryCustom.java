@@ -0,0 +1,22 @@
+package com.bank.account.repository;
+
+import com.bank.account.model.dto.AccountSnapshot;
+import com.bank.account.model.dto.AccountUpdateRequest;
+import com.bank.account.model.dto.PatchedAccount;
+
+import java.util.Optional;
+
+public interface AccountRepositoryCustom {
+
+    Optional<PatchedAccount> patchAccount(Long id, AccountUpdateRequest patch, Long expectedVersion);
+
+    Optional<AccountSnapshot> deleteAccount(Long id);
+
+    boolean lockAccountSlots(Long customerId);
+
+    boolean reserveAccountSlot(Long customerId, int maxAccounts);
+
+    void releaseAccountSlot(Long customerId);
+
+    void releaseAllAccountSlots(Long customerId);
+}
@@ -0,0 +1,143 @@
+package com.bank.account.repository;
+
+import com.bank.account.model.dto.AccountDto;
+import com.bank.account.model.dto.AccountSnapshot;
+import com.bank.account.model.dto.AccountStatus;
+import com.bank.account.model.dto.AccountType;
+import com.bank.account.model.dto.AccountUpdateRequest;
+import com.bank.account.model.dto.PatchedAccount;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Applies a partial update or a delete as a single {@code ... RETURNING} statement, bypassing the persistence context.
+ * Both return the values the row had before, which the incremental aggregates need.
+ * <p>
+ * Also keeps the per-customer account count behind the account limit; a reservation holds the customer's row lock
+ * until the transaction ends, so concurrent creations for one customer are counted one after another.
+ */
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+
+    // The locked sub-select exposes the pre-update values next to the updated row; joining on the customer as well lets
+    // the update probe one partition's primary key.
+    private static final String PREVIOUS_ROW = " FROM (SELECT id, customer_id, type, status, balance FROM account WHERE id = :id FOR UPDATE) AS previous";
+
+    private static final String RETURNING_COLUMNS = " RETURNING a.id, a.account_number, a.type, a.balance, a.status, a.version,"
+            + " a.customer_id, previous.type AS previous_type, previous.status AS previous_status, previous.balance AS previous_balance";
+
+    private static final RowMapper<AccountDto> ACCOUNT_DTO_ROW_MAPPER = (rs, rowNum) -> {
+        AccountDto dto = new AccountDto();
+        dto.setId(rs.getLong("id"));
+        dto.setAccountNumber(rs.getString("account_number"));
+        dto.setType(AccountType.valueOf(rs.getString("type")));
+        dto.setBalance(rs.getDouble("balance"));
+        dto.setStatus(AccountStatus.valueOf(rs.getString("status")));
+        dto.setVersion(rs.getLong("version"));
+        return dto;
+    };
+
+    private static final RowMapper<PatchedAccount> PATCHED_ACCOUNT_ROW_MAPPER = (rs, rowNum) -> {
+        AccountDto account = ACCOUNT_DTO_ROW_MAPPER.mapRow(rs, rowNum);
+        long customerId = rs.getLong("customer_id");
+        AccountSnapshot previous = new AccountSnapshot(customerId,
+                AccountType.valueOf(rs.getString("previous_type")),
+                AccountStatus.valueOf(rs.getString("previous_status")),
+                rs.getDouble("previous_balance"));
+        AccountSnapshot current = new AccountSnapshot(customerId, account.getType(), account.getStatus(), account.getBalance());
+        return new PatchedAccount(account, previous, current);
+    };
+
+    private static final RowMapper<AccountSnapshot> SNAPSHOT_ROW_MAPPER = (rs, rowNum) -> new AccountSnapshot(
+            rs.getLong("customer_id"),
+            AccountType.valueOf(rs.getString("type")),
+            AccountStatus.valueOf(rs.getString("status")),
+            rs.getDouble("balance"));
+
+    // Inserts the first slot or takes the next one if the customer is below the limit; no row is written otherwise.
+    private static final String RESERVE_SLOT = """
+            INSERT INTO customer_account_count AS c (customer_id, account_count) VALUES (:customerId, 1)
+            ON CONFLICT (customer_id) DO UPDATE SET account_count = c.account_count + 1
+            WHERE c.account_count < :maxAccounts
+            """;
+
+    private final JdbcClient jdbcClient;
+
+    public AccountRepositoryCustomImpl(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public Optional<PatchedAccount> patchAccount(Long id, AccountUpdateRequest patch, Long expectedVersion) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringJoiner assignments = new StringJoiner(", ");
+        if (patch.getType() != null) {
+            assignments.add("type = :type");
+            params.put("type", patch.getType().name());
+        }
+        if (patch.getBalance() != null) {
+            assignments.add("balance = :balance");
+            params.put("balance", patch.getBalance());
+        }
+        if (patch.getStatus() != null) {
+            assignments.add("status = :status");
+            params.put("status", patch.getStatus().name());
+        }
+        assignments.add("version = COALESCE(a.version, 0) + 1");
+        params.put("id", id);
+        String condition = " WHERE a.id = previous.id AND a.customer_id = previous.customer_id";
+        if (expectedVersion != null) {
+            condition += " AND COALESCE(a.version, 0) = :expectedVersion";
+            params.put("expectedVersion", expectedVersion);
+        }
+
+        return jdbcClient.sql("UPDATE account AS a SET " + assignments + PREVIOUS_ROW + condition + RETURNING_COLUMNS)
+                .params(params)
+                .query(PATCHED_ACCOUNT_ROW_MAPPER)
+                .optional();
+    }
+
+    @Override
+    public Optional<AccountSnapshot> deleteAccount(Long id) {
+        return jdbcClient.sql("DELETE FROM account WHERE id = :id RETURNING customer_id, type, status, balance")
+                .param("id", id)
+                .query(SNAPSHOT_ROW_MAPPER)
+                .optional();
+    }
+
+    @Override
+    public boolean lockAccountSlots(Long customerId) {
+        return jdbcClient.sql("SELECT account_count FROM customer_account_count WHERE customer_id = :customerId FOR UPDATE")
+                .param("customerId", customerId)
+                .query(Integer.class)
+                .optional()
+                .isPresent();
+    }
+
+    @Override
+    public boolean reserveAccountSlot(Long customerId, int maxAccounts) {
+        return jdbcClient.sql(RESERVE_SLOT)
+                .param("customerId", customerId)
+                .param("maxAccounts", maxAccounts)
+                .update() == 1;
+    }
+
+    @Override
+    public void releaseAccountSlot(Long customerId) {
+        jdbcClient.sql("UPDATE customer_account_count SET account_count = account_count - 1"
+                        + " WHERE customer_id = :customerId AND account_count > 0")
+                .param("customerId", customerId)
+                .update();
+    }
+
+    @Override
+    public void releaseAllAccountSlots(Long customerId) {
+        jdbcClient.sql("DELETE FROM customer_account_count WHERE customer_id = :customerId")
+                .param("customerId", customerId)
+                .update();
+    }
+}
@@ -0,0 +1,235 @@
+package com.bank.account.repository;
+
+import com.bank.account.config.ShardRouter;
+import com.bank.account.config.ShardRoutingDataSource;
+import com.bank.account.exception.BusinessErrors;
+import com.bank.account.exception.SystemException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Routes the repositories to the shard holding a customer or an account, and runs a query on every shard at once.
+ * <p>
+ * Customers belong to the shard the {@link ShardRouter} picks for them. While shards are being added
+ * ({@code account.datasource.shard-rebalance-from}), a customer whose owner changed stays on its previous owner until
+ * the rebalancer moves it: the new owner is asked first, then the previous one, new customers go straight to the new
+ * owner, and writes on the previous owner first lock the customer's count row, which is what the rebalancer locks to
+ * move it.
+ * <p>
+ * An account ID ends in its customer's bucket and is routed straight to the bucket's owner. While rebalancing, and for
+ * IDs from before sharding, the customer is looked up first: on the owner, or the first shard for old IDs, then on
+ * every shard. Without {@code account.datasource.shard-urls} there is a single shard and routing changes nothing.
+ */
+@Component
+public class AccountShards implements AutoCloseable {
+
+    /**
+     * Keeps the thread routed to {@code shard} until closed. {@code movable} routes point at a customer's previous owner.
+     */
+    public record Route(String shard, Long customerId, boolean movable, ShardRoutingDataSource.Scope scope) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            scope.close();
+        }
+    }
+
+    private final List<String> shards;
+    private final Map<String, JdbcClient> clients = new LinkedHashMap<>();
+    private final ShardRouter router;
+    private final ShardRouter previousRouter;
+    private final AccountRepository accountRepository;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public AccountShards(ObjectProvider<ShardRoutingDataSource> routingDataSource,
+                         DataSource dataSource,
+                         AccountRepository accountRepository,
+                         @Value("${account.datasource.shard-virtual-nodes}") int virtualNodes,
+                         @Value("${account.datasource.shard-rebalance-from}") int rebalanceFrom) {
+        this(routingDataSource.stream().findFirst()
+                        .map(ShardRoutingDataSource::shards)
+                        .orElseGet(() -> Map.of(ShardRouter.shardName(0), dataSource)),
+                virtualNodes, rebalanceFrom, accountRepository);
+    }
+
+    AccountShards(Map<String, DataSource> shards, int virtualNodes, int rebalanceFrom, AccountRepository accountRepository) {
+        this.shards = List.copyOf(shards.keySet());
+        shards.forEach((shard, dataSource) -> clients.put(shard, JdbcClient.create(dataSource)));
+        this.router = new ShardRouter(this.shards, virtualNodes);
+        if (rebalanceFrom < 0 || (rebalanceFrom > 0 && rebalanceFrom >= this.shards.size())) {
+            throw new IllegalArgumentException("Cannot rebalance from " + rebalanceFrom + " to " + this.shards.size() + " shards.");
+        }
+        this.previousRouter = rebalanceFrom > 0 ? new ShardRouter(this.shards.subList(0, rebalanceFrom), virtualNodes) : null;
+        this.accountRepository = accountRepository;
+    }
+
+    public boolean isSharded() {
+        return shards.size() > 1;
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public ShardRouter router() {
+        return router;
+    }
+
+    public Route route(String shard) {
+        return route(shard, null, false);
+    }
+
+    public Route routeCustomer(Long customerId) {
+        String owner = router.shardFor(customerId);
+        if (previousRouter == null) {
+            return route(owner, customerId, false);
+        }
+        String previousOwner = previousRouter.shardFor(customerId);
+        if (previousOwner.equals(owner) || hasAccountSlots(owner, customerId) || !hasAccountSlots(previousOwner, customerId)) {
+            return route(owner, customerId, false);
+        }
+        return route(previousOwner, customerId, true);
+    }
+
+    public Route routeAccount(Long id) {
+        if (!isSharded()) {
+            return route(shards.getFirst(), null, false);
+        }
+        boolean shardedId = ShardRouter.isShardedId(id);
+        if (shardedId && previousRouter == null) {
+            return route(router.shardForAccount(id), null, false);
+        }
+        String expected = shardedId ? router.shardForAccount(id) : shards.getFirst();
+        Long expectedCustomer = customerOf(expected, id);
+        if (expectedCustomer != null) {
+            return route(expected, expectedCustomer, isMovable(expected, expectedCustomer));
+        }
+        // Not moved yet, or moved since it was created; mid-move it is on two shards and the owner wins.
+        List<Long> customers = onEachShard(() -> customerOf(ShardRoutingDataSource.currentShard(), id));
+        String found = null;
+        Long customerId = null;
+        for (int i = 0; i < shards.size(); i++) {
+            Long candidate = customers.get(i);
+            if (candidate != null && (found == null || router.shardFor(candidate).equals(shards.get(i)))) {
+                found = shards.get(i);
+                customerId = candidate;
+            }
+        }
+        if (found == null) {
+            // No such account; the query finds nothing on any shard.
+            return route(shards.getFirst(), null, false);
+        }
+        return route(found, customerId, isMovable(found, customerId));
+    }
+
+    /**
+     * Locks the routed customer's count row when its accounts could be moved away, and fails if they already were.
+     * Must run first in the write transaction, on the routed connection.
+     */
+    public void fence(Route route) {
+        if (!route.movable()) {
+            return;
+        }
+        if (!accountRepository.lockAccountSlots(route.customerId())
+                && hasAccountSlots(router.shardFor(route.customerId()), route.customerId())) {
+            throw BusinessErrors.CUSTOMER_MOVING.exception();
+        }
+    }
+
+    /**
+     * Runs {@code query} once per shard, in parallel, and returns the results in shard order. When sharded, each run
+     * uses its own connection, outside any transaction of the caller.
+     */
+    public <T> List<T> onEachShard(Supplier<T> query) {
+        if (!isSharded()) {
+            List<T> result = new ArrayList<>(1);
+            result.add(query.get());
+            return result;
+        }
+        List<Future<T>> futures = new ArrayList<>(shards.size());
+        for (String shard : shards) {
+            futures.add(executor.submit(() -> {
+                try (ShardRoutingDataSource.Scope ignored = ShardRoutingDataSource.route(shard)) {
+                    return query.get();
+                }
+            }));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    /**
+     * Merges one keyset page per shard into the first {@code limit} rows overall. Each shard's page must hold its
+     * first {@code limit} rows in {@code order}.
+     */
+    public <T> List<T> gather(Supplier<List<T>> page, Comparator<? super T> order, int limit) {
+        return onEachShard(page).stream()
+                .flatMap(List::stream)
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private Route route(String shard, Long customerId, boolean movable) {
+        return new Route(shard, customerId, movable, ShardRoutingDataSource.route(shard));
+    }
+
+    private boolean isMovable(String shard, Long customerId) {
+        return previousRouter != null && !router.shardFor(customerId).equals(shard);
+    }
+
+    // Straight on the shard's pool, so a lookup never binds the caller's transaction to a shard.
+    private boolean hasAccountSlots(String shard, Long customerId) {
+        return clients.get(shard).sql("SELECT 1 FROM customer_account_count WHERE customer_id = :customerId")
+                .param("customerId", customerId)
+                .query(Integer.class)
+                .optional()
+                .isPresent();
+    }
+
+    private Long customerOf(String shard, Long id) {
+        return clients.get(shard).sql("SELECT customer_id FROM account WHERE id = :id")
+                .param("id", id)
+                .query(Long.class)
+                .optional()
+                .orElse(null);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new SystemException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SystemException(e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.bank.account.repository;
+
+import com.bank.account.model.entity.AccountStatsBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AccountStatsRepository extends JpaRepository<AccountStatsBucket, AccountStatsBucket.Key>, AccountStatsRepositoryCustom {
+}
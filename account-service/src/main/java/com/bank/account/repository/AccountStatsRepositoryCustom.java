@@ -0,0 +1,18 @@
+package com.bank.account.repository;
+
+import com.bank.account.model.dto.AccountStatsDimension;
+import com.bank.account.model.entity.AccountStatsBucket;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AccountStatsRepositoryCustom {
+
+    void addToBuckets(List<AccountStatsBucket> deltas);
+
+    List<AccountStatsBucket> sumBuckets(Collection<AccountStatsDimension> dimensions);
+
+    List<AccountStatsBucket> aggregateAccounts();
+
+    int deleteEmptyBuckets();
+}
@@ -0,0 +1,113 @@
+package com.bank.account.repository;
+
+import com.bank.account.model.dto.AccountStatsDimension;
+import com.bank.account.model.entity.AccountStatsBucket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Applies aggregate deltas as one multi-row upsert, so concurrent writers add to the same bucket without lost updates.
+ * Rows are locked in the order given, callers pass them sorted to avoid deadlocks.
+ * <p>
+ * Every account write touches a TYPE and a STATUS bucket, so those are striped: a write adds to the stripe picked by its
+ * database session, and concurrent writers mostly lock different rows until they commit. A bucket is the sum of its
+ * {@code account_stats} row and its stripes.
+ */
+@RequiredArgsConstructor
+public class AccountStatsRepositoryCustomImpl implements AccountStatsRepositoryCustom {
+
+    private static final String AGGREGATE_ACCOUNTS = """
+            SELECT 'TYPE' AS dimension, type AS bucket, COUNT(*) AS account_count, COALESCE(SUM(balance), 0) AS balance_sum
+            FROM account GROUP BY type
+            UNION ALL
+            SELECT 'STATUS', status, COUNT(*), COALESCE(SUM(balance), 0)
+            FROM account GROUP BY status
+            UNION ALL
+            SELECT 'CUSTOMER', CAST(customer_id AS VARCHAR), COUNT(*), COALESCE(SUM(balance), 0)
+            FROM account GROUP BY customer_id
+            """;
+
+    private static final String SUM_BUCKETS = """
+            SELECT dimension, bucket, SUM(account_count) AS account_count, SUM(balance_sum) AS balance_sum
+            FROM (SELECT dimension, bucket, account_count, balance_sum FROM account_stats
+                  UNION ALL
+                  SELECT dimension, bucket, account_count, balance_sum FROM account_stats_stripe) buckets
+            WHERE dimension IN (:dimensions)
+            GROUP BY dimension, bucket
+            """;
+
+    private static final Set<AccountStatsDimension> STRIPED =
+            EnumSet.of(AccountStatsDimension.TYPE, AccountStatsDimension.STATUS);
+
+    private static final int STRIPES = 16;
+
+    private static final RowMapper<AccountStatsBucket> BUCKET_ROW_MAPPER = (rs, rowNum) -> new AccountStatsBucket(
+            AccountStatsDimension.valueOf(rs.getString("dimension")),
+            rs.getString("bucket"),
+            rs.getLong("account_count"),
+            rs.getDouble("balance_sum"));
+
+    private final JdbcClient jdbcClient;
+
+    @Override
+    public void addToBuckets(List<AccountStatsBucket> deltas) {
+        upsert("account_stats", deltas.stream().filter(delta -> !STRIPED.contains(delta.getDimension())).toList(), null);
+        upsert("account_stats_stripe", deltas.stream().filter(delta -> STRIPED.contains(delta.getDimension())).toList(),
+                "mod(pg_backend_pid(), " + STRIPES + ")");
+    }
+
+    @Override
+    public List<AccountStatsBucket> sumBuckets(Collection<AccountStatsDimension> dimensions) {
+        return jdbcClient.sql(SUM_BUCKETS)
+                .param("dimensions", dimensions.stream().map(Enum::name).toList())
+                .query(BUCKET_ROW_MAPPER)
+                .list();
+    }
+
+    private void upsert(String table, List<AccountStatsBucket> deltas, String stripe) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<String, Object> params = new HashMap<>();
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < deltas.size(); i++) {
+            AccountStatsBucket delta = deltas.get(i);
+            values.add("(:dimension" + i + ", :bucket" + i + (stripe == null ? "" : ", " + stripe)
+                    + ", :count" + i + ", :balance" + i + ")");
+            params.put("dimension" + i, delta.getDimension().name());
+            params.put("bucket" + i, delta.getBucket());
+            params.put("count" + i, delta.getAccountCount());
+            params.put("balance" + i, delta.getBalanceSum());
+        }
+
+        String key = stripe == null ? "dimension, bucket" : "dimension, bucket, stripe";
+        jdbcClient.sql("INSERT INTO " + table + " (" + key + ", account_count, balance_sum) VALUES " + values
+                        + " ON CONFLICT (" + key + ") DO UPDATE"
+                        + " SET account_count = " + table + ".account_count + EXCLUDED.account_count,"
+                        + " balance_sum = " + table + ".balance_sum + EXCLUDED.balance_sum")
+                .params(params)
+                .update();
+    }
+
+    @Override
+    public List<AccountStatsBucket> aggregateAccounts() {
+        return jdbcClient.sql(AGGREGATE_ACCOUNTS)
+                .query(BUCKET_ROW_MAPPER)
+                .list();
+    }
+
+    @Override
+    public int deleteEmptyBuckets() {
+        return jdbcClient.sql("DELETE FROM account_stats WHERE account_count = 0")
+                .update();
+    }
+}
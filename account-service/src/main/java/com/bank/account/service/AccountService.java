@@ -1,9 +1,11 @@
 package com.bank.account.service;
 
 import com.bank.account.model.dto.AccountDto;
+import com.bank.account.model.dto.AccountSummary;
 import com.bank.account.model.dto.AccountUpdateRequest;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AccountService {
 
@@ -11,9 +13,21 @@ public interface AccountService {
 
     AccountDto getAccount(Long id);
 
+    Long getAccountVersion(Long id);
+
     List<AccountDto> getAllAccounts();
 
-    AccountDto updateAccount(Long id, AccountUpdateRequest accountUpdateRequest);
+    List<AccountDto> getAccountsPage(Long afterId, int limit);
+
+    void streamAllAccounts(Consumer<AccountDto> action);
+
+    List<AccountSummary> getAccountsByCustomerId(Long customerId);
+
+    List<AccountSummary> getAccountsByCustomerLegalId(String customerLegalId);
+
+    AccountDto updateAccount(Long id, AccountUpdateRequest accountUpdateRequest, Long expectedVersion);
+
+    AccountDto patchAccount(Long id, AccountUpdateRequest accountUpdateRequest, Long expectedVersion);
 
     void deleteAccount(Long id);
 
@@ -0,0 +1,18 @@
+package com.bank.account.service;
+
+import com.bank.account.model.dto.AccountSnapshot;
+import com.bank.account.model.dto.AccountStatsDto;
+import com.bank.account.model.entity.AccountStatsBucket;
+
+import java.util.List;
+
+public interface AccountStatsService {
+
+    AccountStatsDto getStats(Long customerId);
+
+    void recordChange(AccountSnapshot removed, AccountSnapshot added);
+
+    List<AccountStatsBucket> findDrift();
+
+    void applyCorrections(List<AccountStatsBucket> corrections);
+}
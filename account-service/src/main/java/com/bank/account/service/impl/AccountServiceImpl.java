@@ -1,105 +1,216 @@
 package com.bank.account.service.impl;
 
+import com.bank.account.cache.SerializedResponseCache;
 import com.bank.account.client.CustomerServiceClient;
 import com.bank.account.event.AccountEventPublisher;
 import com.bank.account.exception.BusinessErrors;
 import com.bank.account.model.dto.AccountDto;
+import com.bank.account.model.dto.AccountSnapshot;
+import com.bank.account.model.dto.AccountSummary;
 import com.bank.account.model.dto.AccountType;
 import com.bank.account.model.dto.AccountUpdateRequest;
 import com.bank.account.model.dto.CustomerDto;
 import com.bank.account.model.dto.CustomerStatus;
 import com.bank.account.model.dto.CustomerType;
+import com.bank.account.model.dto.PatchedAccount;
 import com.bank.account.model.entity.Account;
 import com.bank.account.model.mapper.AccountMapper;
 import com.bank.account.repository.AccountRepository;
+import com.bank.account.repository.AccountShards;
 import com.bank.account.service.AccountService;
+import com.bank.account.service.AccountStatsService;
 import feign.FeignException;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 @Service
+@Timed("account.service")
 @RequiredArgsConstructor
 @Slf4j
 public class AccountServiceImpl implements AccountService {
 
     private static final int MAX_ACCOUNTS_PER_CUSTOMER = 10;
     private static final double MIN_INVESTMENT_BALANCE = 10000.0;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final Comparator<AccountDto> BY_ID = Comparator.comparing(AccountDto::getId);
 
     private final AccountRepository accountRepository;
     private final AccountMapper accountMapper;
     private final AccountEventPublisher eventPublisher;
     private final CustomerServiceClient customerServiceClient;
+    private final SerializedResponseCache responseCache;
+    private final AccountStatsService accountStatsService;
+    private final AccountShards accountShards;
 
     @Override
     @Transactional
     public AccountDto createAccount(AccountDto accountDto) {
-        log.info("Creating account for customer with legal ID: {}", accountDto.getCustomerLegalId());
-        CustomerDto customer = getCustomer(accountDto);
+        log.debug("Creating account for customer with legal ID: {}", accountDto.getCustomerLegalId());
+        CustomerDto customer = getCustomer(accountDto.getCustomerLegalId());
 
         validateCustomer(customer);
         validateAccountCreation(accountDto, customer);
+        try (AccountShards.Route route = accountShards.routeCustomer(customer.getId())) {
+            accountShards.fence(route);
+            // Checked last, it is the one rule that writes: the slot is taken with the insert and rolled back with it.
+            if (!accountRepository.reserveAccountSlot(customer.getId(), MAX_ACCOUNTS_PER_CUSTOMER)) {
+                throw BusinessErrors.ACCOUNT_LIMIT_EXCEEDED.exception();
+            }
 
-        Account account = accountMapper.toEntity(accountDto);
-        account.setCustomerId(customer.getId());
-        account.setAccountNumber(generateAccountNumber(accountDto.getCustomerLegalId()));
+            Account account = accountMapper.toEntity(accountDto);
+            account.setCustomerId(customer.getId());
+            account.setAccountNumber(generateAccountNumber(accountDto.getCustomerLegalId()));
 
-        Account savedAccount = accountRepository.save(account);
-        log.info("Account created successfully with ID: {}", savedAccount.getId());
+            Account savedAccount = accountRepository.save(account);
+            accountStatsService.recordChange(null, snapshot(savedAccount));
+            log.info("Account created successfully with ID: {}", savedAccount.getId());
 
-        AccountDto savedAccountDto = accountMapper.toDto(savedAccount);
-        savedAccountDto.setCustomerLegalId(accountDto.getCustomerLegalId());
-        eventPublisher.publishAccountCreatedEvent(savedAccountDto);
-        return savedAccountDto;
+            AccountDto savedAccountDto = accountMapper.toDto(savedAccount);
+            savedAccountDto.setCustomerLegalId(accountDto.getCustomerLegalId());
+            eventPublisher.publishAccountCreatedEvent(savedAccountDto);
+            return savedAccountDto;
+        }
     }
 
     @Override
     @Transactional(readOnly = true)
     public AccountDto getAccount(Long id) {
-        log.info("Fetching account with ID: {}", id);
-        return accountRepository.findById(id)
-                .map(accountMapper::toDto)
-                .orElseThrow(BusinessErrors.NO_SUCH_ACCOUNT::exception);
+        log.debug("Fetching account with ID: {}", id);
+        try (AccountShards.Route ignored = accountShards.routeAccount(id)) {
+            return accountRepository.findDtoById(id)
+                    .orElseThrow(BusinessErrors.NO_SUCH_ACCOUNT::exception);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long getAccountVersion(Long id) {
+        try (AccountShards.Route ignored = accountShards.routeAccount(id)) {
+            return accountRepository.findVersionById(id)
+                    .orElseThrow(BusinessErrors.NO_SUCH_ACCOUNT::exception);
+        }
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AccountDto> getAllAccounts() {
-        log.info("Fetching all accounts");
-        return accountRepository.findAll().stream()
-                .map(accountMapper::toDto)
-                .toList();
+        log.debug("Fetching all accounts");
+        if (!accountShards.isSharded()) {
+            return accountRepository.findAllDtos();
+        }
+        List<AccountDto> accounts = new ArrayList<>();
+        forEachAccountInPages(accounts::add);
+        return accounts;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AccountDto> getAccountsPage(Long afterId, int limit) {
+        log.debug("Fetching {} accounts after ID: {}", limit, afterId);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        return accountShards.gather(() -> accountRepository.findDtosAfter(afterId, Limit.of(limit)), BY_ID, limit);
+    }
+
+    // Not transactional: each page is read in a transaction of its own, so a slow client holds no connection.
+    @Override
+    public void streamAllAccounts(Consumer<AccountDto> action) {
+        log.debug("Streaming all accounts");
+        forEachAccountInPages(action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AccountSummary> getAccountsByCustomerId(Long customerId) {
+        log.debug("Fetching accounts for customer ID: {}", customerId);
+        try (AccountShards.Route ignored = accountShards.routeCustomer(customerId)) {
+            return accountRepository.findSummariesByCustomerId(customerId);
+        }
+    }
+
+    @Override
+    public List<AccountSummary> getAccountsByCustomerLegalId(String customerLegalId) {
+        log.debug("Fetching accounts for customer legal ID: {}", customerLegalId);
+        CustomerDto customer = getCustomer(customerLegalId);
+        try (AccountShards.Route ignored = accountShards.routeCustomer(customer.getId())) {
+            return accountRepository.findSummariesByCustomerId(customer.getId());
+        }
     }
 
     @Override
     @Transactional
-    public AccountDto updateAccount(Long id, AccountUpdateRequest accountUpdateRequest) {
-        log.info("Updating account with ID: {}", id);
-        Account existingAccount = accountRepository.findById(id)
-                .orElseThrow(BusinessErrors.NO_SUCH_ACCOUNT::exception);
+    public AccountDto updateAccount(Long id, AccountUpdateRequest accountUpdateRequest, Long expectedVersion) {
+        log.debug("Updating account with ID: {}", id);
+        try (AccountShards.Route route = accountShards.routeAccount(id)) {
+            accountShards.fence(route);
+            Account existingAccount = accountRepository.findById(id)
+                    .orElseThrow(BusinessErrors.NO_SUCH_ACCOUNT::exception);
+            if (expectedVersion != null && !expectedVersion.equals(Objects.requireNonNullElse(existingAccount.getVersion(), 0L))) {
+                throw BusinessErrors.VERSION_MISMATCH.exception();
+            }
+
+            AccountSnapshot previous = snapshot(existingAccount);
+            accountMapper.updateAccountFromDto(accountUpdateRequest, existingAccount);
 
-        accountMapper.updateAccountFromDto(accountUpdateRequest, existingAccount);
+            Account updatedAccount = accountRepository.saveAndFlush(existingAccount);
+            accountStatsService.recordChange(previous, snapshot(updatedAccount));
+            responseCache.evict(id);
+            log.info("Account updated successfully with ID: {}", updatedAccount.getId());
 
-        Account updatedAccount = accountRepository.save(existingAccount);
-        log.info("Account updated successfully with ID: {}", updatedAccount.getId());
+            AccountDto updatedAccountDto = accountMapper.toDto(updatedAccount);
+            eventPublisher.publishAccountUpdatedEvent(updatedAccountDto);
+            return updatedAccountDto;
+        }
+    }
+
+    @Override
+    @Transactional
+    public AccountDto patchAccount(Long id, AccountUpdateRequest accountUpdateRequest, Long expectedVersion) {
+        log.debug("Patching account with ID: {}", id);
+        if (accountUpdateRequest.getType() == null && accountUpdateRequest.getBalance() == null
+                && accountUpdateRequest.getStatus() == null) {
+            throw new IllegalArgumentException("At least one field must be provided to patch an account.");
+        }
+        try (AccountShards.Route route = accountShards.routeAccount(id)) {
+            accountShards.fence(route);
+            PatchedAccount patchedAccount = accountRepository.patchAccount(id, accountUpdateRequest, expectedVersion)
+                    .orElseThrow(() -> expectedVersion != null && accountRepository.existsById(id)
+                            ? BusinessErrors.VERSION_MISMATCH.exception()
+                            : BusinessErrors.NO_SUCH_ACCOUNT.exception());
+            accountStatsService.recordChange(patchedAccount.previous(), patchedAccount.current());
+            responseCache.evict(id);
+            log.info("Account patched successfully with ID: {}", id);
 
-        AccountDto updatedAccountDto = accountMapper.toDto(updatedAccount);
-        eventPublisher.publishAccountUpdatedEvent(updatedAccountDto);
-        return updatedAccountDto;
+            eventPublisher.publishAccountUpdatedEvent(patchedAccount.account());
+            return patchedAccount.account();
+        }
     }
 
     @Override
     @Transactional
     public void deleteAccount(Long id) {
-        log.info("Deleting account with ID: {}", id);
-        if (!accountRepository.existsById(id)) {
-            throw BusinessErrors.NO_SUCH_ACCOUNT.exception();
+        log.debug("Deleting account with ID: {}", id);
+        try (AccountShards.Route route = accountShards.routeAccount(id)) {
+            accountShards.fence(route);
+            AccountSnapshot deletedAccount = accountRepository.deleteAccount(id)
+                    .orElseThrow(BusinessErrors.NO_SUCH_ACCOUNT::exception);
+            // Before the stats, so every writer locks the customer's count row ahead of the stats rows.
+            accountRepository.releaseAccountSlot(deletedAccount.customerId());
+            accountStatsService.recordChange(deletedAccount, null);
         }
-        accountRepository.deleteById(id);
+        responseCache.evict(id);
         eventPublisher.publishAccountDeletedEvent(id);
         log.info("Account deleted successfully with ID: {}", id);
     }
@@ -107,25 +218,50 @@ public class AccountServiceImpl implements AccountService {
     @Override
     @Transactional
     public void deleteAccountsByCustomerId(Long customerId) {
-        log.info("Deleting all accounts for customer ID: {}", customerId);
-        List<Account> accountsToDelete = accountRepository.findByCustomerId(customerId);
-        if (accountsToDelete.isEmpty()) {
-            log.warn("No accounts found for customer ID: {}, nothing to delete.", customerId);
-            return;
+        log.debug("Deleting all accounts for customer ID: {}", customerId);
+        List<Account> accountsToDelete;
+        try (AccountShards.Route route = accountShards.routeCustomer(customerId)) {
+            accountShards.fence(route);
+            accountsToDelete = accountRepository.findByCustomerId(customerId);
+            if (accountsToDelete.isEmpty()) {
+                log.warn("No accounts found for customer ID: {}, nothing to delete.", customerId);
+                return;
+            }
+            accountRepository.deleteAll(accountsToDelete);
+            accountRepository.releaseAllAccountSlots(customerId);
+            for (Account account : accountsToDelete) {
+                accountStatsService.recordChange(snapshot(account), null);
+            }
         }
-        accountRepository.deleteAll(accountsToDelete);
         for (Account account : accountsToDelete) {
+            responseCache.evict(account.getId());
             eventPublisher.publishAccountDeletedEvent(account.getId());
         }
         log.info("Successfully deleted {} accounts for customer ID: {}", accountsToDelete.size(), customerId);
     }
 
-    private CustomerDto getCustomer(AccountDto accountDto) {
+    // Keyset pages merged across shards; an account met twice while it is being moved is only passed on once.
+    private void forEachAccountInPages(Consumer<AccountDto> action) {
+        long afterId = 0;
+        List<AccountDto> page;
+        do {
+            long from = afterId;
+            page = accountShards.gather(() -> accountRepository.findDtosAfter(from, Limit.of(MAX_PAGE_SIZE)), BY_ID, MAX_PAGE_SIZE);
+            for (AccountDto account : page) {
+                if (account.getId() > afterId) {
+                    action.accept(account);
+                    afterId = account.getId();
+                }
+            }
+        } while (page.size() == MAX_PAGE_SIZE);
+    }
+
+    private CustomerDto getCustomer(String customerLegalId) {
         CustomerDto customer;
         try {
-            customer = customerServiceClient.getCustomerByLegalId(accountDto.getCustomerLegalId());
+            customer = customerServiceClient.getCustomerByLegalId(customerLegalId);
         } catch (FeignException.NotFound e) {
-            log.warn("Customer not found via Feign client for legal ID: {}", accountDto.getCustomerLegalId());
+            log.warn("Customer not found via Feign client for legal ID: {}", customerLegalId);
             throw BusinessErrors.CUSTOMER_NOT_FOUND.exception();
         }
         if (customer == null) {
@@ -140,28 +276,22 @@ public class AccountServiceImpl implements AccountService {
         }
     }
 
-    private void validateAccountCreation(AccountDto accountDto, CustomerDto customer) {
-        if (accountRepository.countByCustomerId(customer.getId()) >= MAX_ACCOUNTS_PER_CUSTOMER) {
-            throw BusinessErrors.ACCOUNT_LIMIT_EXCEEDED.exception();
-        }
-
+    void validateAccountCreation(AccountDto accountDto, CustomerDto customer) {
         if (CustomerType.RETAIL.equals(customer.getType()) && accountDto.getType() != AccountType.SAVINGS) {
             throw BusinessErrors.RETAIL_CUSTOMER_ACCOUNT_TYPE_INVALID.exception();
         }
 
-        if (accountDto.getType() == AccountType.SALARY) {
-            accountRepository.findByCustomerIdAndType(customer.getId(), AccountType.SALARY)
-                    .ifPresent(a -> {
-                        throw BusinessErrors.SALARY_ACCOUNT_ALREADY_EXISTS.exception();
-                    });
-        }
-
         if (accountDto.getType() == AccountType.INVESTMENT && accountDto.getBalance() < MIN_INVESTMENT_BALANCE) {
             throw BusinessErrors.INVESTMENT_ACCOUNT_MIN_BALANCE.exception();
         }
     }
 
-    private String generateAccountNumber(String legalId) {
+    private static AccountSnapshot snapshot(Account account) {
+        return new AccountSnapshot(account.getCustomerId(), account.getType(), account.getStatus(),
+                Objects.requireNonNullElse(account.getBalance(), 0.0));
+    }
+
+    String generateAccountNumber(String legalId) {
         long randomSuffix = ThreadLocalRandom.current().nextLong(100, 1000);
         return String.format("%s%03d", legalId, randomSuffix);
     }
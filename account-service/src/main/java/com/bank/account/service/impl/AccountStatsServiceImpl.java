@@ -0,0 +1,175 @@
+package com.bank.account.service.impl;
+
+import com.bank.account.model.dto.AccountSnapshot;
+import com.bank.account.model.dto.AccountStatsDimension;
+import com.bank.account.model.dto.AccountStatsDto;
+import com.bank.account.model.dto.AccountStatus;
+import com.bank.account.model.dto.AccountTotals;
+import com.bank.account.model.dto.AccountType;
+import com.bank.account.model.entity.AccountStatsBucket;
+import com.bank.account.repository.AccountShards;
+import com.bank.account.repository.AccountStatsRepository;
+import com.bank.account.service.AccountStatsService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Timed("account.service")
+@RequiredArgsConstructor
+public class AccountStatsServiceImpl implements AccountStatsService {
+
+    private static final double BALANCE_TOLERANCE = 0.005;
+
+    private static final Comparator<AccountStatsBucket.Key> KEY_ORDER = Comparator
+            .comparing(AccountStatsBucket.Key::getDimension)
+            .thenComparing(AccountStatsBucket.Key::getBucket);
+
+    private final AccountStatsRepository statsRepository;
+    private final AccountShards accountShards;
+
+    @Override
+    @Transactional(readOnly = true)
+    public AccountStatsDto getStats(Long customerId) {
+        Map<AccountType, AccountTotals> byType = new EnumMap<>(AccountType.class);
+        for (AccountType type : AccountType.values()) {
+            byType.put(type, new AccountTotals());
+        }
+        Map<AccountStatus, AccountTotals> byStatus = new EnumMap<>(AccountStatus.class);
+        for (AccountStatus status : AccountStatus.values()) {
+            byStatus.put(status, new AccountTotals());
+        }
+
+        // Each shard keeps the aggregates of its own accounts.
+        List<List<AccountStatsBucket>> shardBuckets = accountShards.onEachShard(
+                () -> statsRepository.sumBuckets(List.of(AccountStatsDimension.TYPE, AccountStatsDimension.STATUS)));
+        for (List<AccountStatsBucket> buckets : shardBuckets) {
+            for (AccountStatsBucket bucket : buckets) {
+                if (bucket.getDimension() == AccountStatsDimension.TYPE) {
+                    add(byType.get(AccountType.valueOf(bucket.getBucket())), bucket);
+                } else {
+                    add(byStatus.get(AccountStatus.valueOf(bucket.getBucket())), bucket);
+                }
+            }
+        }
+
+        // Every account has exactly one type, so the type buckets add up to the overall totals.
+        AccountTotals total = new AccountTotals();
+        byType.values().forEach(totals -> {
+            total.setCount(total.getCount() + totals.getCount());
+            total.setBalance(total.getBalance() + totals.getBalance());
+        });
+
+        AccountTotals customer = null;
+        if (customerId != null) {
+            try (AccountShards.Route ignored = accountShards.routeCustomer(customerId)) {
+                customer = statsRepository.findById(new AccountStatsBucket.Key(AccountStatsDimension.CUSTOMER, customerId.toString()))
+                        .map(AccountStatsServiceImpl::toTotals)
+                        .orElseGet(AccountTotals::new);
+            }
+        }
+        return new AccountStatsDto(total, byType, byStatus, customer);
+    }
+
+    @Override
+    @Transactional
+    public void recordChange(AccountSnapshot removed, AccountSnapshot added) {
+        Map<AccountStatsBucket.Key, AccountStatsBucket> deltas = new TreeMap<>(KEY_ORDER);
+        if (removed != null) {
+            accumulate(deltas, removed, -1);
+        }
+        if (added != null) {
+            accumulate(deltas, added, 1);
+        }
+        deltas.values().removeIf(delta -> delta.getAccountCount() == 0 && delta.getBalanceSum() == 0);
+        statsRepository.addToBuckets(new ArrayList<>(deltas.values()));
+    }
+
+    /**
+     * Deltas that add ({@code sign} 1) or remove ({@code sign} -1) the given accounts, sorted for
+     * {@link AccountStatsRepository#addToBuckets(List)}.
+     */
+    public static List<AccountStatsBucket> deltas(List<AccountSnapshot> accounts, int sign) {
+        Map<AccountStatsBucket.Key, AccountStatsBucket> deltas = new TreeMap<>(KEY_ORDER);
+        accounts.forEach(account -> accumulate(deltas, account, sign));
+        return new ArrayList<>(deltas.values());
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public List<AccountStatsBucket> findDrift() {
+        // One snapshot for the stats and the accounts, deltas are written in the same transaction as the account change.
+        // Not read-only so it stays on the primary: drift measured on a lagging replica would undo recent writes.
+        Map<AccountStatsBucket.Key, AccountStatsBucket> stored = statsRepository.sumBuckets(List.of(AccountStatsDimension.values()))
+                .stream()
+                .collect(Collectors.toMap(AccountStatsServiceImpl::keyOf, Function.identity()));
+        Map<AccountStatsBucket.Key, AccountStatsBucket> expected = statsRepository.aggregateAccounts().stream()
+                .collect(Collectors.toMap(AccountStatsServiceImpl::keyOf, Function.identity()));
+
+        Set<AccountStatsBucket.Key> keys = new HashSet<>(stored.keySet());
+        keys.addAll(expected.keySet());
+        List<AccountStatsBucket> corrections = new ArrayList<>();
+        for (AccountStatsBucket.Key key : keys) {
+            AccountStatsBucket actual = stored.get(key);
+            AccountStatsBucket wanted = expected.get(key);
+            long countDrift = (wanted == null ? 0 : wanted.getAccountCount()) - (actual == null ? 0 : actual.getAccountCount());
+            double balanceDrift = (wanted == null ? 0 : wanted.getBalanceSum()) - (actual == null ? 0 : actual.getBalanceSum());
+            if (countDrift != 0 || Math.abs(balanceDrift) > BALANCE_TOLERANCE) {
+                corrections.add(new AccountStatsBucket(key.getDimension(), key.getBucket(), countDrift, balanceDrift));
+            }
+        }
+        corrections.sort(Comparator.comparing(AccountStatsServiceImpl::keyOf, KEY_ORDER));
+        return corrections;
+    }
+
+    @Override
+    @Transactional
+    public void applyCorrections(List<AccountStatsBucket> corrections) {
+        // Corrections are increments too, so writes committed since the drift was measured are kept.
+        statsRepository.addToBuckets(corrections);
+        int removed = statsRepository.deleteEmptyBuckets();
+        log.info("Applied {} account stats corrections and removed {} empty buckets.", corrections.size(), removed);
+    }
+
+    private static void accumulate(Map<AccountStatsBucket.Key, AccountStatsBucket> deltas, AccountSnapshot snapshot, int sign) {
+        add(deltas, AccountStatsDimension.TYPE, snapshot.type().name(), sign, snapshot.balance());
+        add(deltas, AccountStatsDimension.STATUS, snapshot.status().name(), sign, snapshot.balance());
+        add(deltas, AccountStatsDimension.CUSTOMER, snapshot.customerId().toString(), sign, snapshot.balance());
+    }
+
+    private static void add(Map<AccountStatsBucket.Key, AccountStatsBucket> deltas, AccountStatsDimension dimension,
+                            String bucket, int sign, double balance) {
+        AccountStatsBucket delta = deltas.computeIfAbsent(new AccountStatsBucket.Key(dimension, bucket),
+                key -> new AccountStatsBucket(dimension, bucket, 0, 0));
+        delta.setAccountCount(delta.getAccountCount() + sign);
+        delta.setBalanceSum(delta.getBalanceSum() + sign * balance);
+    }
+
+    private static AccountStatsBucket.Key keyOf(AccountStatsBucket bucket) {
+        return new AccountStatsBucket.Key(bucket.getDimension(), bucket.getBucket());
+    }
+
+    private static void add(AccountTotals totals, AccountStatsBucket bucket) {
+        totals.setCount(totals.getCount() + bucket.getAccountCount());
+        totals.setBalance(totals.getBalance() + bucket.getBalanceSum());
+    }
+
+    private static AccountTotals toTotals(AccountStatsBucket bucket) {
+        return new AccountTotals(bucket.getAccountCount(), bucket.getBalanceSum());
+    }
+}
@@ -0,0 +1,209 @@
+package com.bank.account.service.support;
+
+import com.bank.account.config.ShardRouter;
+import com.bank.account.model.dto.AccountSnapshot;
+import com.bank.account.model.dto.AccountStatus;
+import com.bank.account.model.dto.AccountType;
+import com.bank.account.repository.AccountShards;
+import com.bank.account.repository.AccountStatsRepositoryCustomImpl;
+import com.bank.account.service.impl.AccountStatsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Moves customers whose accounts are not on the shard the {@link ShardRouter} picks for them, one customer per move.
+ * <p>
+ * A move locks the customer's count row on the source shard, the same row every write to a movable customer locks
+ * first (see {@link AccountShards#fence}), copies the accounts, their count and their stats to the target shard and
+ * commits there, then deletes them from the source. Until the source commits, reads already find the customer on the
+ * target; a copy left behind by a failed delete is skipped on the next run.
+ */
+@Slf4j
+public class AccountShardRebalancer {
+
+    public record ShardStatus(String shard, long customers, long accounts, long misplacedCustomers) {
+    }
+
+    public record Result(int movedCustomers, int movedAccounts, int busyCustomers, int conflictingCustomers) {
+    }
+
+    private record MovedAccount(Long id, Long customerId, String accountNumber, AccountType type, double balance,
+                                AccountStatus status, long version) {
+
+        AccountSnapshot snapshot() {
+            return new AccountSnapshot(customerId, type, status, balance);
+        }
+    }
+
+    private static final RowMapper<MovedAccount> ACCOUNT_ROW_MAPPER = (rs, rowNum) -> new MovedAccount(
+            rs.getLong("id"),
+            rs.getLong("customer_id"),
+            rs.getString("account_number"),
+            AccountType.valueOf(rs.getString("type")),
+            rs.getDouble("balance"),
+            AccountStatus.valueOf(rs.getString("status")),
+            rs.getLong("version"));
+
+    private static final String INSERT_ACCOUNT = """
+            INSERT INTO account (id, customer_id, account_number, type, balance, status, version)
+            VALUES (:id, :customerId, :accountNumber, :type, :balance, :status, :version)
+            ON CONFLICT (id, customer_id) DO NOTHING
+            RETURNING id""";
+
+    private static final String ADD_ACCOUNT_SLOTS = """
+            INSERT INTO customer_account_count (customer_id, account_count) VALUES (:customerId, :count)
+            ON CONFLICT (customer_id) DO UPDATE SET account_count = customer_account_count.account_count + EXCLUDED.account_count""";
+
+    private final AccountShards accountShards;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, JdbcClient> clients = new LinkedHashMap<>();
+    private final Map<String, TransactionTemplate> transactions = new LinkedHashMap<>();
+    private final Map<String, AccountStatsRepositoryCustomImpl> stats = new LinkedHashMap<>();
+
+    public AccountShardRebalancer(Map<String, DataSource> shards, AccountShards accountShards, MeterRegistry meterRegistry) {
+        this.accountShards = accountShards;
+        this.meterRegistry = meterRegistry;
+        shards.forEach((shard, dataSource) -> {
+            JdbcClient client = JdbcClient.create(dataSource);
+            clients.put(shard, client);
+            transactions.put(shard, new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+            stats.put(shard, new AccountStatsRepositoryCustomImpl(client));
+        });
+    }
+
+    public List<ShardStatus> status() {
+        List<ShardStatus> statuses = new ArrayList<>();
+        for (String shard : clients.keySet()) {
+            long[] totals = new long[3];
+            clients.get(shard).sql("SELECT customer_id, account_count FROM customer_account_count")
+                    .query(rs -> {
+                        totals[0]++;
+                        totals[1] += rs.getLong("account_count");
+                        if (!shard.equals(accountShards.router().shardFor(rs.getLong("customer_id")))) {
+                            totals[2]++;
+                        }
+                    });
+            statuses.add(new ShardStatus(shard, totals[0], totals[1], totals[2]));
+        }
+        return statuses;
+    }
+
+    /**
+     * Moves up to {@code maxCustomers} misplaced customers. Customers locked by a write are left for the next run.
+     */
+    public Result rebalance(int maxCustomers) {
+        int movedCustomers = 0;
+        int movedAccounts = 0;
+        int busyCustomers = 0;
+        int conflictingCustomers = 0;
+        for (String source : clients.keySet()) {
+            int limit = maxCustomers - movedCustomers - busyCustomers - conflictingCustomers;
+            for (Long customerId : misplacedCustomers(source, limit)) {
+                String target = accountShards.router().shardFor(customerId);
+                try {
+                    int moved = move(customerId, source, target);
+                    movedCustomers++;
+                    movedAccounts += moved;
+                    meterRegistry.counter("account.shards.moved.accounts", "source", source, "target", target).increment(moved);
+                } catch (PessimisticLockingFailureException e) {
+                    busyCustomers++;
+                    log.info("Customer ID: {} is locked by a write, leaving it on {} for the next run.", customerId, source);
+                } catch (DataIntegrityViolationException e) {
+                    // Accounts created on both shards by instances routing differently, e.g. two salary accounts.
+                    conflictingCustomers++;
+                    log.error("Customer ID: {} has conflicting accounts on {} and {}, resolve them by hand.", customerId, source,
+                            target, e);
+                }
+            }
+        }
+        log.info("Moved {} accounts of {} customers between shards, {} customers were busy and {} conflicting.", movedAccounts,
+                movedCustomers, busyCustomers, conflictingCustomers);
+        return new Result(movedCustomers, movedAccounts, busyCustomers, conflictingCustomers);
+    }
+
+    private List<Long> misplacedCustomers(String shard, int limit) {
+        List<Long> customers = new ArrayList<>();
+        if (limit <= 0) {
+            return customers;
+        }
+        clients.get(shard).sql("SELECT customer_id FROM customer_account_count ORDER BY customer_id")
+                .query(rs -> {
+                    long customerId = rs.getLong("customer_id");
+                    if (customers.size() < limit && !shard.equals(accountShards.router().shardFor(customerId))) {
+                        customers.add(customerId);
+                    }
+                });
+        return customers;
+    }
+
+    private int move(Long customerId, String source, String target) {
+        JdbcClient from = clients.get(source);
+        Integer moved = transactions.get(source).execute(status -> {
+            // Fail fast rather than queue behind a write; the customer is retried on the next run.
+            from.sql("SET LOCAL lock_timeout = '500ms'").update();
+            Optional<Integer> count = from.sql("SELECT account_count FROM customer_account_count WHERE customer_id = :customerId FOR UPDATE")
+                    .param("customerId", customerId)
+                    .query(Integer.class)
+                    .optional();
+            if (count.isEmpty()) {
+                return 0;
+            }
+            List<MovedAccount> accounts = from.sql("SELECT id, customer_id, account_number, type, balance, status, version"
+                            + " FROM account WHERE customer_id = :customerId ORDER BY id FOR UPDATE")
+                    .param("customerId", customerId)
+                    .query(ACCOUNT_ROW_MAPPER)
+                    .list();
+
+            copy(customerId, accounts, target);
+
+            from.sql("DELETE FROM account WHERE customer_id = :customerId")
+                    .param("customerId", customerId)
+                    .update();
+            from.sql("DELETE FROM customer_account_count WHERE customer_id = :customerId")
+                    .param("customerId", customerId)
+                    .update();
+            stats.get(source).addToBuckets(AccountStatsServiceImpl.deltas(accounts.stream().map(MovedAccount::snapshot).toList(), -1));
+            return accounts.size();
+        });
+        return moved == null ? 0 : moved;
+    }
+
+    // Committed on the target before the source lets go; accounts already there from an earlier failed run are skipped.
+    private void copy(Long customerId, List<MovedAccount> accounts, String target) {
+        JdbcClient to = clients.get(target);
+        transactions.get(target).executeWithoutResult(status -> {
+            List<AccountSnapshot> inserted = new ArrayList<>();
+            for (MovedAccount account : accounts) {
+                to.sql(INSERT_ACCOUNT)
+                        .param("id", account.id())
+                        .param("customerId", account.customerId())
+                        .param("accountNumber", account.accountNumber())
+                        .param("type", account.type().name())
+                        .param("balance", account.balance())
+                        .param("status", account.status().name())
+                        .param("version", account.version())
+                        .query(Long.class)
+                        .optional()
+                        .ifPresent(id -> inserted.add(account.snapshot()));
+            }
+            to.sql(ADD_ACCOUNT_SLOTS)
+                    .param("customerId", customerId)
+                    .param("count", inserted.size())
+                    .update();
+            stats.get(target).addToBuckets(AccountStatsServiceImpl.deltas(inserted, 1));
+        });
+    }
+}
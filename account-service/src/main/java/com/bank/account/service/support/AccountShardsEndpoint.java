@@ -0,0 +1,28 @@
+package com.bank.account.service.support;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@Endpoint(id = "shards")
+public class AccountShardsEndpoint {
+
+    private static final int DEFAULT_REBALANCE_LIMIT = 1000;
+
+    private final AccountShardRebalancer rebalancer;
+
+    @ReadOperation
+    public List<AccountShardRebalancer.ShardStatus> status() {
+        return rebalancer.status();
+    }
+
+    @WriteOperation
+    public AccountShardRebalancer.Result rebalance(@Nullable Integer limit) {
+        return rebalancer.rebalance(limit != null ? limit : DEFAULT_REBALANCE_LIMIT);
+    }
+}
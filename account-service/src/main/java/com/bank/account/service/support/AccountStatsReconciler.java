@@ -0,0 +1,63 @@
+package com.bank.account.service.support;
+
+import com.bank.account.model.entity.AccountStatsBucket;
+import com.bank.account.repository.AccountShards;
+import com.bank.account.service.AccountStatsService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Periodically recomputes the account aggregates from the account table and reports, and by default repairs, drift.
+ * Each shard is reconciled on its own, as it keeps the aggregates of its own accounts.
+ */
+@Slf4j
+@Component
+public class AccountStatsReconciler {
+
+    private final AccountStatsService statsService;
+    private final AccountShards accountShards;
+    private final boolean repair;
+    private final AtomicInteger driftedBuckets = new AtomicInteger();
+
+    public AccountStatsReconciler(AccountStatsService statsService,
+                                  AccountShards accountShards,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${account.stats.reconcile.repair}") boolean repair) {
+        this.statsService = statsService;
+        this.accountShards = accountShards;
+        this.repair = repair;
+        Gauge.builder("account.stats.drifted.buckets", driftedBuckets, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${account.stats.reconcile.cron}")
+    public void reconcile() {
+        int drifted = 0;
+        for (String shard : accountShards.shards()) {
+            try (AccountShards.Route ignored = accountShards.route(shard)) {
+                drifted += reconcileShard(shard);
+            }
+        }
+        driftedBuckets.set(drifted);
+    }
+
+    private int reconcileShard(String shard) {
+        List<AccountStatsBucket> drift = statsService.findDrift();
+        if (drift.isEmpty()) {
+            log.debug("Account stats match the account table on {}.", shard);
+            return 0;
+        }
+        log.warn("Account stats drifted in {} buckets on {}.", drift.size(), shard);
+        if (repair) {
+            statsService.applyCorrections(drift);
+        }
+        return drift.size();
+    }
+}
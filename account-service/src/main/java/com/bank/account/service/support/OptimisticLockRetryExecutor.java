@@ -0,0 +1,73 @@
+package com.bank.account.service.support;
+
+import com.bank.account.exception.ConcurrentUpdateException;
+import com.bank.account.exception.SystemException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a transactional update and re-runs it when the commit loses an optimistic-lock race.
+ * Must be called outside the transaction boundary so every attempt reads a fresh row.
+ */
+@Slf4j
+@Component
+public class OptimisticLockRetryExecutor {
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Counter conflictCounter;
+    private final Counter retryCounter;
+    private final Counter exhaustedCounter;
+
+    public OptimisticLockRetryExecutor(MeterRegistry meterRegistry,
+                                       @Value("${account.update.retry.max-attempts}") int maxAttempts,
+                                       @Value("${account.update.retry.initial-backoff-ms}") long initialBackoffMs,
+                                       @Value("${account.update.retry.max-backoff-ms}") long maxBackoffMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.conflictCounter = meterRegistry.counter("account.update.optimistic.lock.conflicts");
+        this.retryCounter = meterRegistry.counter("account.update.optimistic.lock.retries");
+        this.exhaustedCounter = meterRegistry.counter("account.update.optimistic.lock.exhausted");
+    }
+
+    public <T> T execute(Supplier<T> update, Supplier<Long> currentVersion) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return update.get();
+            } catch (OptimisticLockingFailureException e) {
+                conflictCounter.increment();
+                if (attempt >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    log.warn("Giving up after {} attempts due to concurrent modification.", attempt);
+                    throw new ConcurrentUpdateException(currentVersion.get());
+                }
+                retryCounter.increment();
+                log.debug("Optimistic lock conflict on attempt {}, retrying.", attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 16));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SystemException(e);
+        }
+    }
+}
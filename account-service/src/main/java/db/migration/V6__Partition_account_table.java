@@ -0,0 +1,209 @@
+package db.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Converts {@code account} into a table hash-partitioned by {@code customer_id} while the service keeps writing to it.
+ * <p>
+ * A trigger mirrors every write into the partitioned copy, existing rows are copied over in batches by id, and the two
+ * tables are swapped in one short transaction. Batches lock their rows {@code FOR SHARE}, so a row deleted while its
+ * batch runs is either skipped or removed again by the trigger. Every step can be re-run after a failure.
+ * <p>
+ * Keys of a partitioned table must include the partition key, so they become {@code (id, customer_id)} and
+ * {@code (customer_id, account_number)}. Account numbers start with the customer's legal ID, which keeps them unique
+ * across customers too.
+ */
+@Slf4j
+public class V6__Partition_account_table extends BaseJavaMigration {
+
+    static final int PARTITIONS = 16;
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int SWAP_ATTEMPTS = 10;
+    private static final String DEADLOCK_DETECTED = "40P01";
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private static final String CREATE_PARTITIONED_TABLE = """
+            CREATE TABLE IF NOT EXISTS account_partitioned (
+                id             BIGINT           NOT NULL,
+                customer_id    BIGINT           NOT NULL,
+                account_number VARCHAR(255)     NOT NULL,
+                type           VARCHAR(255)     NOT NULL CHECK (type IN ('SALARY', 'SAVINGS', 'INVESTMENT')),
+                balance        DOUBLE PRECISION NOT NULL,
+                status         VARCHAR(255)     NOT NULL CHECK (status IN ('ACTIVE', 'INACTIVE', 'SUSPENDED')),
+                version        BIGINT           NOT NULL DEFAULT 0,
+                CONSTRAINT account_partitioned_pkey PRIMARY KEY (id, customer_id),
+                CONSTRAINT uk_account_partitioned_number UNIQUE (customer_id, account_number)
+            ) PARTITION BY HASH (customer_id)""";
+
+    private static final String CREATE_PARTITION =
+            "CREATE TABLE IF NOT EXISTS account_p%02d PARTITION OF account_partitioned FOR VALUES WITH (MODULUS %d, REMAINDER %d)";
+
+    // Same indexes as V3 and V4, renamed on swap.
+    private static final String CREATE_CUSTOMER_INDEX = "CREATE INDEX IF NOT EXISTS idx_account_partitioned_customer"
+            + " ON account_partitioned (customer_id, type, status) INCLUDE (id, account_number, balance)";
+    private static final String CREATE_SALARY_INDEX = "CREATE UNIQUE INDEX IF NOT EXISTS uk_account_partitioned_salary"
+            + " ON account_partitioned (customer_id) WHERE type = 'SALARY'";
+
+    // An update is mirrored as delete and insert, which also covers a row the copy has not reached yet.
+    private static final String CREATE_MIRROR_FUNCTION = """
+            CREATE OR REPLACE FUNCTION account_mirror() RETURNS trigger LANGUAGE plpgsql AS $$
+            BEGIN
+                IF TG_OP <> 'INSERT' THEN
+                    DELETE FROM account_partitioned WHERE id = OLD.id AND customer_id = OLD.customer_id;
+                END IF;
+                IF TG_OP <> 'DELETE' THEN
+                    INSERT INTO account_partitioned (id, customer_id, account_number, type, balance, status, version)
+                    VALUES (NEW.id, NEW.customer_id, NEW.account_number, NEW.type, NEW.balance, NEW.status,
+                            COALESCE(NEW.version, 0));
+                END IF;
+                RETURN NULL;
+            END
+            $$""";
+
+    private static final String COPY_BATCH = """
+            INSERT INTO account_partitioned (id, customer_id, account_number, type, balance, status, version)
+            SELECT id, customer_id, account_number, type, balance, status, COALESCE(version, 0)
+            FROM account WHERE id > ? AND id <= ?
+            FOR SHARE
+            ON CONFLICT DO NOTHING""";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            if (isPartitioned(connection)) {
+                log.info("Table account is already partitioned.");
+                return;
+            }
+            createPartitionedCopy(connection);
+            copyRows(connection);
+            swap(connection);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static boolean isPartitioned(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT relkind FROM pg_class WHERE oid = 'account'::regclass")) {
+            if (!resultSet.next()) {
+                throw new SQLException("Table account does not exist.");
+            }
+            boolean partitioned = "p".equals(resultSet.getString(1));
+            connection.commit();
+            return partitioned;
+        }
+    }
+
+    private static void createPartitionedCopy(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_PARTITIONED_TABLE);
+            for (int remainder = 0; remainder < PARTITIONS; remainder++) {
+                statement.execute(CREATE_PARTITION.formatted(remainder, PARTITIONS, remainder));
+            }
+            statement.execute(CREATE_CUSTOMER_INDEX);
+            statement.execute(CREATE_SALARY_INDEX);
+            statement.execute(CREATE_MIRROR_FUNCTION);
+            statement.execute("DROP TRIGGER IF EXISTS account_mirror ON account");
+            statement.execute("CREATE TRIGGER account_mirror AFTER INSERT OR UPDATE OR DELETE ON account"
+                    + " FOR EACH ROW EXECUTE FUNCTION account_mirror()");
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+        log.info("Created account_partitioned with {} partitions, mirroring writes to account.", PARTITIONS);
+    }
+
+    // Rows above the maximum read here were inserted after the trigger and are already mirrored.
+    private static void copyRows(Connection connection) throws SQLException {
+        long maxId = queryLong(connection, "SELECT COALESCE(MAX(id), 0) FROM account");
+        connection.commit();
+        long copied = 0;
+        try (PreparedStatement statement = connection.prepareStatement(COPY_BATCH)) {
+            for (long from = 0; from < maxId; from += BATCH_SIZE) {
+                statement.setLong(1, from);
+                statement.setLong(2, from + BATCH_SIZE);
+                copied += copyBatch(connection, statement);
+                if (from / BATCH_SIZE % 100 == 99) {
+                    log.info("Copied {} accounts, up to ID {} of {}.", copied, from + BATCH_SIZE, maxId);
+                }
+            }
+        }
+        log.info("Copied {} accounts into account_partitioned.", copied);
+    }
+
+    // A batch can deadlock with a writer that locked one of its rows first; only the batch is retried.
+    private static int copyBatch(Connection connection, PreparedStatement statement) throws SQLException {
+        while (true) {
+            try {
+                int rows = statement.executeUpdate();
+                connection.commit();
+                return rows;
+            } catch (SQLException e) {
+                connection.rollback();
+                if (!DEADLOCK_DETECTED.equals(e.getSQLState())) {
+                    throw e;
+                }
+                log.warn("Account copy batch deadlocked with a writer, retrying.");
+            }
+        }
+    }
+
+    // Waits for the exclusive lock only briefly each time, so queued requests are not stalled behind a long transaction.
+    private static void swap(Connection connection) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL lock_timeout = '2s'");
+                statement.execute("LOCK TABLE account IN ACCESS EXCLUSIVE MODE");
+                // Above every ID handed out so far, including those of rolled back inserts.
+                long nextId = queryLong(connection, "SELECT nextval(pg_get_serial_sequence('account', 'id'))");
+                statement.execute("DROP TABLE account");
+                statement.execute("DROP FUNCTION account_mirror()");
+                statement.execute("ALTER TABLE account_partitioned RENAME TO account");
+                statement.execute("ALTER TABLE account RENAME CONSTRAINT account_partitioned_pkey TO account_pkey");
+                statement.execute("ALTER TABLE account RENAME CONSTRAINT uk_account_partitioned_number TO uk_account_account_number");
+                statement.execute("ALTER INDEX idx_account_partitioned_customer RENAME TO idx_account_customer_type_status");
+                statement.execute("ALTER INDEX uk_account_partitioned_salary RENAME TO uk_account_customer_salary");
+                statement.execute("CREATE SEQUENCE account_id_seq OWNED BY account.id");
+                statement.execute("SELECT setval('account_id_seq', " + nextId + ", false)");
+                statement.execute("ALTER TABLE account ALTER COLUMN id SET DEFAULT nextval('account_id_seq')");
+                connection.commit();
+                log.info("Swapped in the partitioned account table.");
+                return;
+            } catch (SQLException e) {
+                connection.rollback();
+                if (!LOCK_NOT_AVAILABLE.equals(e.getSQLState()) || attempt == SWAP_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Could not lock account for the swap, attempt {} of {}.", attempt, SWAP_ATTEMPTS);
+            }
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            if (!resultSet.next()) {
+                throw new SQLException("No row returned by " + sql);
+            }
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- Matches the schema Hibernate generated before migrations, so databases created that way are baselined unchanged.
+CREATE TABLE IF NOT EXISTS account (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    customer_id    BIGINT           NOT NULL,
+    account_number VARCHAR(255)     NOT NULL CONSTRAINT uk_account_account_number UNIQUE,
+    type           VARCHAR(255)     NOT NULL CHECK (type IN ('SALARY', 'SAVINGS', 'INVESTMENT')),
+    balance        DOUBLE PRECISION NOT NULL,
+    status         VARCHAR(255)     NOT NULL CHECK (status IN ('ACTIVE', 'INACTIVE', 'SUSPENDED')),
+    version        BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS account_stats (
+    dimension     VARCHAR(255)     NOT NULL CHECK (dimension IN ('TYPE', 'STATUS', 'CUSTOMER')),
+    bucket        VARCHAR(255)     NOT NULL,
+    account_count BIGINT           NOT NULL,
+    balance_sum   DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (dimension, bucket)
+);
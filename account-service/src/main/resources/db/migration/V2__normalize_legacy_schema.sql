@@ -0,0 +1,24 @@
+-- Rows written before optimistic locking have no version; the code treats them as 0, so does the column from now on.
+UPDATE account SET version = 0 WHERE version IS NULL;
+ALTER TABLE account
+    ALTER COLUMN version SET DEFAULT 0,
+    ALTER COLUMN version SET NOT NULL;
+
+-- Hibernate named the unique constraint after a hash; give it the name error handling can rely on.
+DO $$
+DECLARE
+    legacy_name TEXT;
+BEGIN
+    SELECT c.conname INTO legacy_name
+    FROM pg_constraint c
+             JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+    WHERE c.conrelid = 'account'::regclass
+      AND c.contype = 'u'
+      AND cardinality(c.conkey) = 1
+      AND a.attname = 'account_number'
+      AND c.conname <> 'uk_account_account_number';
+    IF legacy_name IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE account RENAME CONSTRAINT %I TO uk_account_account_number', legacy_name);
+    END IF;
+END
+$$;
@@ -0,0 +1,8 @@
+-- Built concurrently, so writes continue while it builds; Flyway runs this script outside a transaction.
+-- A failed build leaves an INVALID index behind that IF NOT EXISTS would skip: drop it before migrating again.
+
+-- Leads with customer_id for findByCustomerId, which loads the accounts deleteAccountsByCustomerId removes without
+-- relying on the customer's count row. Ordered and covering for findSummariesByCustomerId, which is answered by an
+-- index-only scan.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_account_customer_type_status
+    ON account (customer_id, type, status) INCLUDE (id, account_number, balance);
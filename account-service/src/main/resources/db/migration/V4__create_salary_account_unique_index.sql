@@ -0,0 +1,8 @@
+-- Built concurrently, so writes continue while it builds; Flyway runs this script outside a transaction.
+-- A failed build leaves an INVALID index behind that IF NOT EXISTS would skip: drop it before migrating again.
+-- The build fails if a customer already has two salary accounts; those must be resolved first.
+
+-- At most one salary account per customer. Enforced here rather than by a lookup before the insert, which two
+-- concurrent creations could both pass. GlobalExceptionHandler maps a violation to SALARY_ACCOUNT_ALREADY_EXISTS.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_account_customer_salary
+    ON account (customer_id) WHERE type = 'SALARY';
@@ -0,0 +1,13 @@
+-- Number of accounts per customer, the authority for the account limit. Creation increments it with a conditional
+-- upsert inside its own transaction, deletes decrement it, so the check is one row update that concurrent creations
+-- for the same customer queue on.
+CREATE TABLE IF NOT EXISTS customer_account_count (
+    customer_id   BIGINT  PRIMARY KEY,
+    account_count INTEGER NOT NULL CHECK (account_count >= 0)
+);
+
+-- Seeded from the existing accounts; instances still running the previous release do not maintain it, so roll out
+-- before letting them create accounts again, or re-run this statement with DO UPDATE once they are gone.
+INSERT INTO customer_account_count (customer_id, account_count)
+SELECT customer_id, COUNT(*) FROM account GROUP BY customer_id
+ON CONFLICT (customer_id) DO NOTHING;
@@ -0,0 +1,22 @@
+-- A violation on a partitioned table names the partition's index, which PostgreSQL called e.g. account_p03_customer_id_idx.
+-- Each gets its parent's name and the partition's suffix instead, e.g. uk_account_customer_salary_p03, which
+-- GlobalExceptionHandler maps like the parent. Renaming the index of a key renames the constraint with it.
+DO $$
+DECLARE
+    partition_index RECORD;
+BEGIN
+    FOR partition_index IN
+        SELECT child.relname AS name, parent.relname || '_' || substring(partition.relname FROM '_(p\d+)$') AS new_name
+        FROM pg_inherits inheritance
+                 JOIN pg_class child ON child.oid = inheritance.inhrelid
+                 JOIN pg_class parent ON parent.oid = inheritance.inhparent
+                 JOIN pg_index child_index ON child_index.indexrelid = child.oid
+                 JOIN pg_class partition ON partition.oid = child_index.indrelid
+        WHERE parent.relkind = 'I' AND partition.relname ~ '^account_p\d+$'
+    LOOP
+        IF partition_index.name <> partition_index.new_name THEN
+            EXECUTE format('ALTER INDEX %I RENAME TO %I', partition_index.name, partition_index.new_name);
+        END IF;
+    END LOOP;
+END
+$$;
@@ -0,0 +1,24 @@
+-- Every account write adds to a TYPE and a STATUS bucket, which made those few rows the hottest in the database: each
+-- writer held them locked until it committed. Their deltas now go to one of several stripes, picked per database
+-- session, and a bucket is read as its account_stats row plus its stripes.
+CREATE TABLE IF NOT EXISTS account_stats_stripe (
+    dimension     VARCHAR(255)     NOT NULL CHECK (dimension IN ('TYPE', 'STATUS')),
+    bucket        VARCHAR(255)     NOT NULL,
+    stripe        SMALLINT         NOT NULL,
+    account_count BIGINT           NOT NULL,
+    balance_sum   DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (dimension, bucket, stripe)
+);
+
+-- Recomputed from the existing accounts, so the stats are right before the first reconciliation. Writers still running
+-- wait for the lock and add their deltas on top, and an account they have not committed yet is not counted here.
+LOCK TABLE account_stats IN EXCLUSIVE MODE;
+
+DELETE FROM account_stats;
+
+INSERT INTO account_stats (dimension, bucket, account_count, balance_sum)
+SELECT 'TYPE', type, COUNT(*), COALESCE(SUM(balance), 0) FROM account GROUP BY type
+UNION ALL
+SELECT 'STATUS', status, COUNT(*), COALESCE(SUM(balance), 0) FROM account GROUP BY status
+UNION ALL
+SELECT 'CUSTOMER', CAST(customer_id AS VARCHAR), COUNT(*), COALESCE(SUM(balance), 0) FROM account GROUP BY customer_id;
@@ -0,0 +1,9 @@
+-- Flyway checksums comment lines too, and V3's comment was corrected after databases had applied it. Moves those
+-- databases from the old checksum to the current one before validation; a fresh database has no history table yet.
+DO $$
+BEGIN
+    IF to_regclass('flyway_schema_history') IS NOT NULL THEN
+        UPDATE flyway_schema_history SET checksum = -509090588 WHERE version = '3' AND checksum = 2129376432;
+    END IF;
+END
+$$;
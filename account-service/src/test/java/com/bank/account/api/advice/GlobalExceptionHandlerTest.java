@@ -0,0 +1,72 @@
+package com.bank.account.api.advice;
+
+import com.bank.account.exception.BusinessErrors;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GlobalExceptionHandler exceptionHandler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        exceptionHandler = new GlobalExceptionHandler(meterRegistry);
+    }
+
+    @Test
+    void whenSalaryIndexIsViolated_shouldRespondWithSalaryAccountAlreadyExists() {
+        // Arrange
+        DataIntegrityViolationException ex = violation("FEHLER: doppelter Schlüsselwert verletzt Unique-Constraint",
+                "uk_account_customer_salary");
+
+        // Act
+        ErrorResponse response = exceptionHandler.handleDataIntegrityViolationException(ex);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(BusinessErrors.SALARY_ACCOUNT_ALREADY_EXISTS.getHttpStatus());
+        assertThat(response.getBody().getDetail()).isEqualTo(BusinessErrors.SALARY_ACCOUNT_ALREADY_EXISTS.getMessage());
+        assertThat(meterRegistry.counter("account.business.rejections", "code", "SALARY_ACCOUNT_ALREADY_EXISTS").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void whenSalaryIndexOfAPartitionIsViolated_shouldRespondWithSalaryAccountAlreadyExists() {
+        // Arrange
+        DataIntegrityViolationException ex = violation("duplicate key value violates unique constraint", "uk_account_customer_salary_p03");
+
+        // Act
+        ErrorResponse response = exceptionHandler.handleDataIntegrityViolationException(ex);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(BusinessErrors.SALARY_ACCOUNT_ALREADY_EXISTS.getHttpStatus());
+    }
+
+    @Test
+    void whenUnknownConstraintIsViolated_shouldRespondWithServerError() {
+        // Arrange
+        DataIntegrityViolationException ex = violation("duplicate key value violates unique constraint", "uk_account_account_number");
+
+        // Act
+        ErrorResponse response = exceptionHandler.handleDataIntegrityViolationException(ex);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(response.getBody().getDetail()).doesNotContain("uk_account_account_number");
+    }
+
+    // As the server reports it: the message in the server's language, the constraint in a field of its own.
+    private static DataIntegrityViolationException violation(String message, String constraint) {
+        PSQLException cause = new PSQLException(new ServerErrorMessage("SERROR\0C23505\0M" + message + "\0n" + constraint + "\0"));
+        return new DataIntegrityViolationException("could not execute statement", cause);
+    }
+}
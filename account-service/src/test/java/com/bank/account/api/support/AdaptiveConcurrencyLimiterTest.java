@@ -0,0 +1,68 @@
+package com.bank.account.api.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long BASELINE = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void whenLimitIsReached_shouldRejectUntilReleased() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 0.2);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(BASELINE);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void whenLatencyRisesWellAboveBaseline_shouldShrinkLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 4, 100, 2.0, 0.2);
+        runSaturated(limiter, BASELINE, 20);
+
+        runSaturated(limiter, BASELINE * 20, 3);
+
+        assertThat(limiter.getLimit()).isLessThan(50);
+    }
+
+    @Test
+    void whenLatencyStaysAtBaselineUnderLoad_shouldGrowLimitUpToMax() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 30, 2.0, 0.2);
+
+        runSaturated(limiter, BASELINE, 200);
+
+        assertThat(limiter.getLimit()).isEqualTo(30);
+    }
+
+    @Test
+    void whenMostSlotsAreIdle_shouldNotGrowLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 30, 2.0, 0.2);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(BASELINE);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    private static void runSaturated(AdaptiveConcurrencyLimiter limiter, long rttNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+}
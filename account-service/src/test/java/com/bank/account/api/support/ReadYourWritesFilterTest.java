@@ -0,0 +1,142 @@
+package com.bank.account.api.support;
+
+import com.bank.account.config.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadYourWritesFilterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(5000, now::get);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Connection primaryConnection = mock(Connection.class);
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource primary = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of(), 1000, meterRegistry);
+    }
+
+    @Test
+    void whenClientWroteWithinWindow_shouldPinItsReadsToPrimary() throws Exception {
+        Cookie marker = write(new MockHttpServletResponse(), new MockFilterChain());
+        now.addAndGet(4000);
+
+        read(marker);
+
+        assertThat(marker.getMaxAge()).isEqualTo(5);
+        assertThat(meterRegistry.counter("account.datasource.reads", "route", "pinned").count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenWindowHasPassed_shouldLetReadsUseReplicas() throws Exception {
+        Cookie marker = write(new MockHttpServletResponse(), new MockFilterChain());
+        now.addAndGet(5000);
+
+        read(marker);
+
+        assertThat(meterRegistry.counter("account.datasource.reads", "route", "pinned").count()).isZero();
+    }
+
+    @Test
+    void whenWriteTakesLong_shouldStartTheWindowWhenItIsDone() throws Exception {
+        Cookie marker = write(new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                now.addAndGet(3000);
+            }
+        });
+        now.addAndGet(4000);
+
+        read(marker);
+
+        assertThat(marker.getValue()).isEqualTo("1003000");
+        assertThat(meterRegistry.counter("account.datasource.reads", "route", "pinned").count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenWriteFailed_shouldNotMarkTheClient() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        rejected.setStatus(400);
+
+        assertThat(write(rejected, new MockFilterChain())).isNull();
+    }
+
+    @Test
+    void whenResponseIsCommittedDuringTheWrite_shouldMarkTheClientBeforeTheBodyGoesOut() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean markedBeforeBody = new AtomicBoolean();
+
+        write(response, new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse wrapped) throws IOException {
+                wrapped.getWriter().write("{}");
+                wrapped.flushBuffer();
+                markedBeforeBody.set(response.getCookie(ReadYourWritesFilter.COOKIE) != null);
+            }
+        });
+
+        assertThat(markedBeforeBody).isTrue();
+    }
+
+    @Test
+    void whenReadCarriesNoMarker_shouldNotPinIt() throws Exception {
+        write(new MockHttpServletResponse(), new MockFilterChain());
+
+        read(null);
+
+        assertThat(meterRegistry.counter("account.datasource.reads", "route", "pinned").count()).isZero();
+    }
+
+    @Test
+    void whenRequestEnds_shouldClearPreference() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/v1/account/1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        routingDataSource.getConnection();
+
+        assertThat(meterRegistry.counter("account.datasource.reads", "route", "pinned").count()).isZero();
+    }
+
+    private Cookie write(MockHttpServletResponse response, MockFilterChain chain) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/account"), response, chain);
+        return response.getCookie(ReadYourWritesFilter.COOKIE);
+    }
+
+    private void read(Cookie marker) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/account/1");
+        if (marker != null) {
+            request.setCookies(marker);
+        }
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                try {
+                    routingDataSource.getConnection();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+    }
+}
@@ -1,39 +1,66 @@
 package com.bank.account.api.v1;
 
+import com.bank.account.cache.SerializedResponseCache;
+import com.bank.account.config.ReplicaRoutingDataSource;
 import com.bank.account.config.SecurityConfig;
 import com.bank.account.exception.BusinessErrors;
 import com.bank.account.model.dto.AccountDto;
+import com.bank.account.model.dto.AccountStatsDto;
+import com.bank.account.model.dto.AccountSummary;
 import com.bank.account.model.dto.AccountStatus;
+import com.bank.account.model.dto.AccountTotals;
 import com.bank.account.model.dto.AccountType;
 import com.bank.account.model.dto.AccountUpdateRequest;
+import com.bank.account.model.entity.Account;
 import com.bank.account.service.AccountService;
+import com.bank.account.service.AccountStatsService;
+import com.bank.account.service.support.OptimisticLockRetryExecutor;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AccountControllerV1.class)
-@Import(SecurityConfig.class)
+@AutoConfigureObservability(tracing = false)
+@Import({SecurityConfig.class, OptimisticLockRetryExecutor.class})
 class AccountControllerV1Test {
 
     @Autowired
@@ -42,9 +69,18 @@ class AccountControllerV1Test {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockitoBean
     private AccountService accountService;
 
+    @MockitoBean
+    private SerializedResponseCache responseCache;
+
+    @MockitoBean
+    private AccountStatsService accountStatsService;
+
     @Test
     @WithMockUser(username = "admin", roles = "ADMIN")
     void whenCreateAccount_withValidDataAndAdminRole_shouldReturnCreated() throws Exception {
@@ -113,6 +149,84 @@ class AccountControllerV1Test {
                 .andExpect(jsonPath("$.customerLegalId").value("1234567"));
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetAccountById_shouldReturnVersionETag() throws Exception {
+        AccountDto responseDto = new AccountDto();
+        responseDto.setId(1L);
+        responseDto.setVersion(3L);
+
+        when(accountService.getAccount(1L)).thenReturn(responseDto);
+
+        mockMvc.perform(get("/api/v1/account/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetAccountById_withMatchingIfNoneMatch_shouldReturnNotModifiedWithoutLoadingAccount() throws Exception {
+        when(accountService.getAccountVersion(1L)).thenReturn(3L);
+
+        mockMvc.perform(get("/api/v1/account/{id}", 1L).header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        verify(accountService, never()).getAccount(anyLong());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetAccountById_withStaleIfNoneMatch_shouldReturnAccount() throws Exception {
+        AccountDto responseDto = new AccountDto();
+        responseDto.setId(1L);
+        responseDto.setVersion(4L);
+
+        when(accountService.getAccountVersion(1L)).thenReturn(4L);
+        when(accountService.getAccount(1L)).thenReturn(responseDto);
+
+        mockMvc.perform(get("/api/v1/account/{id}", 1L).header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.id").value(1L));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetAccountById_withCachedResponse_shouldWriteCachedBytesWithoutLoadingAccount() throws Exception {
+        when(responseCache.isEnabled()).thenReturn(true);
+        when(accountService.getAccountVersion(1L)).thenReturn(3L);
+        when(responseCache.get(1L, 3L)).thenReturn("{\"id\":1,\"version\":3}".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(get("/api/v1/account/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value(1L));
+
+        verify(accountService, never()).getAccount(anyLong());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetAccountById_withCacheMiss_shouldLoadAccountAndCacheIt() throws Exception {
+        AccountDto responseDto = new AccountDto();
+        responseDto.setId(1L);
+        responseDto.setVersion(3L);
+
+        when(responseCache.isEnabled()).thenReturn(true);
+        when(accountService.getAccountVersion(1L)).thenReturn(3L);
+        when(accountService.getAccount(1L)).thenReturn(responseDto);
+        when(responseCache.put(1L, 3L, responseDto)).thenReturn(objectMapper.writeValueAsBytes(responseDto));
+
+        mockMvc.perform(get("/api/v1/account/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.id").value(1L));
+
+        verify(responseCache).put(1L, 3L, responseDto);
+    }
+
     @Test
     @WithMockUser(username = "user", roles = "USER")
     void whenGetAccountById_withNonExistentId_shouldReturnNotFound() throws Exception {
@@ -122,6 +236,18 @@ class AccountControllerV1Test {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenBusinessExceptionIsHandled_shouldCountRejectionByCode() throws Exception {
+        when(accountService.getAccount(anyLong())).thenThrow(BusinessErrors.NO_SUCH_ACCOUNT.exception());
+        double before = meterRegistry.counter("account.business.rejections", "code", "NO_SUCH_ACCOUNT").count();
+
+        mockMvc.perform(get("/api/v1/account/{id}", 99L))
+                .andExpect(status().isNotFound());
+
+        assertThat(meterRegistry.counter("account.business.rejections", "code", "NO_SUCH_ACCOUNT").count()).isEqualTo(before + 1);
+    }
+
     @Test
     @WithMockUser(username = "user", roles = "USER")
     void whenGetAllAccounts_shouldReturnAccountList() throws Exception {
@@ -141,6 +267,108 @@ class AccountControllerV1Test {
                 .andExpect(jsonPath("$[0].customerLegalId").value("1234567"));
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenStreamAllAccounts_shouldWriteOneAccountPerLine() throws Exception {
+        AccountDto account1 = new AccountDto(1L, "12345678901", AccountType.SAVINGS, 100.0, AccountStatus.ACTIVE, 0L);
+        AccountDto account2 = new AccountDto(2L, "12345678902", AccountType.SALARY, 50.0, AccountStatus.ACTIVE, 3L);
+        doAnswer(invocation -> {
+            Consumer<AccountDto> action = invocation.getArgument(0);
+            action.accept(account1);
+            action.accept(account2);
+            return null;
+        }).when(accountService).streamAllAccounts(any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/account/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines.get(1), AccountDto.class)).isEqualTo(account2);
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenStreamAllAccountsAfterAWrite_shouldKeepReadingFromThePrimary() throws Exception {
+        AtomicBoolean preferredWhileStreaming = new AtomicBoolean();
+        doAnswer(invocation -> {
+            preferredWhileStreaming.set(ReplicaRoutingDataSource.isPrimaryPreferred());
+            return null;
+        }).when(accountService).streamAllAccounts(any());
+
+        MvcResult result;
+        ReplicaRoutingDataSource.preferPrimary(true);
+        try {
+            result = mockMvc.perform(get("/api/v1/account/stream")).andReturn();
+        } finally {
+            ReplicaRoutingDataSource.preferPrimary(false);
+        }
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        assertThat(preferredWhileStreaming).isTrue();
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetAccountsByCustomerId_shouldReturnCustomerAccounts() throws Exception {
+        AccountSummary account = new AccountSummary(1L, "12345678901", AccountType.SAVINGS, 100.0, AccountStatus.ACTIVE);
+
+        when(accountService.getAccountsByCustomerId(7L)).thenReturn(List.of(account));
+
+        mockMvc.perform(get("/api/v1/account").param("customerId", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(jsonPath("$[0].id").value(1L));
+
+        verify(accountService, never()).getAllAccounts();
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetAccountsByCustomerLegalId_shouldReturnCustomerAccounts() throws Exception {
+        AccountSummary account = new AccountSummary(1L, "12345678901", AccountType.SAVINGS, 100.0, AccountStatus.ACTIVE);
+
+        when(accountService.getAccountsByCustomerLegalId("1234567")).thenReturn(List.of(account));
+
+        mockMvc.perform(get("/api/v1/account").param("customerLegalId", "1234567"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].accountNumber").value("12345678901"))
+                .andExpect(jsonPath("$[0].type").value("SAVINGS"));
+
+        verify(accountService, never()).getAllAccounts();
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetAccountsByCustomerLegalId_withUnknownCustomer_shouldReturnNotFound() throws Exception {
+        when(accountService.getAccountsByCustomerLegalId("1234567")).thenThrow(BusinessErrors.CUSTOMER_NOT_FOUND.exception());
+
+        mockMvc.perform(get("/api/v1/account").param("customerLegalId", "1234567"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetAccountStats_shouldReturnTotals() throws Exception {
+        AccountStatsDto stats = new AccountStatsDto(new AccountTotals(3, 500.0),
+                Map.of(AccountType.SAVINGS, new AccountTotals(3, 500.0)),
+                Map.of(AccountStatus.ACTIVE, new AccountTotals(3, 500.0)),
+                new AccountTotals(1, 100.0));
+        when(accountStatsService.getStats(7L)).thenReturn(stats);
+
+        mockMvc.perform(get("/api/v1/account/stats").param("customerId", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total.count").value(3))
+                .andExpect(jsonPath("$.byType.SAVINGS.balance").value(500.0))
+                .andExpect(jsonPath("$.customer.count").value(1));
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = "ADMIN")
     void whenUpdateAccount_withAdminRole_shouldReturnOk() throws Exception {
@@ -151,7 +379,7 @@ class AccountControllerV1Test {
         responseDto.setId(1L);
         responseDto.setStatus(AccountStatus.INACTIVE);
 
-        when(accountService.updateAccount(anyLong(), any(AccountUpdateRequest.class))).thenReturn(responseDto);
+        when(accountService.updateAccount(anyLong(), any(AccountUpdateRequest.class), any())).thenReturn(responseDto);
 
         mockMvc.perform(put("/api/v1/account/{id}", 1L)
                         .with(csrf())
@@ -161,6 +389,63 @@ class AccountControllerV1Test {
                 .andExpect(jsonPath("$.status").value("INACTIVE"));
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void whenUpdateAccount_andConflictPersists_shouldReturnConflictWithCurrentVersion() throws Exception {
+        AccountUpdateRequest requestDto = new AccountUpdateRequest();
+        requestDto.setStatus(AccountStatus.INACTIVE);
+
+        when(accountService.updateAccount(anyLong(), any(AccountUpdateRequest.class), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L));
+        when(accountService.getAccountVersion(1L)).thenReturn(7L);
+
+        mockMvc.perform(put("/api/v1/account/{id}", 1L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.currentVersion").value(7L));
+
+        verify(accountService, times(3)).updateAccount(anyLong(), any(AccountUpdateRequest.class), any());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void whenUpdateAccount_withIfMatch_shouldPassExpectedVersion() throws Exception {
+        AccountUpdateRequest requestDto = new AccountUpdateRequest();
+        requestDto.setStatus(AccountStatus.INACTIVE);
+
+        AccountDto responseDto = new AccountDto();
+        responseDto.setId(1L);
+        responseDto.setVersion(6L);
+
+        when(accountService.updateAccount(eq(1L), any(AccountUpdateRequest.class), eq(5L))).thenReturn(responseDto);
+
+        mockMvc.perform(put("/api/v1/account/{id}", 1L)
+                        .with(csrf())
+                        .header("If-Match", "\"5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"6\""));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void whenUpdateAccount_withWeakIfMatch_shouldReturnPreconditionFailed() throws Exception {
+        AccountUpdateRequest requestDto = new AccountUpdateRequest();
+        requestDto.setStatus(AccountStatus.INACTIVE);
+
+        mockMvc.perform(put("/api/v1/account/{id}", 1L)
+                        .with(csrf())
+                        .header("If-Match", "W/\"5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(accountService, never()).updateAccount(anyLong(), any(AccountUpdateRequest.class), any());
+    }
+
     @Test
     @WithMockUser(username = "user", roles = "USER")
     void whenUpdateAccount_withUserRole_shouldReturnForbidden() throws Exception {
@@ -174,6 +459,39 @@ class AccountControllerV1Test {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void whenPatchAccount_withAdminRole_shouldReturnOk() throws Exception {
+        AccountUpdateRequest requestDto = new AccountUpdateRequest();
+        requestDto.setBalance(2500.0);
+
+        AccountDto responseDto = new AccountDto();
+        responseDto.setId(1L);
+        responseDto.setBalance(2500.0);
+
+        when(accountService.patchAccount(anyLong(), any(AccountUpdateRequest.class), any())).thenReturn(responseDto);
+
+        mockMvc.perform(patch("/api/v1/account/{id}", 1L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(2500.0));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenPatchAccount_withUserRole_shouldReturnForbidden() throws Exception {
+        AccountUpdateRequest requestDto = new AccountUpdateRequest();
+        requestDto.setBalance(2500.0);
+
+        mockMvc.perform(patch("/api/v1/account/{id}", 1L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = "ADMIN")
     void whenDeleteAccount_withAdminRole_shouldReturnNoContent() throws Exception {
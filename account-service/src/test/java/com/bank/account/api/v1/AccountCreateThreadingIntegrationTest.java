@@ -0,0 +1,142 @@
+package com.bank.account.api.v1;
+
+import com.bank.account.client.CustomerServiceClient;
+import com.bank.account.config.TestContainersConfiguration;
+import com.bank.account.config.TestRabbitMQConfig;
+import com.bank.account.model.dto.CustomerDto;
+import com.bank.account.model.dto.CustomerStatus;
+import com.bank.account.model.dto.CustomerType;
+import com.bank.account.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives concurrent account creations through Tomcat on platform and on virtual threads and logs the throughput and
+ * latency of each. The customer lookup is stubbed with a fixed delay standing in for the remote call. Tagged as a
+ * benchmark, so the default test run skips it.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import({TestContainersConfiguration.class, TestRabbitMQConfig.class})
+class AccountCreateThreadingIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountCreateThreadingIntegrationTest.class);
+
+    private static final int REQUESTS = 2_000;
+    private static final int CONCURRENCY = 400;
+    private static final long REMOTE_CALL_DELAY_MS = 20;
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder().encodeToString("admin:admin".getBytes(StandardCharsets.UTF_8));
+
+    @MockitoBean
+    private CustomerServiceClient customerServiceClient;
+
+    @Nested
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+    class PlatformThreads extends CreateAccountLoad {
+    }
+
+    @Nested
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+    class VirtualThreads extends CreateAccountLoad {
+    }
+
+    abstract static class CreateAccountLoad {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private CustomerServiceClient customerServiceClient;
+
+        @Autowired
+        private AccountRepository accountRepository;
+
+        @BeforeEach
+        void setUp() {
+            accountRepository.deleteAll();
+            when(customerServiceClient.getCustomerByLegalId(anyString())).thenAnswer(invocation -> {
+                Thread.sleep(REMOTE_CALL_DELAY_MS);
+                return new CustomerDto(Long.parseLong(invocation.getArgument(0)), CustomerType.CORPORATE, CustomerStatus.ACTIVE);
+            });
+        }
+
+        @Test
+        void createAccounts() throws Exception {
+            HttpClient client = HttpClient.newHttpClient();
+            Semaphore inFlight = new Semaphore(CONCURRENCY);
+            List<Long> latenciesMicros = Collections.synchronizedList(new ArrayList<>());
+            List<Future<Integer>> statuses = new ArrayList<>();
+
+            long start = System.nanoTime();
+            try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < REQUESTS; i++) {
+                    HttpRequest request = createRequest(String.format("%07d", i + 1));
+                    inFlight.acquire();
+                    statuses.add(senders.submit(() -> {
+                        long sent = System.nanoTime();
+                        try {
+                            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } finally {
+                            latenciesMicros.add((System.nanoTime() - sent) / 1_000);
+                            inFlight.release();
+                        }
+                    }));
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            for (Future<Integer> status : statuses) {
+                assertThat(status.get()).isEqualTo(201);
+            }
+            List<Long> sorted = latenciesMicros.stream().sorted().toList();
+            log.info("{}: {} creates at concurrency {} in {} s, {} req/s, p50 {} ms, p99 {} ms, max {} ms",
+                    getClass().getSimpleName(), REQUESTS, CONCURRENCY, String.format("%.2f", seconds),
+                    Math.round(REQUESTS / seconds), percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99),
+                    percentileMillis(sorted, 1.0));
+        }
+
+        private HttpRequest createRequest(String legalId) {
+            String body = """
+                    {"customerLegalId": "%s", "type": "SAVINGS", "balance": 100.0, "status": "ACTIVE"}
+                    """.formatted(legalId);
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/account"))
+                    .header("Authorization", AUTHORIZATION)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private static double percentileMillis(List<Long> sortedMicros, double percentile) {
+            int index = (int) Math.ceil(percentile * sortedMicros.size()) - 1;
+            return sortedMicros.get(Math.max(index, 0)) / 1_000.0;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.bank.account.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlledDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControlledDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new AdmissionControlledDataSource(target, "account-primary", 1, 10, meterRegistry);
+    }
+
+    @Test
+    void whenPermitsAreTaken_shouldRejectAfterTimeout() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        assertThat(meterRegistry.counter("account.datasource.admission.rejected", "pool", "account-primary").count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenClosed_shouldCloseThePool() throws Exception {
+        HikariDataSource pool = mock(HikariDataSource.class);
+
+        new AdmissionControlledDataSource(pool, "account-shard-1", 1, 10, meterRegistry).close();
+
+        verify(pool).close();
+    }
+
+    @Test
+    void whenConnectionIsClosed_shouldReleaseItsPermitOnce() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void whenPoolFails_shouldReleasePermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool closed")).thenReturn(connection);
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+}
@@ -0,0 +1,91 @@
+package com.bank.account.config;
+
+import feign.Feign;
+import feign.Param;
+import feign.RequestLine;
+import feign.Response;
+import feign.micrometer.MicrometerObservationCapability;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a Feign call made inside a traced request carries a W3C {@code traceparent} header pointing at the
+ * client span, so the called service joins the same trace.
+ */
+class FeignTracePropagationTest {
+
+    private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    private SdkTracerProvider tracerProvider;
+    private ObservationRegistry observationRegistry;
+
+    @BeforeEach
+    void setUp() {
+        tracerProvider = SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(spanExporter)).build();
+        OpenTelemetrySdk openTelemetry = OpenTelemetrySdk.builder()
+                .setTracerProvider(tracerProvider)
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+        OtelTracer tracer = new OtelTracer(openTelemetry.getTracer("test"), new OtelCurrentTraceContext(), event -> { });
+        OtelPropagator propagator = new OtelPropagator(openTelemetry.getPropagators(), openTelemetry.getTracer("test"));
+        observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new ObservationHandler.FirstMatchingCompositeObservationHandler(
+                new PropagatingSenderTracingObservationHandler<>(tracer, propagator),
+                new DefaultTracingObservationHandler(tracer)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void whenFeignCallIsMadeInsideObservation_shouldPropagateTraceparentOfClientSpan() {
+        AtomicReference<Map<String, Collection<String>>> sentHeaders = new AtomicReference<>();
+        CustomerApi client = Feign.builder()
+                .addCapability(new MicrometerObservationCapability(observationRegistry, new OutcomeFeignObservationConvention()))
+                .client((request, options) -> {
+                    sentHeaders.set(request.headers());
+                    return Response.builder().status(200).request(request).headers(Map.of()).body(new byte[0]).build();
+                })
+                .target(CustomerApi.class, "http://customer-service");
+
+        Observation.createNotStarted("http.server.requests", observationRegistry).observe(() -> client.getCustomer(1L));
+
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        SpanData clientSpan = spans.stream().filter(span -> span.getName().startsWith("HTTP")).findFirst().orElseThrow();
+        SpanData serverSpan = spans.stream().filter(span -> span.getName().equals("http.server.requests")).findFirst().orElseThrow();
+        assertThat(clientSpan.getTraceId()).isEqualTo(serverSpan.getTraceId());
+        assertThat(sentHeaders.get().get("traceparent"))
+                .singleElement()
+                .isEqualTo("00-" + clientSpan.getTraceId() + "-" + clientSpan.getSpanId() + "-01");
+    }
+
+    interface CustomerApi {
+
+        @RequestLine("GET /api/v1/customer/{id}")
+        void getCustomer(@Param("id") Long id);
+    }
+}
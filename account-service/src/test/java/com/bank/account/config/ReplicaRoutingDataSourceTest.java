@@ -0,0 +1,121 @@
+package com.bank.account.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection firstConnection = mock(Connection.class);
+    private final Connection secondConnection = mock(Connection.class);
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource first = mock(DataSource.class);
+    private final DataSource second = mock(DataSource.class);
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", first);
+        replicas.put("replica-1", second);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, 1000, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.preferPrimary(false);
+    }
+
+    @Test
+    void whenLagIsNotYetKnown_shouldReadFromPrimary() throws SQLException {
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.counter("account.datasource.reads", "route", "lagging").count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenReplicasAreInSync_shouldTakeTurns() throws SQLException {
+        reportLag(firstConnection, 0);
+        reportLag(secondConnection, 200);
+        routingDataSource.refreshLag();
+
+        assertThat(routingDataSource.getConnection()).isSameAs(firstConnection);
+        assertThat(routingDataSource.getConnection()).isSameAs(secondConnection);
+        assertThat(meterRegistry.get("account.datasource.replica.lag").tag("replica", "replica-1").gauge().value()).isEqualTo(200);
+    }
+
+    @Test
+    void whenReplicaLagsTooFarBehind_shouldSkipIt() throws SQLException {
+        reportLag(firstConnection, 5000);
+        reportLag(secondConnection, 0);
+        routingDataSource.refreshLag();
+
+        assertThat(routingDataSource.getConnection()).isSameAs(secondConnection);
+        assertThat(routingDataSource.getConnection()).isSameAs(secondConnection);
+    }
+
+    @Test
+    void whenReplicaRefusesConnection_shouldFallBackToPrimaryAndSkipItAfterwards() throws SQLException {
+        reportLag(firstConnection, 0);
+        reportLag(secondConnection, 5000);
+        routingDataSource.refreshLag();
+        when(first.getConnection()).thenThrow(new SQLTransientConnectionException("down"));
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.counter("account.datasource.reads", "route", "unavailable").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("account.datasource.reads", "route", "lagging").count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenReplicaReceivesNoWal_shouldSkipIt() throws SQLException {
+        reportLag(firstConnection, 0);
+        reportLag(secondConnection, 0);
+        when(firstConnection.createStatement().executeQuery(anyString()).wasNull()).thenReturn(true);
+        routingDataSource.refreshLag();
+
+        assertThat(routingDataSource.getConnection()).isSameAs(secondConnection);
+        assertThat(routingDataSource.getConnection()).isSameAs(secondConnection);
+        assertThat(meterRegistry.get("account.datasource.replica.lag").tag("replica", "replica-0").gauge().value()).isNaN();
+    }
+
+    @Test
+    void whenPrimaryIsPreferred_shouldIgnoreReplicas() throws SQLException {
+        reportLag(firstConnection, 0);
+        reportLag(secondConnection, 0);
+        routingDataSource.refreshLag();
+
+        ReplicaRoutingDataSource.preferPrimary(true);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.counter("account.datasource.reads", "route", "pinned").count()).isEqualTo(1);
+    }
+
+    private static void reportLag(Connection connection, long lagMs) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(lagMs);
+    }
+}
@@ -0,0 +1,62 @@
+package com.bank.account.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RepositoryObservationInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SampleRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        ProxyFactory proxyFactory = new ProxyFactory(new SampleRepository() {
+            @Override
+            public String findName(long id) {
+                return "name-" + id;
+            }
+
+            @Override
+            public void fail() {
+                throw new IllegalStateException("boom");
+            }
+        });
+        proxyFactory.addInterface(SampleRepository.class);
+        proxyFactory.addAdvice(new RepositoryObservationInterceptor(observationRegistry, "account.repository", SampleRepository.class));
+        repository = (SampleRepository) proxyFactory.getProxy();
+    }
+
+    @Test
+    void whenRepositoryMethodIsCalled_shouldTimeItByRepositoryAndMethod() {
+        assertThat(repository.findName(7L)).isEqualTo("name-7");
+
+        Timer timer = meterRegistry.get("account.repository").tag("repository", "SampleRepository").tag("method", "findName").timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenRepositoryMethodThrows_shouldRecordErrorAndRethrow() {
+        assertThrows(IllegalStateException.class, () -> repository.fail());
+
+        Timer timer = meterRegistry.get("account.repository").tag("method", "fail").tag("error", "IllegalStateException").timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    interface SampleRepository {
+
+        String findName(long id);
+
+        void fail();
+    }
+}
@@ -0,0 +1,79 @@
+package com.bank.account.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardRouterTest {
+
+    private static final int CUSTOMERS = 100_000;
+
+    @Test
+    void shouldPlaceCustomersTheSameWayOnEveryInstance() {
+        ShardRouter router = new ShardRouter(shards(3), 128);
+        ShardRouter other = new ShardRouter(shards(3), 128);
+
+        for (long customerId = 1; customerId <= 1000; customerId++) {
+            assertThat(router.shardFor(customerId)).isEqualTo(other.shardFor(customerId));
+        }
+    }
+
+    @Test
+    void shouldSpreadCustomersEvenly() {
+        ShardRouter router = new ShardRouter(shards(4), 128);
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            counts.merge(router.shardFor(customerId), 1, Integer::sum);
+        }
+
+        assertThat(counts).hasSize(4);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(CUSTOMERS / 4 * 8 / 10, CUSTOMERS / 4 * 12 / 10));
+    }
+
+    @Test
+    void whenShardIsAdded_shouldOnlyMoveCustomersToIt() {
+        ShardRouter before = new ShardRouter(shards(3), 128);
+        ShardRouter after = new ShardRouter(shards(4), 128);
+        int moved = 0;
+
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            String previous = before.shardFor(customerId);
+            String current = after.shardFor(customerId);
+            if (!previous.equals(current)) {
+                assertThat(current).isEqualTo(ShardRouter.shardName(3));
+                moved++;
+            }
+        }
+
+        // About a quarter of the customers, the new shard's share.
+        assertThat(moved).isBetween(CUSTOMERS / 4 * 8 / 10, CUSTOMERS / 4 * 12 / 10);
+    }
+
+    @Test
+    void accountIds_shouldNameTheShardOfTheirCustomer() {
+        ShardRouter router = new ShardRouter(shards(5), 128);
+
+        for (long customerId = 1; customerId <= 1000; customerId++) {
+            long accountId = ShardRouter.FIRST_SHARDED_ID + 7 * ShardRouter.BUCKETS + Math.floorMod(customerId, ShardRouter.BUCKETS);
+            assertThat(router.shardForAccount(accountId)).isEqualTo(router.shardFor(customerId));
+        }
+        assertThatThrownBy(() -> router.shardForAccount(42)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectMoreShardsThanIdsCanTell() {
+        assertThatThrownBy(() -> new ShardRouter(shards(ShardRouter.MAX_SHARDS + 1), 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<String> shards(int count) {
+        return IntStream.range(0, count).mapToObj(ShardRouter::shardName).toList();
+    }
+}
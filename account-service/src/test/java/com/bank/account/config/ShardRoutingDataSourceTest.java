@@ -0,0 +1,63 @@
+package com.bank.account.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ShardRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Connection firstConnection = mock(Connection.class);
+    private final Connection secondConnection = mock(Connection.class);
+    private final DataSource first = mock(DataSource.class);
+    private final DataSource second = mock(DataSource.class);
+    private ShardRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put("shard-0", first);
+        shards.put("shard-1", second);
+        routingDataSource = new ShardRoutingDataSource(shards, meterRegistry);
+    }
+
+    @Test
+    void whenNotRouted_shouldUseFirstShard() throws SQLException {
+        assertThat(routingDataSource.getConnection()).isSameAs(firstConnection);
+        assertThat(ShardRoutingDataSource.currentShard()).isNull();
+    }
+
+    @Test
+    void whenRouted_shouldUseTheShardUntilTheScopeCloses() throws SQLException {
+        try (ShardRoutingDataSource.Scope scope = ShardRoutingDataSource.route("shard-1")) {
+            assertThat(routingDataSource.getConnection()).isSameAs(secondConnection);
+            try (ShardRoutingDataSource.Scope nested = ShardRoutingDataSource.route("shard-0")) {
+                assertThat(routingDataSource.getConnection()).isSameAs(firstConnection);
+            }
+            assertThat(ShardRoutingDataSource.currentShard()).isEqualTo("shard-1");
+        }
+
+        assertThat(ShardRoutingDataSource.currentShard()).isNull();
+        assertThat(meterRegistry.counter("account.datasource.shard.connections", "shard", "shard-1").count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenRoutedToUnknownShard_shouldFail() {
+        try (ShardRoutingDataSource.Scope scope = ShardRoutingDataSource.route("shard-9")) {
+            assertThatThrownBy(() -> routingDataSource.getConnection()).isInstanceOf(SQLException.class);
+        }
+    }
+}
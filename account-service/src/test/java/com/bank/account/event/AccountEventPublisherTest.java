@@ -3,14 +3,16 @@ package com.bank.account.event;
 import com.bank.account.config.RabbitMQConfig;
 import com.bank.account.exception.SystemException;
 import com.bank.account.model.dto.AccountDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -26,9 +28,15 @@ class AccountEventPublisherTest {
     @Mock
     private RabbitTemplate rabbitTemplate;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private AccountEventPublisher accountEventPublisher;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        accountEventPublisher = new AccountEventPublisher(rabbitTemplate, meterRegistry);
+    }
+
     @Test
     void whenPublishAccountCreatedEvent_shouldSendToCorrectRoutingKey() {
         // Arrange
@@ -45,6 +53,8 @@ class AccountEventPublisherTest {
                 eq(RabbitMQConfig.ACCOUNT_CREATED_ROUTING_KEY),
                 eq(accountDto)
         );
+        assertThat(meterRegistry.timer("account.events.publish", "routing.key", RabbitMQConfig.ACCOUNT_CREATED_ROUTING_KEY, "outcome", "success").count())
+                .isEqualTo(1);
     }
 
     @Test
@@ -91,5 +101,7 @@ class AccountEventPublisherTest {
 
         // Act & Assert
         assertThrows(SystemException.class, () -> accountEventPublisher.publishAccountCreatedEvent(accountDto));
+        assertThat(meterRegistry.timer("account.events.publish", "routing.key", RabbitMQConfig.ACCOUNT_CREATED_ROUTING_KEY, "outcome", "failure").count())
+                .isEqualTo(1);
     }
 }
\ No newline at end of file
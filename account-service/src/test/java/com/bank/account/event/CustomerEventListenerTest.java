@@ -1,15 +1,23 @@
 package com.bank.account.event;
 
+import com.bank.account.config.RabbitMQConfig;
+import com.bank.account.exception.BusinessErrors;
 import com.bank.account.service.AccountService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -18,9 +26,15 @@ class CustomerEventListenerTest {
     @Mock
     private AccountService accountService;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private CustomerEventListener customerEventListener;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        customerEventListener = new CustomerEventListener(accountService, meterRegistry);
+    }
+
     @Test
     void whenHandleCustomerDeletedEvent_withValidId_shouldCallService() {
         // Arrange
@@ -28,10 +42,27 @@ class CustomerEventListenerTest {
         doNothing().when(accountService).deleteAccountsByCustomerId(customerId);
 
         // Act
-        customerEventListener.handleCustomerDeletedEvent(customerId);
+        customerEventListener.handleCustomerDeletedEvent(customerId, null);
 
         // Assert
         verify(accountService).deleteAccountsByCustomerId(customerId);
+        assertThat(consumeTimer("success").count()).isEqualTo(1);
+        assertThat(meterRegistry.find("account.events.consume.lag").timer()).isNull();
+    }
+
+    @Test
+    void whenHandleCustomerDeletedEvent_withPublishTimestamp_shouldRecordLag() {
+        // Arrange
+        Long customerId = 789L;
+        doNothing().when(accountService).deleteAccountsByCustomerId(customerId);
+
+        // Act
+        customerEventListener.handleCustomerDeletedEvent(customerId, System.currentTimeMillis() - 250);
+
+        // Assert
+        Timer lag = meterRegistry.get("account.events.consume.lag").tag("routing.key", RabbitMQConfig.CUSTOMER_DELETED_ROUTING_KEY).timer();
+        assertThat(lag.count()).isEqualTo(1);
+        assertThat(lag.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(250);
     }
 
     @Test
@@ -42,9 +73,30 @@ class CustomerEventListenerTest {
 
         // Act & Assert
         // The listener should catch the exception and not re-throw it.
-        assertDoesNotThrow(() -> customerEventListener.handleCustomerDeletedEvent(customerId));
+        assertDoesNotThrow(() -> customerEventListener.handleCustomerDeletedEvent(customerId, null));
 
         // Verify the service method was still called
         verify(accountService).deleteAccountsByCustomerId(customerId);
+        assertThat(consumeTimer("failure").count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenHandleCustomerDeletedEvent_andAccountsAreMoving_shouldRetryTheDelete() {
+        // Arrange
+        Long customerId = 321L;
+        doThrow(BusinessErrors.CUSTOMER_MOVING.exception())
+                .doNothing()
+                .when(accountService).deleteAccountsByCustomerId(customerId);
+
+        // Act
+        customerEventListener.handleCustomerDeletedEvent(customerId, null);
+
+        // Assert
+        verify(accountService, times(2)).deleteAccountsByCustomerId(customerId);
+        assertThat(consumeTimer("success").count()).isEqualTo(1);
+    }
+
+    private Timer consumeTimer(String outcome) {
+        return meterRegistry.get("account.events.consume").tag("outcome", outcome).timer();
     }
-}
\ No newline at end of file
+}
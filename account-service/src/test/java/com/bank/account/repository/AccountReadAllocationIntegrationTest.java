@@ -0,0 +1,110 @@
+package com.bank.account.repository;
+
+import com.bank.account.config.TestContainersConfiguration;
+import com.bank.account.model.dto.AccountDto;
+import com.bank.account.model.dto.AccountStatus;
+import com.bank.account.model.dto.AccountType;
+import com.bank.account.model.entity.Account;
+import com.bank.account.model.mapper.AccountMapper;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the heap allocated per read by the entity + mapper path with the DTO projection queries.
+ * Each read runs in its own read-only transaction, as it does behind the service.
+ */
+@DataJpaTest
+@Import(TestContainersConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountReadAllocationIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountReadAllocationIntegrationTest.class);
+
+    private static final int ACCOUNTS = 200;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1_000;
+
+    private final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final AccountMapper accountMapper = Mappers.getMapper(AccountMapper.class);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setCustomerId((long) i % 20);
+            account.setType(AccountType.SAVINGS);
+            account.setBalance(100.0 + i);
+            account.setStatus(AccountStatus.ACTIVE);
+            account.setAccountNumber(String.format("%011d", i));
+            accounts.add(account);
+        }
+        accountId = accountRepository.saveAll(accounts).getFirst().getId();
+
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void singleAccountRead_allocationPerRequest() {
+        long entityPath = bytesPerRead(() -> accountRepository.findById(accountId).map(accountMapper::toDto).orElseThrow());
+        long projectionPath = bytesPerRead(() -> accountRepository.findDtoById(accountId).orElseThrow());
+
+        log.info("Single account read: entity + mapper {} B/request, projection {} B/request", entityPath, projectionPath);
+        assertThat(projectionPath).isPositive();
+    }
+
+    @Test
+    void allAccountsRead_projectionShouldAllocateLessThanEntityPath() {
+        long entityPath = bytesPerRead(() -> accountRepository.findAll().stream().map(accountMapper::toDto).toList());
+        long projectionPath = bytesPerRead(() -> accountRepository.findAllDtos());
+
+        log.info("All {} accounts read: entity + mapper {} B/request, projection {} B/request",
+                ACCOUNTS, entityPath, projectionPath);
+        assertThat(projectionPath).isLessThan(entityPath);
+    }
+
+    private long bytesPerRead(Supplier<Object> read) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            readOnly.execute(status -> read.get());
+        }
+        long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            readOnly.execute(status -> read.get());
+        }
+        return (threadMXBean.getCurrentThreadAllocatedBytes() - before) / MEASURED_ITERATIONS;
+    }
+}
@@ -1,18 +1,35 @@
 package com.bank.account.repository;
 
+import com.bank.account.api.advice.GlobalExceptionHandler;
 import com.bank.account.config.TestContainersConfiguration;
+import com.bank.account.exception.BusinessErrors;
+import com.bank.account.model.dto.AccountDto;
+import com.bank.account.model.dto.AccountSnapshot;
 import com.bank.account.model.dto.AccountStatus;
+import com.bank.account.model.dto.AccountSummary;
 import com.bank.account.model.dto.AccountType;
+import com.bank.account.model.dto.AccountUpdateRequest;
+import com.bank.account.model.dto.PatchedAccount;
 import com.bank.account.model.entity.Account;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.web.ErrorResponse;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
 @Import(TestContainersConfiguration.class)
 class AccountRepositoryTest {
 
@@ -22,40 +39,254 @@ class AccountRepositoryTest {
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @Test
+    void whenReservingAccountSlots_shouldStopAtTheLimit() {
+        // Act
+        boolean first = accountRepository.reserveAccountSlot(1L, 2);
+        boolean second = accountRepository.reserveAccountSlot(1L, 2);
+        boolean third = accountRepository.reserveAccountSlot(1L, 2);
+
+        // Assert
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(accountCount(1L)).isEqualTo(2);
+    }
+
+    @Test
+    void whenReleasingAccountSlots_shouldFreeThemForTheCustomerOnly() {
+        // Arrange
+        accountRepository.reserveAccountSlot(1L, 2);
+        accountRepository.reserveAccountSlot(1L, 2);
+        accountRepository.reserveAccountSlot(2L, 2);
+
+        // Act
+        accountRepository.releaseAccountSlot(1L);
+        accountRepository.releaseAllAccountSlots(2L);
+
+        // Assert
+        assertThat(accountRepository.reserveAccountSlot(1L, 2)).isTrue();
+        assertThat(accountRepository.reserveAccountSlot(1L, 2)).isFalse();
+        assertThat(accountCount(2L)).isNull();
+    }
+
+    @Test
+    void whenFindDtoById_withExistingAccount_shouldSelectStraightIntoDto() {
+        // Arrange
+        Account account = new Account();
+        account.setCustomerId(5L);
+        account.setType(AccountType.INVESTMENT);
+        account.setBalance(20000.0);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setAccountNumber("50000000001");
+        entityManager.persistAndFlush(account);
+        entityManager.clear();
+
+        // Act
+        Optional<AccountDto> found = accountRepository.findDtoById(account.getId());
+
+        // Assert
+        assertThat(found).contains(new AccountDto(account.getId(), "50000000001", AccountType.INVESTMENT,
+                20000.0, AccountStatus.ACTIVE, account.getVersion()));
+        assertThat(accountRepository.findAllDtos()).containsExactly(found.get());
+    }
+
     @Test
-    void whenCountByCustomerId_withExistingAccounts_shouldReturnCorrectCount() {
+    void whenFindDtosAfter_shouldPageThroughAccountsInIdOrder() {
         // Arrange
-        Account account1 = new Account();
-        account1.setCustomerId(1L);
-        account1.setType(AccountType.SAVINGS);
-        account1.setBalance(1000.0);
-        account1.setStatus(AccountStatus.ACTIVE);
-        account1.setAccountNumber("12345678901");
-        entityManager.persist(account1);
+        for (int i = 1; i <= 3; i++) {
+            Account account = new Account();
+            account.setCustomerId(6L);
+            account.setType(AccountType.SAVINGS);
+            account.setBalance(10.0 * i);
+            account.setStatus(AccountStatus.ACTIVE);
+            account.setAccountNumber("6000000000" + i);
+            entityManager.persist(account);
+        }
+        entityManager.flush();
 
-        Account account2 = new Account();
-        account2.setCustomerId(1L);
-        account2.setType(AccountType.INVESTMENT);
-        account2.setBalance(5000.0);
-        account2.setStatus(AccountStatus.ACTIVE);
-        account2.setAccountNumber("12345678902");
-        entityManager.persist(account2);
+        // Act
+        List<AccountDto> firstPage = accountRepository.findDtosAfter(0L, Limit.of(2));
+        List<AccountDto> secondPage = accountRepository.findDtosAfter(firstPage.getLast().getId(), Limit.of(2));
+
+        // Assert
+        assertThat(firstPage).extracting(AccountDto::getAccountNumber).containsExactly("60000000001", "60000000002");
+        assertThat(secondPage).extracting(AccountDto::getAccountNumber).containsExactly("60000000003");
+    }
+
+    @Test
+    void whenFindSummariesByCustomerId_shouldReturnOnlyThatCustomersAccounts() {
+        // Arrange
+        Account savings = new Account();
+        savings.setCustomerId(3L);
+        savings.setType(AccountType.SAVINGS);
+        savings.setBalance(1000.0);
+        savings.setStatus(AccountStatus.ACTIVE);
+        savings.setAccountNumber("30000000001");
+        entityManager.persist(savings);
+
+        Account other = new Account();
+        other.setCustomerId(4L);
+        other.setType(AccountType.SAVINGS);
+        other.setBalance(50.0);
+        other.setStatus(AccountStatus.ACTIVE);
+        other.setAccountNumber("40000000001");
+        entityManager.persist(other);
 
         entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<AccountSummary> summaries = accountRepository.findSummariesByCustomerId(3L);
+
+        // Assert
+        assertThat(summaries).containsExactly(new AccountSummary(savings.getId(), "30000000001",
+                AccountType.SAVINGS, 1000.0, AccountStatus.ACTIVE));
+    }
+
+    @Test
+    void whenPatchAccount_withExistingAccount_shouldUpdateOnlyProvidedFields() {
+        // Arrange
+        Account account = new Account();
+        account.setCustomerId(3L);
+        account.setType(AccountType.SAVINGS);
+        account.setBalance(1000.0);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setAccountNumber("12345678903");
+        entityManager.persistAndFlush(account);
+        entityManager.clear();
+
+        AccountUpdateRequest patch = new AccountUpdateRequest();
+        patch.setStatus(AccountStatus.SUSPENDED);
 
         // Act
-        long count = accountRepository.countByCustomerId(1L);
+        Optional<PatchedAccount> patched = accountRepository.patchAccount(account.getId(), patch, null);
 
         // Assert
-        assertThat(count).isEqualTo(2);
+        assertThat(patched).isPresent();
+        AccountDto patchedAccount = patched.get().account();
+        assertThat(patchedAccount.getStatus()).isEqualTo(AccountStatus.SUSPENDED);
+        assertThat(patchedAccount.getBalance()).isEqualTo(1000.0);
+        assertThat(patchedAccount.getVersion()).isEqualTo(account.getVersion() + 1);
+        assertThat(patched.get().previous()).isEqualTo(new AccountSnapshot(3L, AccountType.SAVINGS, AccountStatus.ACTIVE, 1000.0));
+        assertThat(patched.get().current()).isEqualTo(new AccountSnapshot(3L, AccountType.SAVINGS, AccountStatus.SUSPENDED, 1000.0));
     }
 
     @Test
-    void whenCountByCustomerId_withNoAccounts_shouldReturnZero() {
+    void whenDeleteAccount_withExistingAccount_shouldReturnDeletedValues() {
+        // Arrange
+        Account account = new Account();
+        account.setCustomerId(4L);
+        account.setType(AccountType.INVESTMENT);
+        account.setBalance(20000.0);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setAccountNumber("12345678904");
+        entityManager.persistAndFlush(account);
+        entityManager.clear();
+
         // Act
-        long count = accountRepository.countByCustomerId(2L);
+        Optional<AccountSnapshot> deleted = accountRepository.deleteAccount(account.getId());
 
         // Assert
-        assertThat(count).isZero();
+        assertThat(deleted).contains(new AccountSnapshot(4L, AccountType.INVESTMENT, AccountStatus.ACTIVE, 20000.0));
+        assertThat(accountRepository.existsById(account.getId())).isFalse();
+        assertThat(accountRepository.deleteAccount(account.getId())).isEmpty();
+    }
+
+    @Test
+    void whenPatchAccount_withMissingAccount_shouldReturnEmpty() {
+        // Arrange
+        AccountUpdateRequest patch = new AccountUpdateRequest();
+        patch.setBalance(10.0);
+
+        // Act & Assert
+        assertThat(accountRepository.patchAccount(-1L, patch, null)).isEmpty();
+    }
+
+    @Test
+    void whenSecondSalaryAccountIsSaved_shouldBeRejectedAsSalaryAccountAlreadyExists() {
+        // Arrange
+        entityManager.persistAndFlush(salaryAccount("70000000001"));
+        Account duplicate = salaryAccount("70000000002");
+
+        // Act
+        DataIntegrityViolationException ex = catchThrowableOfType(DataIntegrityViolationException.class,
+                () -> accountRepository.saveAndFlush(duplicate));
+        ErrorResponse response = new GlobalExceptionHandler(new SimpleMeterRegistry()).handleDataIntegrityViolationException(ex);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(BusinessErrors.SALARY_ACCOUNT_ALREADY_EXISTS.getHttpStatus());
+        assertThat(response.getBody().getDetail()).isEqualTo(BusinessErrors.SALARY_ACCOUNT_ALREADY_EXISTS.getMessage());
+    }
+
+    @Test
+    void whenReservingAccountSlot_shouldUpdateTheCountRowByPrimaryKey() {
+        assertThat(explain("UPDATE customer_account_count SET account_count = account_count + 1"
+                + " WHERE customer_id = 1 AND account_count < 10")).contains("customer_account_count_pkey");
+    }
+
+    @Test
+    void whenQueryingByCustomer_shouldScanOnePartitionByCustomerIndex() {
+        String count = explain("SELECT count(*) FROM account WHERE customer_id = 1");
+        String salary = explain("SELECT * FROM account WHERE customer_id = 1 AND type = 'SALARY'");
+
+        assertThat(count).contains("idx_account_customer_type_status_p");
+        assertThat(partitionsScanned(count)).isEqualTo(1);
+        assertThat(salary).contains("Index Scan");
+        assertThat(partitionsScanned(salary)).isEqualTo(1);
+    }
+
+    @Test
+    void whenListingSummariesByCustomer_shouldUseIndexOnlyScanWithoutSort() {
+        String plan = explain("SELECT id, account_number, type, balance, status FROM account WHERE customer_id = 1 ORDER BY type, status");
+
+        assertThat(plan).contains("idx_account_customer_type_status_p").doesNotContain("Sort");
+        assertThat(partitionsScanned(plan)).isEqualTo(1);
+    }
+
+    @Test
+    void whenDeletingByCustomer_shouldPruneToOnePartition() {
+        assertThat(partitionsScanned(explain("DELETE FROM account WHERE customer_id = 1"))).isEqualTo(1);
+        assertThat(partitionsScanned(explain("DELETE FROM account WHERE id = 1 AND customer_id = 1 AND version = 0"))).isEqualTo(1);
+    }
+
+    @Test
+    void whenQueryingById_shouldProbeEveryPartitionByPrimaryKey() {
+        String plan = explain("SELECT id, account_number, type, balance, status, version FROM account WHERE id = 1");
+
+        assertThat(plan).contains("_pkey");
+        assertThat(partitionsScanned(plan)).isEqualTo(16);
+    }
+
+    private static Account salaryAccount(String accountNumber) {
+        Account account = new Account();
+        account.setCustomerId(7L);
+        account.setType(AccountType.SALARY);
+        account.setBalance(1000.0);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setAccountNumber(accountNumber);
+        return account;
+    }
+
+    private Integer accountCount(Long customerId) {
+        return jdbcClient.sql("SELECT account_count FROM customer_account_count WHERE customer_id = :customerId")
+                .param("customerId", customerId)
+                .query(Integer.class)
+                .optional()
+                .orElse(null);
+    }
+
+    private static long partitionsScanned(String plan) {
+        return Pattern.compile(" on account_p\\d+").matcher(plan).results().count();
+    }
+
+    // Sequential and bitmap scans are disabled because the planner rightly prefers them on the near-empty test table.
+    private String explain(String sql) {
+        jdbcClient.sql("SET LOCAL enable_seqscan = off").update();
+        jdbcClient.sql("SET LOCAL enable_bitmapscan = off").update();
+        return String.join("\n", jdbcClient.sql("EXPLAIN " + sql).query(String.class).list());
     }
 }
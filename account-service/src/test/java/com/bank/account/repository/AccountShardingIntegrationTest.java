@@ -0,0 +1,282 @@
+package com.bank.account.repository;
+
+import com.bank.account.client.CustomerServiceClient;
+import com.bank.account.config.ShardRouter;
+import com.bank.account.config.ShardRoutingDataSource;
+import com.bank.account.config.TestRabbitMQConfig;
+import com.bank.account.model.dto.AccountDto;
+import com.bank.account.model.dto.AccountSnapshot;
+import com.bank.account.model.dto.AccountStatsDto;
+import com.bank.account.model.dto.AccountStatus;
+import com.bank.account.model.dto.AccountSummary;
+import com.bank.account.model.dto.AccountType;
+import com.bank.account.model.dto.AccountUpdateRequest;
+import com.bank.account.model.dto.CustomerDto;
+import com.bank.account.model.dto.CustomerStatus;
+import com.bank.account.model.dto.CustomerType;
+import com.bank.account.service.AccountService;
+import com.bank.account.service.AccountStatsService;
+import com.bank.account.service.impl.AccountStatsServiceImpl;
+import com.bank.account.service.support.AccountShardRebalancer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the service on three Postgres shards right after the third was added: customers seeded where the two-shard ring
+ * put them must stay readable and writable, and end up on their new owner after a rebalance. The first shard also holds
+ * accounts created before sharding was turned on, whose IDs no shard may hand out again.
+ */
+@Testcontainers
+@SpringBootTest(properties = "account.datasource.shard-rebalance-from=2")
+@Import(TestRabbitMQConfig.class)
+class AccountShardingIntegrationTest {
+
+    private static final int CUSTOMERS = 40;
+    private static final int ACCOUNTS_PER_CUSTOMER = 2;
+    private static final int LEGACY_CUSTOMERS = 40;
+    private static final List<Long> LEGACY_ACCOUNT_IDS = new ArrayList<>();
+
+    @Container
+    private static final PostgreSQLContainer<?> FIRST_SHARD = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @Container
+    private static final PostgreSQLContainer<?> SECOND_SHARD = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @Container
+    private static final PostgreSQLContainer<?> THIRD_SHARD = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @Container
+    @ServiceConnection
+    private static final RabbitMQContainer RABBIT_MQ = new RabbitMQContainer(DockerImageName.parse("rabbitmq:3.13-management"));
+
+    @MockitoBean
+    private CustomerServiceClient customerServiceClient;
+
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    private AccountShards accountShards;
+
+    @Autowired
+    private AccountShardRebalancer rebalancer;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountStatsService accountStatsService;
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry registry) {
+        seedBeforeSharding();
+        registry.add("spring.datasource.url", FIRST_SHARD::getJdbcUrl);
+        registry.add("spring.datasource.username", FIRST_SHARD::getUsername);
+        registry.add("spring.datasource.password", FIRST_SHARD::getPassword);
+        registry.add("account.datasource.shard-urls", () -> SECOND_SHARD.getJdbcUrl() + "," + THIRD_SHARD.getJdbcUrl());
+    }
+
+    // The single database the service used before sharding, whose IDs count up from 1 through every shard's residue.
+    private static void seedBeforeSharding() {
+        FIRST_SHARD.start();
+        DataSource dataSource = new DriverManagerDataSource(FIRST_SHARD.getJdbcUrl(), FIRST_SHARD.getUsername(),
+                FIRST_SHARD.getPassword());
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("0").load().migrate();
+        ShardRouter previousRouter = new ShardRouter(List.of(ShardRouter.shardName(0), ShardRouter.shardName(1)), 128);
+        ShardRouter router = new ShardRouter(List.of(ShardRouter.shardName(0), ShardRouter.shardName(1),
+                ShardRouter.shardName(2)), 128);
+        int seeded = 0;
+        for (long customerId = 10_000; seeded < LEGACY_CUSTOMERS; customerId++) {
+            if (router.shardFor(customerId).equals(ShardRouter.shardName(0))
+                    && previousRouter.shardFor(customerId).equals(ShardRouter.shardName(0))) {
+                LEGACY_ACCOUNT_IDS.addAll(seed(JdbcClient.create(dataSource), customerId));
+                seeded++;
+            }
+        }
+    }
+
+    @Test
+    void whenShardIsAdded_shouldServeCustomersFromTheirPreviousShardUntilRebalanced() {
+        // Arrange
+        ShardRouter previousRouter = new ShardRouter(List.of(ShardRouter.shardName(0), ShardRouter.shardName(1)), 128);
+        List<Long> accountIds = new ArrayList<>();
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            accountIds.addAll(seed(client(previousRouter.shardFor(customerId)), customerId));
+        }
+        List<Long> misplaced = new ArrayList<>();
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            if (!previousRouter.shardFor(customerId).equals(accountShards.router().shardFor(customerId))) {
+                misplaced.add(customerId);
+            }
+        }
+        assertThat(misplaced).isNotEmpty();
+        Long movingCustomer = misplaced.getFirst();
+
+        // Act & Assert: before the move, reads and writes reach the previous shard.
+        assertThat(accountService.getAccountsByCustomerId(movingCustomer)).hasSize(ACCOUNTS_PER_CUSTOMER);
+        Long movingAccount = accountService.getAccountsByCustomerId(movingCustomer).getFirst().id();
+        AccountUpdateRequest suspend = new AccountUpdateRequest();
+        suspend.setStatus(AccountStatus.SUSPENDED);
+        accountService.patchAccount(movingAccount, suspend, null);
+        assertThat(rebalancer.status().stream().mapToLong(AccountShardRebalancer.ShardStatus::misplacedCustomers).sum())
+                .isEqualTo(misplaced.size());
+
+        AccountShardRebalancer.Result result = rebalancer.rebalance(1000);
+
+        // Assert: every customer is on its owner and nothing was lost or duplicated.
+        assertThat(result.movedCustomers()).isEqualTo(misplaced.size());
+        assertThat(result.movedAccounts()).isEqualTo(misplaced.size() * ACCOUNTS_PER_CUSTOMER);
+        assertThat(rebalancer.status()).allSatisfy(status -> assertThat(status.misplacedCustomers()).isZero());
+        assertThat(rebalancer.status().stream().mapToLong(AccountShardRebalancer.ShardStatus::accounts).sum())
+                .isEqualTo((CUSTOMERS + LEGACY_CUSTOMERS) * ACCOUNTS_PER_CUSTOMER);
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            String owner = accountShards.router().shardFor(customerId);
+            assertThat(countOn(owner, customerId)).isEqualTo(ACCOUNTS_PER_CUSTOMER);
+        }
+
+        assertThat(accountService.getAccount(movingAccount).getStatus()).isEqualTo(AccountStatus.SUSPENDED);
+        accountIds.addAll(LEGACY_ACCOUNT_IDS);
+        for (Long id : accountIds) {
+            assertThat(accountService.getAccount(id).getId()).isEqualTo(id);
+        }
+
+        List<Long> paged = new ArrayList<>();
+        List<AccountDto> page = accountService.getAccountsPage(0L, 7);
+        while (!page.isEmpty()) {
+            page.forEach(account -> paged.add(account.getId()));
+            page = accountService.getAccountsPage(page.getLast().getId(), 7);
+        }
+        assertThat(paged).isSorted().containsExactlyInAnyOrderElementsOf(accountIds);
+        assertThat(accountService.getAllAccounts()).hasSize(accountIds.size());
+
+        AccountStatsDto stats = accountStatsService.getStats(movingCustomer);
+        assertThat(stats.getTotal().getCount()).isEqualTo((CUSTOMERS + LEGACY_CUSTOMERS) * ACCOUNTS_PER_CUSTOMER);
+        assertThat(stats.getByStatus().get(AccountStatus.SUSPENDED).getCount()).isEqualTo(1);
+        assertThat(stats.getCustomer().getCount()).isEqualTo(ACCOUNTS_PER_CUSTOMER);
+    }
+
+    @Test
+    void createdAccounts_shouldGoToTheCustomersOwnerWithAnIdNamingIt() {
+        // Arrange
+        long customerId = 1_000;
+        when(customerServiceClient.getCustomerByLegalId(anyString()))
+                .thenReturn(new CustomerDto(customerId, CustomerType.CORPORATE, CustomerStatus.ACTIVE));
+        AccountDto request = new AccountDto();
+        request.setCustomerLegalId("1000000");
+        request.setType(AccountType.SAVINGS);
+        request.setBalance(100.0);
+
+        // Act
+        AccountDto created = accountService.createAccount(request);
+
+        // Assert
+        String owner = accountShards.router().shardFor(customerId);
+        assertThat(accountShards.router().shardForAccount(created.getId())).isEqualTo(owner);
+        assertThat(countOn(owner, customerId)).isEqualTo(1);
+        List<AccountSummary> accounts = accountService.getAccountsByCustomerId(customerId);
+        assertThat(accounts).extracting(AccountSummary::id).containsExactly(created.getId());
+
+        accountService.deleteAccountsByCustomerId(customerId);
+        assertThat(countOn(owner, customerId)).isZero();
+    }
+
+    @Test
+    void accountIds_shouldNotRepeatThoseCreatedBeforeSharding() {
+        // Arrange
+        Long lastLegacyId = LEGACY_ACCOUNT_IDS.stream().max(Long::compare).orElseThrow();
+        List<Long> customerIds = new ArrayList<>();
+        for (String shard : accountShards.shards()) {
+            customerIds.add(LongStream.iterate(2_000, id -> id + 1)
+                    .filter(id -> accountShards.router().shardFor(id).equals(shard))
+                    .findFirst()
+                    .orElseThrow());
+        }
+
+        // Act
+        List<AccountDto> created = new ArrayList<>();
+        for (Long customerId : customerIds) {
+            when(customerServiceClient.getCustomerByLegalId(anyString()))
+                    .thenReturn(new CustomerDto(customerId, CustomerType.RETAIL, CustomerStatus.ACTIVE));
+            AccountDto request = new AccountDto();
+            request.setCustomerLegalId(String.format("%07d", customerId));
+            request.setType(AccountType.SAVINGS);
+            request.setBalance(100.0);
+            created.add(accountService.createAccount(request));
+        }
+
+        // Assert
+        assertThat(created).allSatisfy(account -> assertThat(account.getId()).isGreaterThan(lastLegacyId));
+        for (Long id : LEGACY_ACCOUNT_IDS) {
+            String accountNumber = client(ShardRouter.shardName(0)).sql("SELECT account_number FROM account WHERE id = :id")
+                    .param("id", id)
+                    .query(String.class)
+                    .single();
+            assertThat(accountService.getAccount(id).getAccountNumber()).isEqualTo(accountNumber);
+        }
+        List<Long> allIds = new ArrayList<>();
+        for (String shard : accountShards.shards()) {
+            allIds.addAll(client(shard).sql("SELECT id FROM account").query(Long.class).list());
+        }
+        assertThat(allIds).doesNotHaveDuplicates();
+
+        customerIds.forEach(accountService::deleteAccountsByCustomerId);
+    }
+
+    // Written straight to the shard, as the service did before the third shard was added.
+    private static List<Long> seed(JdbcClient jdbcClient, long customerId) {
+        List<Long> ids = new ArrayList<>();
+        List<AccountSnapshot> snapshots = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS_PER_CUSTOMER; i++) {
+            AccountType type = i == 0 ? AccountType.SALARY : AccountType.SAVINGS;
+            ids.add(jdbcClient.sql("INSERT INTO account (customer_id, account_number, type, balance, status, version)"
+                            + " VALUES (:customerId, :accountNumber, :type, 100, 'ACTIVE', 0) RETURNING id")
+                    .param("customerId", customerId)
+                    .param("accountNumber", String.format("%07d%03d", customerId, i))
+                    .param("type", type.name())
+                    .query(Long.class)
+                    .single());
+            snapshots.add(new AccountSnapshot(customerId, type, AccountStatus.ACTIVE, 100));
+        }
+        jdbcClient.sql("INSERT INTO customer_account_count (customer_id, account_count) VALUES (:customerId, :count)")
+                .param("customerId", customerId)
+                .param("count", ACCOUNTS_PER_CUSTOMER)
+                .update();
+        new AccountStatsRepositoryCustomImpl(jdbcClient).addToBuckets(AccountStatsServiceImpl.deltas(snapshots, 1));
+        return ids;
+    }
+
+    private int countOn(String shard, long customerId) {
+        return client(shard).sql("SELECT COUNT(*) FROM account WHERE customer_id = :customerId")
+                .param("customerId", customerId)
+                .query(Integer.class)
+                .single();
+    }
+
+    private JdbcClient client(String shard) {
+        DataSource dataSource = shardRoutingDataSource.shards().get(shard);
+        return JdbcClient.create(dataSource);
+    }
+}
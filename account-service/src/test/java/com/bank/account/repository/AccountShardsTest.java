@@ -0,0 +1,101 @@
+package com.bank.account.repository;
+
+import com.bank.account.config.ShardRouter;
+import com.bank.account.config.ShardRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class AccountShardsTest {
+
+    private AccountShards accountShards;
+
+    @AfterEach
+    void tearDown() {
+        accountShards.close();
+    }
+
+    @Test
+    void whenSingleShard_shouldRunOnTheCallerThread() {
+        accountShards = new AccountShards(Map.of("shard-0", mock(DataSource.class)), 128, 0, mock(AccountRepository.class));
+        Thread caller = Thread.currentThread();
+
+        List<Boolean> onCaller = accountShards.onEachShard(() -> Thread.currentThread() == caller);
+
+        assertThat(onCaller).containsExactly(true);
+        assertThat(accountShards.isSharded()).isFalse();
+    }
+
+    @Test
+    void whenSharded_shouldRunOncePerShardRoutedToIt() {
+        accountShards = new AccountShards(shards(3), 128, 0, mock(AccountRepository.class));
+
+        List<String> routes = accountShards.onEachShard(ShardRoutingDataSource::currentShard);
+
+        assertThat(routes).containsExactly("shard-0", "shard-1", "shard-2");
+    }
+
+    @Test
+    void gather_shouldMergeThePagesOfEveryShard() {
+        accountShards = new AccountShards(shards(3), 128, 0, mock(AccountRepository.class));
+        Map<String, List<Long>> pages = Map.of(
+                "shard-0", List.of(1L, 4L, 7L),
+                "shard-1", List.of(2L, 5L),
+                "shard-2", List.of(3L, 9L, 12L));
+
+        List<Long> page = accountShards.gather(() -> pages.get(ShardRoutingDataSource.currentShard()), Comparator.naturalOrder(), 5);
+
+        assertThat(page).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void whenQueryFailsOnAShard_shouldRethrowItsException() {
+        accountShards = new AccountShards(shards(2), 128, 0, mock(AccountRepository.class));
+
+        assertThatThrownBy(() -> accountShards.onEachShard(() -> {
+            throw new IllegalStateException("shard down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("shard down");
+    }
+
+    @Test
+    void whenNotRebalancing_shouldRouteAccountIdsToTheirBucketsOwner() {
+        Map<String, DataSource> shards = shards(3);
+        accountShards = new AccountShards(shards, 128, 0, mock(AccountRepository.class));
+        long accountId = ShardRouter.FIRST_SHARDED_ID + 42L * ShardRouter.BUCKETS + 7;
+
+        try (AccountShards.Route route = accountShards.routeAccount(accountId)) {
+            assertThat(route.shard()).isEqualTo(accountShards.router().shardFor(7));
+            assertThat(route.movable()).isFalse();
+            assertThat(ShardRoutingDataSource.currentShard()).isEqualTo(route.shard());
+        }
+        shards.values().forEach(Mockito::verifyNoInteractions);
+    }
+
+    @Test
+    void shouldRejectRebalancingFromAsManyShards() {
+        Map<String, DataSource> shards = shards(2);
+        AccountRepository accountRepository = mock(AccountRepository.class);
+
+        assertThatThrownBy(() -> new AccountShards(shards, 128, 2, accountRepository))
+                .isInstanceOf(IllegalArgumentException.class);
+        accountShards = new AccountShards(shards, 128, 1, accountRepository);
+    }
+
+    private static Map<String, DataSource> shards(int count) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            shards.put("shard-" + i, mock(DataSource.class));
+        }
+        return shards;
+    }
+}
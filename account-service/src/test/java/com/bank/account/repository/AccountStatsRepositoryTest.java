@@ -0,0 +1,105 @@
+package com.bank.account.repository;
+
+import com.bank.account.config.TestContainersConfiguration;
+import com.bank.account.model.dto.AccountStatsDimension;
+import com.bank.account.model.dto.AccountStatus;
+import com.bank.account.model.dto.AccountType;
+import com.bank.account.model.entity.Account;
+import com.bank.account.model.entity.AccountStatsBucket;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(TestContainersConfiguration.class)
+class AccountStatsRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountStatsRepository statsRepository;
+
+    @Test
+    void whenAddToBuckets_shouldInsertThenIncrement() {
+        // Act
+        statsRepository.addToBuckets(List.of(new AccountStatsBucket(AccountStatsDimension.TYPE, "SAVINGS", 1, 100.0)));
+        statsRepository.addToBuckets(List.of(
+                new AccountStatsBucket(AccountStatsDimension.TYPE, "SAVINGS", 1, 50.0),
+                new AccountStatsBucket(AccountStatsDimension.STATUS, "ACTIVE", 2, 150.0)));
+
+        // Assert
+        assertThat(statsRepository.sumBuckets(List.of(AccountStatsDimension.TYPE, AccountStatsDimension.STATUS)))
+                .containsExactlyInAnyOrder(
+                        new AccountStatsBucket(AccountStatsDimension.TYPE, "SAVINGS", 2, 150.0),
+                        new AccountStatsBucket(AccountStatsDimension.STATUS, "ACTIVE", 2, 150.0));
+    }
+
+    @Test
+    void whenAddToBuckets_shouldKeepTypeAndStatusOffTheSharedRows() {
+        // Arrange
+        entityManager.persistAndFlush(new AccountStatsBucket(AccountStatsDimension.TYPE, "SALARY", 1, 100.0));
+
+        // Act
+        statsRepository.addToBuckets(List.of(
+                new AccountStatsBucket(AccountStatsDimension.TYPE, "SALARY", 1, 50.0),
+                new AccountStatsBucket(AccountStatsDimension.CUSTOMER, "4", 1, 50.0)));
+
+        // Assert
+        entityManager.clear();
+        assertThat(statsRepository.findAll()).containsExactlyInAnyOrder(
+                new AccountStatsBucket(AccountStatsDimension.TYPE, "SALARY", 1, 100.0),
+                new AccountStatsBucket(AccountStatsDimension.CUSTOMER, "4", 1, 50.0));
+        assertThat(statsRepository.sumBuckets(List.of(AccountStatsDimension.TYPE)))
+                .containsExactly(new AccountStatsBucket(AccountStatsDimension.TYPE, "SALARY", 2, 150.0));
+    }
+
+    @Test
+    void whenAggregateAccounts_shouldGroupByTypeStatusAndCustomer() {
+        // Arrange
+        persistAccount(5L, AccountType.SAVINGS, AccountStatus.ACTIVE, 100.0, "12345678905");
+        persistAccount(5L, AccountType.INVESTMENT, AccountStatus.ACTIVE, 20000.0, "12345678906");
+
+        // Act
+        List<AccountStatsBucket> buckets = statsRepository.aggregateAccounts();
+
+        // Assert
+        assertThat(buckets).contains(
+                new AccountStatsBucket(AccountStatsDimension.TYPE, "SAVINGS", 1, 100.0),
+                new AccountStatsBucket(AccountStatsDimension.STATUS, "ACTIVE", 2, 20100.0),
+                new AccountStatsBucket(AccountStatsDimension.CUSTOMER, "5", 2, 20100.0));
+    }
+
+    @Test
+    void whenDeleteEmptyBuckets_shouldKeepNonEmptyOnes() {
+        // Arrange
+        statsRepository.addToBuckets(List.of(
+                new AccountStatsBucket(AccountStatsDimension.CUSTOMER, "8", 0, 0),
+                new AccountStatsBucket(AccountStatsDimension.CUSTOMER, "9", 1, 10.0)));
+
+        // Act
+        int removed = statsRepository.deleteEmptyBuckets();
+
+        // Assert
+        assertThat(removed).isEqualTo(1);
+        assertThat(statsRepository.sumBuckets(List.of(AccountStatsDimension.CUSTOMER)))
+                .extracting(AccountStatsBucket::getBucket)
+                .containsExactly("9");
+    }
+
+    private void persistAccount(Long customerId, AccountType type, AccountStatus status, Double balance, String accountNumber) {
+        Account account = new Account();
+        account.setCustomerId(customerId);
+        account.setType(type);
+        account.setStatus(status);
+        account.setBalance(balance);
+        account.setAccountNumber(accountNumber);
+        entityManager.persistAndFlush(account);
+    }
+}
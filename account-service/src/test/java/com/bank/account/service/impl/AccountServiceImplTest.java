@@ -1,34 +1,51 @@
 package com.bank.account.service.impl;
 
+import com.bank.account.cache.SerializedResponseCache;
 import com.bank.account.client.CustomerServiceClient;
 import com.bank.account.event.AccountEventPublisher;
 import com.bank.account.exception.BusinessException;
 import com.bank.account.model.dto.AccountDto;
+import com.bank.account.model.dto.AccountSnapshot;
+import com.bank.account.model.dto.AccountStatus;
+import com.bank.account.model.dto.AccountSummary;
 import com.bank.account.model.dto.AccountType;
 import com.bank.account.model.dto.AccountUpdateRequest;
 import com.bank.account.model.dto.CustomerDto;
 import com.bank.account.model.dto.CustomerStatus;
 import com.bank.account.model.dto.CustomerType;
+import com.bank.account.model.dto.PatchedAccount;
 import com.bank.account.model.entity.Account;
 import com.bank.account.model.mapper.AccountMapper;
 import com.bank.account.repository.AccountRepository;
+import com.bank.account.repository.AccountShards;
+import com.bank.account.service.AccountStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static com.bank.account.exception.BusinessErrors.ACCOUNT_LIMIT_EXCEEDED;
 import static com.bank.account.exception.BusinessErrors.CUSTOMER_INACTIVE;
+import static com.bank.account.exception.BusinessErrors.CUSTOMER_MOVING;
+import static com.bank.account.exception.BusinessErrors.CUSTOMER_NOT_FOUND;
 import static com.bank.account.exception.BusinessErrors.INVESTMENT_ACCOUNT_MIN_BALANCE;
 import static com.bank.account.exception.BusinessErrors.RETAIL_CUSTOMER_ACCOUNT_TYPE_INVALID;
-import static com.bank.account.exception.BusinessErrors.SALARY_ACCOUNT_ALREADY_EXISTS;
+import static com.bank.account.exception.BusinessErrors.VERSION_MISMATCH;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -49,6 +66,15 @@ class AccountServiceImplTest {
     @Mock
     private CustomerServiceClient customerServiceClient;
 
+    @Mock
+    private SerializedResponseCache responseCache;
+
+    @Mock
+    private AccountStatsService accountStatsService;
+
+    @Mock
+    private AccountShards accountShards;
+
     @InjectMocks
     private AccountServiceImpl accountService;
 
@@ -72,13 +98,14 @@ class AccountServiceImplTest {
     @Test
     void createAccount_shouldSucceed_whenDataIsValid() {
         when(customerServiceClient.getCustomerByLegalId(customerLegalId)).thenReturn(activeCustomer);
-        when(accountRepository.countByCustomerId(1L)).thenReturn(0L);
+        when(accountRepository.reserveAccountSlot(1L, 10)).thenReturn(true);
         when(accountMapper.toEntity(any(AccountDto.class))).thenReturn(new Account());
         when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArgument(0));
         when(accountMapper.toDto(any(Account.class))).thenReturn(new AccountDto());
 
         accountService.createAccount(accountDto);
 
+        verify(accountStatsService).recordChange(eq(null), any(AccountSnapshot.class));
         verify(eventPublisher).publishAccountCreatedEvent(any(AccountDto.class));
     }
 
@@ -95,22 +122,36 @@ class AccountServiceImplTest {
     @Test
     void createAccount_shouldThrowException_whenAccountLimitIsExceeded() {
         when(customerServiceClient.getCustomerByLegalId(customerLegalId)).thenReturn(activeCustomer);
-        when(accountRepository.countByCustomerId(1L)).thenReturn(10L);
+        when(accountRepository.reserveAccountSlot(1L, 10)).thenReturn(false);
 
         BusinessException exception = assertThrows(BusinessException.class, () -> accountService.createAccount(accountDto));
         assertThat(exception.getStatus()).isEqualTo(ACCOUNT_LIMIT_EXCEEDED.getHttpStatus());
         assertThat(exception.getMessage()).isEqualTo(ACCOUNT_LIMIT_EXCEEDED.getMessage());
+        verify(accountRepository, never()).save(any());
     }
 
     @Test
-    void createAccount_shouldThrowException_whenSalaryAccountAlreadyExists() {
-        accountDto.setType(AccountType.SALARY);
+    void createAccount_shouldThrowException_whenCustomerIsBeingMovedToAnotherShard() {
         when(customerServiceClient.getCustomerByLegalId(customerLegalId)).thenReturn(activeCustomer);
-        when(accountRepository.findByCustomerIdAndType(1L, AccountType.SALARY)).thenReturn(Optional.of(new Account()));
+        doThrow(CUSTOMER_MOVING.exception()).when(accountShards).fence(any());
 
         BusinessException exception = assertThrows(BusinessException.class, () -> accountService.createAccount(accountDto));
-        assertThat(exception.getStatus()).isEqualTo(SALARY_ACCOUNT_ALREADY_EXISTS.getHttpStatus());
-        assertThat(exception.getMessage()).isEqualTo(SALARY_ACCOUNT_ALREADY_EXISTS.getMessage());
+        assertThat(exception.getError()).isEqualTo(CUSTOMER_MOVING);
+        verify(accountShards).routeCustomer(1L);
+        verify(accountRepository, never()).reserveAccountSlot(any(), anyInt());
+    }
+
+    @Test
+    void createAccount_shouldPropagateViolation_whenSalaryAccountAlreadyExists() {
+        accountDto.setType(AccountType.SALARY);
+        when(customerServiceClient.getCustomerByLegalId(customerLegalId)).thenReturn(activeCustomer);
+        when(accountRepository.reserveAccountSlot(1L, 10)).thenReturn(true);
+        when(accountMapper.toEntity(accountDto)).thenReturn(new Account());
+        when(accountRepository.save(any(Account.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> accountService.createAccount(accountDto));
+        verify(accountStatsService, never()).recordChange(any(), any());
+        verify(eventPublisher, never()).publishAccountCreatedEvent(any());
     }
 
     @Test
@@ -137,68 +178,228 @@ class AccountServiceImplTest {
 
     @Test
     void getAccount_shouldReturnAccount_whenAccountExists() {
-        Account account = new Account();
-        account.setId(1L);
-        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
-        when(accountMapper.toDto(account)).thenReturn(new AccountDto());
+        AccountDto account = new AccountDto(1L, "12345678901", AccountType.SAVINGS, 100.0, AccountStatus.ACTIVE, 0L);
+        when(accountRepository.findDtoById(1L)).thenReturn(Optional.of(account));
 
         AccountDto result = accountService.getAccount(1L);
 
-        assertThat(result).isNotNull();
+        assertThat(result).isSameAs(account);
+        verify(accountMapper, never()).toDto(any(Account.class));
     }
 
     @Test
     void getAccount_shouldThrowException_whenAccountDoesNotExist() {
-        when(accountRepository.findById(1L)).thenReturn(Optional.empty());
+        when(accountRepository.findDtoById(1L)).thenReturn(Optional.empty());
 
         assertThrows(BusinessException.class, () -> accountService.getAccount(1L));
     }
 
     @Test
     void getAllAccounts_shouldReturnListOfAccounts() {
-        when(accountRepository.findAll()).thenReturn(java.util.List.of(new Account()));
-        when(accountMapper.toDto(any(Account.class))).thenReturn(new AccountDto());
+        when(accountRepository.findAllDtos()).thenReturn(List.of(new AccountDto()));
 
-        java.util.List<AccountDto> result = accountService.getAllAccounts();
+        List<AccountDto> result = accountService.getAllAccounts();
 
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);
     }
 
+    @Test
+    void getAllAccounts_whenSharded_shouldPageThroughMergedPagesSkippingMovedDuplicates() {
+        List<AccountDto> firstPage = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            firstPage.add(new AccountDto(id, "1234567" + id, AccountType.SAVINGS, 100.0, AccountStatus.ACTIVE, 0L));
+        }
+        AccountDto last = new AccountDto(501L, "1234567501", AccountType.SAVINGS, 100.0, AccountStatus.ACTIVE, 0L);
+        when(accountShards.isSharded()).thenReturn(true);
+        // The second page repeats account 501, found on both shards while it is being moved.
+        when(accountShards.<AccountDto>gather(any(), any(), eq(500))).thenReturn(firstPage).thenReturn(List.of(last, last));
+
+        List<AccountDto> result = accountService.getAllAccounts();
+
+        assertThat(result).hasSize(501);
+        assertThat(result.getLast()).isSameAs(last);
+        verify(accountRepository, never()).findAllDtos();
+    }
+
+    @Test
+    void getAccountsPage_shouldRejectLimitOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> accountService.getAccountsPage(0L, 0));
+        assertThrows(IllegalArgumentException.class, () -> accountService.getAccountsPage(0L, 501));
+        verify(accountShards, never()).gather(any(), any(), anyInt());
+    }
+
+    @Test
+    void streamAllAccounts_shouldPassEveryRowToTheActionPageByPage() {
+        AccountDto account = new AccountDto(1L, "12345678901", AccountType.SAVINGS, 100.0, AccountStatus.ACTIVE, 0L);
+        when(accountShards.<AccountDto>gather(any(), any(), eq(500))).thenReturn(List.of(account));
+        List<AccountDto> streamed = new ArrayList<>();
+
+        accountService.streamAllAccounts(streamed::add);
+
+        assertThat(streamed).containsExactly(account);
+    }
+
+    @Test
+    void getAccountsByCustomerId_shouldReturnCustomerAccounts() {
+        AccountSummary summary = new AccountSummary(1L, "12345678901", AccountType.SAVINGS, 100.0, AccountStatus.ACTIVE);
+        when(accountRepository.findSummariesByCustomerId(7L)).thenReturn(List.of(summary));
+
+        assertThat(accountService.getAccountsByCustomerId(7L)).containsExactly(summary);
+        verify(accountMapper, never()).toDto(any(Account.class));
+    }
+
+    @Test
+    void getAccountsByCustomerLegalId_shouldResolveCustomerAndReturnItsAccounts() {
+        AccountSummary summary = new AccountSummary(1L, "12345678901", AccountType.SAVINGS, 100.0, AccountStatus.ACTIVE);
+        when(customerServiceClient.getCustomerByLegalId("1234567")).thenReturn(activeCustomer);
+        when(accountRepository.findSummariesByCustomerId(1L)).thenReturn(List.of(summary));
+
+        assertThat(accountService.getAccountsByCustomerLegalId("1234567")).containsExactly(summary);
+    }
+
+    @Test
+    void getAccountsByCustomerLegalId_shouldThrow_whenCustomerNotFound() {
+        when(customerServiceClient.getCustomerByLegalId("1234567")).thenReturn(null);
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> accountService.getAccountsByCustomerLegalId("1234567"));
+        assertThat(exception.getStatus()).isEqualTo(CUSTOMER_NOT_FOUND.getHttpStatus());
+    }
+
     @Test
     void updateAccount_shouldSucceed_whenDataIsValid() {
         Account existingAccount = new Account();
         existingAccount.setId(1L);
+        existingAccount.setCustomerId(2L);
+        existingAccount.setType(AccountType.SAVINGS);
+        existingAccount.setStatus(AccountStatus.ACTIVE);
+        existingAccount.setBalance(100.0);
+        accountUpdateRequest.setBalance(250.0);
+        doAnswer(i -> {
+            existingAccount.setBalance(250.0);
+            return null;
+        }).when(accountMapper).updateAccountFromDto(accountUpdateRequest, existingAccount);
         when(accountRepository.findById(1L)).thenReturn(Optional.of(existingAccount));
-        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArgument(0));
+        when(accountRepository.saveAndFlush(any(Account.class))).thenAnswer(i -> i.getArgument(0));
         when(accountMapper.toDto(any(Account.class))).thenReturn(new AccountDto());
 
-        accountService.updateAccount(1L, accountUpdateRequest);
+        accountService.updateAccount(1L, accountUpdateRequest, null);
 
+        verify(accountStatsService).recordChange(new AccountSnapshot(2L, AccountType.SAVINGS, AccountStatus.ACTIVE, 100.0),
+                new AccountSnapshot(2L, AccountType.SAVINGS, AccountStatus.ACTIVE, 250.0));
         verify(eventPublisher).publishAccountUpdatedEvent(any(AccountDto.class));
+        verify(responseCache).evict(1L);
     }
 
     @Test
     void updateAccount_shouldThrowException_whenAccountDoesNotExist() {
         when(accountRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(BusinessException.class, () -> accountService.updateAccount(1L, accountUpdateRequest));
+        assertThrows(BusinessException.class, () -> accountService.updateAccount(1L, accountUpdateRequest, null));
     }
 
     @Test
-    void deleteAccount_shouldSucceed_whenAccountExists() {
+    void updateAccount_shouldThrowVersionMismatch_whenExpectedVersionIsStale() {
+        Account existingAccount = new Account();
+        existingAccount.setId(1L);
+        existingAccount.setVersion(4L);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(existingAccount));
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> accountService.updateAccount(1L, accountUpdateRequest, 3L));
+        assertThat(exception.getStatus()).isEqualTo(VERSION_MISMATCH.getHttpStatus());
+        verify(accountRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patchAccount_shouldThrowVersionMismatch_whenExpectedVersionIsStale() {
+        accountUpdateRequest.setBalance(10.0);
+        when(accountRepository.patchAccount(1L, accountUpdateRequest, 3L)).thenReturn(Optional.empty());
         when(accountRepository.existsById(1L)).thenReturn(true);
 
+        BusinessException exception = assertThrows(BusinessException.class, () -> accountService.patchAccount(1L, accountUpdateRequest, 3L));
+        assertThat(exception.getStatus()).isEqualTo(VERSION_MISMATCH.getHttpStatus());
+        verify(eventPublisher, never()).publishAccountUpdatedEvent(any());
+    }
+
+    @Test
+    void getAccountVersion_shouldReturnVersion_whenAccountExists() {
+        when(accountRepository.findVersionById(1L)).thenReturn(Optional.of(5L));
+
+        assertThat(accountService.getAccountVersion(1L)).isEqualTo(5L);
+    }
+
+    @Test
+    void patchAccount_shouldPublishReturnedRow_whenAccountExists() {
+        accountUpdateRequest.setStatus(AccountStatus.SUSPENDED);
+        AccountDto patchedAccount = new AccountDto();
+        patchedAccount.setId(1L);
+        patchedAccount.setStatus(AccountStatus.SUSPENDED);
+        AccountSnapshot previous = new AccountSnapshot(2L, AccountType.SAVINGS, AccountStatus.ACTIVE, 100.0);
+        AccountSnapshot current = new AccountSnapshot(2L, AccountType.SAVINGS, AccountStatus.SUSPENDED, 100.0);
+        when(accountRepository.patchAccount(1L, accountUpdateRequest, null))
+                .thenReturn(Optional.of(new PatchedAccount(patchedAccount, previous, current)));
+
+        AccountDto result = accountService.patchAccount(1L, accountUpdateRequest, null);
+
+        assertThat(result).isSameAs(patchedAccount);
+        verify(accountStatsService).recordChange(previous, current);
+        verify(eventPublisher).publishAccountUpdatedEvent(patchedAccount);
+        verify(responseCache).evict(1L);
+        verify(accountRepository, never()).findById(any());
+    }
+
+    @Test
+    void patchAccount_shouldThrowException_whenAccountDoesNotExist() {
+        accountUpdateRequest.setBalance(10.0);
+        when(accountRepository.patchAccount(1L, accountUpdateRequest, null)).thenReturn(Optional.empty());
+
+        assertThrows(BusinessException.class, () -> accountService.patchAccount(1L, accountUpdateRequest, null));
+        verify(eventPublisher, never()).publishAccountUpdatedEvent(any());
+    }
+
+    @Test
+    void patchAccount_shouldThrowException_whenNoFieldIsProvided() {
+        assertThrows(IllegalArgumentException.class, () -> accountService.patchAccount(1L, accountUpdateRequest, null));
+        verify(accountRepository, never()).patchAccount(any(), any(), any());
+    }
+
+    @Test
+    void deleteAccount_shouldSucceed_whenAccountExists() {
+        AccountSnapshot deleted = new AccountSnapshot(2L, AccountType.SAVINGS, AccountStatus.ACTIVE, 100.0);
+        when(accountRepository.deleteAccount(1L)).thenReturn(Optional.of(deleted));
+
         accountService.deleteAccount(1L);
 
-        verify(accountRepository).deleteById(1L);
+        verify(accountRepository).releaseAccountSlot(2L);
+        verify(accountStatsService).recordChange(deleted, null);
+        verify(responseCache).evict(1L);
         verify(eventPublisher).publishAccountDeletedEvent(1L);
     }
 
     @Test
     void deleteAccount_shouldThrowException_whenAccountDoesNotExist() {
-        when(accountRepository.existsById(1L)).thenReturn(false);
+        when(accountRepository.deleteAccount(1L)).thenReturn(Optional.empty());
 
         assertThrows(BusinessException.class, () -> accountService.deleteAccount(1L));
+        verify(accountRepository, never()).releaseAccountSlot(any());
+        verify(accountStatsService, never()).recordChange(any(), any());
+    }
+
+    @Test
+    void deleteAccountsByCustomerId_shouldReleaseAllSlotsOfTheCustomer() {
+        Account account = new Account();
+        account.setId(1L);
+        account.setCustomerId(2L);
+        account.setType(AccountType.SAVINGS);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setBalance(100.0);
+        when(accountRepository.findByCustomerId(2L)).thenReturn(List.of(account));
+
+        accountService.deleteAccountsByCustomerId(2L);
+
+        verify(accountRepository).deleteAll(List.of(account));
+        verify(accountRepository).releaseAllAccountSlots(2L);
+        verify(eventPublisher).publishAccountDeletedEvent(1L);
     }
 }
@@ -0,0 +1,132 @@
+package com.bank.account.service.impl;
+
+import com.bank.account.model.dto.AccountSnapshot;
+import com.bank.account.model.dto.AccountStatsDimension;
+import com.bank.account.model.dto.AccountStatsDto;
+import com.bank.account.model.dto.AccountStatus;
+import com.bank.account.model.dto.AccountTotals;
+import com.bank.account.model.dto.AccountType;
+import com.bank.account.model.entity.AccountStatsBucket;
+import com.bank.account.repository.AccountShards;
+import com.bank.account.repository.AccountStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountStatsServiceImplTest {
+
+    @Mock
+    private AccountStatsRepository statsRepository;
+
+    @Mock
+    private AccountShards accountShards;
+
+    @InjectMocks
+    private AccountStatsServiceImpl accountStatsService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordChange_shouldAddSortedDeltasForCreatedAccount() {
+        accountStatsService.recordChange(null, new AccountSnapshot(7L, AccountType.SAVINGS, AccountStatus.ACTIVE, 100.0));
+
+        ArgumentCaptor<List<AccountStatsBucket>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(statsRepository).addToBuckets(deltas.capture());
+        assertThat(deltas.getValue()).containsExactly(
+                new AccountStatsBucket(AccountStatsDimension.TYPE, "SAVINGS", 1, 100.0),
+                new AccountStatsBucket(AccountStatsDimension.STATUS, "ACTIVE", 1, 100.0),
+                new AccountStatsBucket(AccountStatsDimension.CUSTOMER, "7", 1, 100.0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordChange_shouldMoveAccountBetweenBucketsAndSkipUnchangedOnes() {
+        accountStatsService.recordChange(new AccountSnapshot(7L, AccountType.SAVINGS, AccountStatus.ACTIVE, 100.0),
+                new AccountSnapshot(7L, AccountType.SAVINGS, AccountStatus.SUSPENDED, 100.0));
+
+        ArgumentCaptor<List<AccountStatsBucket>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(statsRepository).addToBuckets(deltas.capture());
+        assertThat(deltas.getValue()).containsExactly(
+                new AccountStatsBucket(AccountStatsDimension.STATUS, "ACTIVE", -1, -100.0),
+                new AccountStatsBucket(AccountStatsDimension.STATUS, "SUSPENDED", 1, 100.0));
+    }
+
+    @Test
+    void getStats_shouldSumTypeBucketsAndFillMissingOnesWithZero() {
+        onSingleShard();
+        when(statsRepository.sumBuckets(any())).thenReturn(List.of(
+                new AccountStatsBucket(AccountStatsDimension.TYPE, "SAVINGS", 2, 300.0),
+                new AccountStatsBucket(AccountStatsDimension.TYPE, "INVESTMENT", 1, 20000.0),
+                new AccountStatsBucket(AccountStatsDimension.STATUS, "ACTIVE", 3, 20300.0)));
+        when(statsRepository.findById(new AccountStatsBucket.Key(AccountStatsDimension.CUSTOMER, "7")))
+                .thenReturn(Optional.of(new AccountStatsBucket(AccountStatsDimension.CUSTOMER, "7", 2, 300.0)));
+
+        AccountStatsDto stats = accountStatsService.getStats(7L);
+
+        assertThat(stats.getTotal()).isEqualTo(new AccountTotals(3, 20300.0));
+        assertThat(stats.getByType().get(AccountType.SALARY)).isEqualTo(new AccountTotals(0, 0));
+        assertThat(stats.getByStatus().get(AccountStatus.ACTIVE)).isEqualTo(new AccountTotals(3, 20300.0));
+        assertThat(stats.getCustomer()).isEqualTo(new AccountTotals(2, 300.0));
+    }
+
+    @Test
+    void getStats_withoutCustomerId_shouldNotLookUpCustomerBucket() {
+        onSingleShard();
+        when(statsRepository.sumBuckets(any())).thenReturn(List.of());
+
+        AccountStatsDto stats = accountStatsService.getStats(null);
+
+        assertThat(stats.getCustomer()).isNull();
+        verify(statsRepository, never()).findById(any());
+    }
+
+    @Test
+    void getStats_whenSharded_shouldAddUpTheBucketsOfEveryShard() {
+        when(accountShards.onEachShard(any())).thenReturn(List.of(
+                List.of(new AccountStatsBucket(AccountStatsDimension.TYPE, "SAVINGS", 2, 300.0),
+                        new AccountStatsBucket(AccountStatsDimension.STATUS, "ACTIVE", 2, 300.0)),
+                List.of(new AccountStatsBucket(AccountStatsDimension.TYPE, "SAVINGS", 1, 50.0),
+                        new AccountStatsBucket(AccountStatsDimension.STATUS, "INACTIVE", 1, 50.0))));
+
+        AccountStatsDto stats = accountStatsService.getStats(null);
+
+        assertThat(stats.getTotal()).isEqualTo(new AccountTotals(3, 350.0));
+        assertThat(stats.getByType().get(AccountType.SAVINGS)).isEqualTo(new AccountTotals(3, 350.0));
+        assertThat(stats.getByStatus().get(AccountStatus.ACTIVE)).isEqualTo(new AccountTotals(2, 300.0));
+        assertThat(stats.getByStatus().get(AccountStatus.INACTIVE)).isEqualTo(new AccountTotals(1, 50.0));
+    }
+
+    @Test
+    void findDrift_shouldReturnDifferenceBetweenAccountsAndStoredBuckets() {
+        when(statsRepository.sumBuckets(List.of(AccountStatsDimension.values()))).thenReturn(List.of(
+                new AccountStatsBucket(AccountStatsDimension.TYPE, "SAVINGS", 2, 300.0),
+                new AccountStatsBucket(AccountStatsDimension.STATUS, "ACTIVE", 1, 50.0)));
+        when(statsRepository.aggregateAccounts()).thenReturn(List.of(
+                new AccountStatsBucket(AccountStatsDimension.TYPE, "SAVINGS", 2, 300.001),
+                new AccountStatsBucket(AccountStatsDimension.STATUS, "ACTIVE", 2, 300.0),
+                new AccountStatsBucket(AccountStatsDimension.CUSTOMER, "7", 2, 300.0)));
+
+        List<AccountStatsBucket> drift = accountStatsService.findDrift();
+
+        assertThat(drift).containsExactly(
+                new AccountStatsBucket(AccountStatsDimension.STATUS, "ACTIVE", 1, 250.0),
+                new AccountStatsBucket(AccountStatsDimension.CUSTOMER, "7", 2, 300.0));
+    }
+
+    private void onSingleShard() {
+        when(accountShards.onEachShard(any())).thenAnswer(invocation -> List.of(invocation.<Supplier<?>>getArgument(0).get()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.bank.account.service.support;
+
+import com.bank.account.model.dto.AccountStatsDimension;
+import com.bank.account.model.entity.AccountStatsBucket;
+import com.bank.account.repository.AccountShards;
+import com.bank.account.service.AccountStatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountStatsReconcilerTest {
+
+    private static final List<AccountStatsBucket> DRIFT =
+            List.of(new AccountStatsBucket(AccountStatsDimension.CUSTOMER, "7", 1, 100.0));
+
+    private AccountStatsService statsService;
+    private AccountShards accountShards;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        statsService = mock(AccountStatsService.class);
+        accountShards = mock(AccountShards.class);
+        when(accountShards.shards()).thenReturn(List.of("shard-0"));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void whenDriftFound_shouldReportAndRepair() {
+        when(statsService.findDrift()).thenReturn(DRIFT);
+
+        new AccountStatsReconciler(statsService, accountShards, meterRegistry, true).reconcile();
+
+        verify(statsService).applyCorrections(DRIFT);
+        assertThat(meterRegistry.get("account.stats.drifted.buckets").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void whenRepairDisabled_shouldOnlyReport() {
+        when(statsService.findDrift()).thenReturn(DRIFT);
+
+        new AccountStatsReconciler(statsService, accountShards, meterRegistry, false).reconcile();
+
+        verify(statsService, never()).applyCorrections(any());
+        assertThat(meterRegistry.get("account.stats.drifted.buckets").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void whenSharded_shouldReconcileEachShardAndReportTotalDrift() {
+        when(accountShards.shards()).thenReturn(List.of("shard-0", "shard-1"));
+        when(statsService.findDrift()).thenReturn(DRIFT).thenReturn(List.of());
+
+        new AccountStatsReconciler(statsService, accountShards, meterRegistry, true).reconcile();
+
+        verify(accountShards).route("shard-0");
+        verify(accountShards).route("shard-1");
+        verify(statsService, times(2)).findDrift();
+        verify(statsService).applyCorrections(DRIFT);
+        assertThat(meterRegistry.get("account.stats.drifted.buckets").gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.bank.account.service.support;
+
+import com.bank.account.exception.ConcurrentUpdateException;
+import com.bank.account.model.entity.Account;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticLockRetryExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticLockRetryExecutor retryExecutor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retryExecutor = new OptimisticLockRetryExecutor(meterRegistry, 3, 1, 5);
+    }
+
+    @Test
+    void whenUpdateSucceedsFirstTime_shouldNotRetry() {
+        String result = retryExecutor.execute(() -> "ok", () -> 0L);
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(meterRegistry.counter("account.update.optimistic.lock.conflicts").count()).isZero();
+    }
+
+    @Test
+    void whenConflictIsTransient_shouldRetryAndSucceed() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retryExecutor.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Account.class, 1L);
+            }
+            return "ok";
+        }, () -> 0L);
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(meterRegistry.counter("account.update.optimistic.lock.conflicts").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("account.update.optimistic.lock.retries").count()).isEqualTo(2);
+    }
+
+    @Test
+    void whenConflictPersists_shouldThrowWithCurrentVersion() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        ConcurrentUpdateException exception = assertThrows(ConcurrentUpdateException.class, () ->
+                retryExecutor.execute(() -> {
+                    attempts.incrementAndGet();
+                    throw new ObjectOptimisticLockingFailureException(Account.class, 1L);
+                }, () -> 42L));
+
+        assertThat(exception.getCurrentVersion()).isEqualTo(42L);
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(meterRegistry.counter("account.update.optimistic.lock.exhausted").count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.bank.customer.event;
+
+import com.bank.customer.model.dto.CustomerDto;
+import com.bank.customer.model.dto.CustomerStatus;
+import com.bank.customer.model.dto.CustomerType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of {@link CustomerDto} as the controllers do it, and the AMQP conversion done by
+ * {@link CustomerEventPublisher}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomerMessageBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter();
+
+    private CustomerDto customerDto;
+    private byte[] customerJson;
+    private Message customerMessage;
+
+    @Setup
+    public void setUp() throws IOException {
+        DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setTrustedPackages(CustomerDto.class.getPackageName());
+        messageConverter.setJavaTypeMapper(typeMapper);
+
+        customerDto = new CustomerDto(1L, "Test Corp", "1234567", CustomerType.CORPORATE, CustomerStatus.ACTIVE,
+                "1 Main Street", 3L);
+        customerJson = objectMapper.writeValueAsBytes(customerDto);
+        customerMessage = messageConverter.toMessage(customerDto, new MessageProperties());
+    }
+
+    @Benchmark
+    public byte[] serializeCustomer() throws IOException {
+        return objectMapper.writeValueAsBytes(customerDto);
+    }
+
+    @Benchmark
+    public CustomerDto deserializeCustomer() throws IOException {
+        return objectMapper.readValue(customerJson, CustomerDto.class);
+    }
+
+    @Benchmark
+    public Message toCustomerEventMessage() {
+        return messageConverter.toMessage(customerDto, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message toCustomerDeletedMessage() {
+        return messageConverter.toMessage(1L, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object fromCustomerEventMessage() {
+        return messageConverter.fromMessage(customerMessage);
+    }
+}
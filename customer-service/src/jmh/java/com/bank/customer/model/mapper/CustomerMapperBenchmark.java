@@ -0,0 +1,65 @@
+package com.bank.customer.model.mapper;
+
+import com.bank.customer.model.dto.CustomerDto;
+import com.bank.customer.model.dto.CustomerStatus;
+import com.bank.customer.model.dto.CustomerType;
+import com.bank.customer.model.entity.Customer;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomerMapperBenchmark {
+
+    private final CustomerMapper customerMapper = Mappers.getMapper(CustomerMapper.class);
+
+    private Customer customer;
+    private CustomerDto customerDto;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer();
+        customer.setId(1L);
+        customer.setName("Test Corp");
+        customer.setLegalId("1234567");
+        customer.setType(CustomerType.CORPORATE);
+        customer.setStatus(CustomerStatus.ACTIVE);
+        customer.setAddress("1 Main Street");
+        customer.setVersion(3L);
+
+        customerDto = new CustomerDto(null, "Test Corp", "1234567", CustomerType.CORPORATE, CustomerStatus.ACTIVE,
+                "2 Main Street", null);
+    }
+
+    @Benchmark
+    public CustomerDto toDto() {
+        return customerMapper.toDto(customer);
+    }
+
+    @Benchmark
+    public Customer toEntity() {
+        return customerMapper.toEntity(customerDto);
+    }
+
+    @Benchmark
+    public Customer updateCustomerFromDto() {
+        Customer target = new Customer();
+        customerMapper.updateCustomerFromDto(customerDto, target);
+        return target;
+    }
+}
@@ -1,24 +1,59 @@
 package com.bank.customer.api.advice;
 
+import com.bank.customer.exception.BusinessErrors;
 import com.bank.customer.exception.BusinessException;
+import com.bank.customer.exception.ConcurrentUpdateException;
 import com.bank.customer.exception.SystemException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.postgresql.util.PSQLException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.Map;
+
 @Slf4j
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    // Business rules enforced by the database, keyed by the name of the constraint or unique index.
+    private static final Map<String, BusinessErrors> CONSTRAINT_ERRORS = Map.of(
+            "uk_customer_legal_id", BusinessErrors.CUSTOMER_LEGAL_ID_USED);
+
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(BusinessException.class)
     public ErrorResponse handleBusinessException(BusinessException ex) {
         log.warn("Business exception occurred: {}", ex.getMessage());
+        countRejection(ex);
         return ErrorResponse.builder(ex, ex.getStatus(), ex.getMessage()).build();
     }
 
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ErrorResponse handleConcurrentUpdateException(ConcurrentUpdateException ex) {
+        log.warn("Concurrent update conflict, current version: {}", ex.getCurrentVersion());
+        countRejection(ex);
+        return ErrorResponse.builder(ex, ex.getStatus(), ex.getMessage())
+                .property("currentVersion", ex.getCurrentVersion())
+                .build();
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ErrorResponse handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        BusinessErrors error = violatedRule(ex);
+        if (error == null) {
+            log.error("Data integrity violation", ex);
+            return ErrorResponse.builder(ex, HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation.").build();
+        }
+        return handleBusinessException(error.exception());
+    }
+
     @ExceptionHandler(SystemException.class)
     public ErrorResponse handleSystemException(SystemException ex) {
         log.error("System exception occurred", ex);
@@ -30,4 +65,19 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         log.warn("Illegal argument exception: {}", ex.getMessage());
         return ErrorResponse.builder(ex, HttpStatus.BAD_REQUEST, ex.getMessage()).build();
     }
+
+    // Read from the error's constraint field, which unlike the message text is not localized.
+    private static BusinessErrors violatedRule(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof PSQLException psqlException && psqlException.getServerErrorMessage() != null) {
+                String constraint = psqlException.getServerErrorMessage().getConstraint();
+                return constraint != null ? CONSTRAINT_ERRORS.get(constraint) : null;
+            }
+        }
+        return null;
+    }
+
+    private void countRejection(BusinessException ex) {
+        meterRegistry.counter("customer.business.rejections", "code", ex.getError().name()).increment();
+    }
 }
@@ -1,21 +1,34 @@
 package com.bank.customer.api.v1;
 
+import com.bank.customer.api.support.VersionETags;
+import com.bank.customer.cache.SerializedResponseCache;
 import com.bank.customer.model.dto.CustomerDto;
+import com.bank.customer.model.dto.CustomerOverviewDto;
+import com.bank.customer.model.dto.CustomerPatchRequest;
+import com.bank.customer.model.dto.CustomerSearchResponse;
+import com.bank.customer.service.CustomerOverviewService;
 import com.bank.customer.service.CustomerService;
+import com.bank.customer.service.support.OptimisticLockRetryExecutor;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -33,24 +46,54 @@ import java.util.List;
 public class CustomerControllerV1 {
 
     private final CustomerService customerService;
+    private final CustomerOverviewService customerOverviewService;
+    private final OptimisticLockRetryExecutor retryExecutor;
+    private final SerializedResponseCache responseCache;
 
     @Operation(description = "Create a new customer.")
     @ApiResponse(responseCode = "201", description = "Customer created successfully.")
     @PostMapping
     public ResponseEntity<CustomerDto> createCustomer(@RequestBody @Valid CustomerDto customerDto) {
-        log.info("Request received to create customer with legal ID: {}", customerDto.getLegalId());
+        log.debug("Request received to create customer with legal ID: {}", customerDto.getLegalId());
         CustomerDto createdCustomer = customerService.createCustomer(customerDto);
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(createdCustomer.getId()).toUri();
         return ResponseEntity.created(uri).body(createdCustomer);
     }
 
     @Operation(description = "Get customer by ID.")
-    @ApiResponse(responseCode = "200", description = "Customer info.")
+    @ApiResponse(responseCode = "200", description = "Customer info.",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = CustomerDto.class)))
+    @ApiResponse(responseCode = "304", description = "Customer not modified since the version in If-None-Match.")
     @ApiResponse(responseCode = "404", description = "Customer not found.")
     @GetMapping("/{id}")
-    public CustomerDto getCustomerById(@PathVariable Long id) {
-        log.info("Request received to get customer by ID: {}", id);
-        return customerService.getCustomer(id);
+    public ResponseEntity<?> getCustomerById(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("Request received to get customer by ID: {}", id);
+        if (ifNoneMatch != null || responseCache.isEnabled()) {
+            Long version = customerService.getCustomerVersion(id);
+            if (!VersionETags.noneMatch(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(VersionETags.of(version)).build();
+            }
+            byte[] cached = responseCache.get(id, version);
+            if (cached != null) {
+                return ResponseEntity.ok().eTag(VersionETags.of(version)).contentType(MediaType.APPLICATION_JSON).body(cached);
+            }
+        }
+        CustomerDto customer = customerService.getCustomer(id);
+        if (responseCache.isEnabled()) {
+            byte[] body = responseCache.put(id, customer.getVersion(), customer);
+            return ResponseEntity.ok().eTag(VersionETags.of(customer.getVersion())).contentType(MediaType.APPLICATION_JSON).body(body);
+        }
+        return ResponseEntity.ok().eTag(VersionETags.of(customer.getVersion())).body(customer);
+    }
+
+    @Operation(description = "Get a customer together with its accounts, flagging any part that could not be fetched in time.")
+    @ApiResponse(responseCode = "200", description = "Customer overview, possibly partial.")
+    @ApiResponse(responseCode = "404", description = "Customer not found.")
+    @GetMapping("/{id}/overview")
+    public CustomerOverviewDto getCustomerOverview(@PathVariable Long id) {
+        log.debug("Request received to get overview of customer with ID: {}", id);
+        return customerOverviewService.getOverview(id);
     }
 
     @Operation(description = "Get customer by ID.")
@@ -58,25 +101,58 @@ public class CustomerControllerV1 {
     @ApiResponse(responseCode = "404", description = "Customer not found.")
     @GetMapping("/search")
     public CustomerDto searchCustomer(@RequestParam String legalId) {
-        log.info("Request received to get customer by LegalId: {}", legalId);
+        log.debug("Request received to get customer by LegalId: {}", legalId);
         return customerService.getCustomer(legalId);
     }
 
+    @Operation(description = "Search customers by name or address, prefix matches first, then by similarity.")
+    @ApiResponse(responseCode = "200", description = "One page of matching customers.")
+    @ApiResponse(responseCode = "400", description = "Query too short, invalid size or invalid cursor.")
+    @GetMapping("/search/name")
+    public CustomerSearchResponse searchCustomersByName(@RequestParam String q,
+                                                        @RequestParam(required = false) String after,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        log.debug("Request received to search customers by name: {}", q);
+        return customerService.searchCustomersByName(q, after, size);
+    }
+
     @Operation(description = "Get all customers.")
     @ApiResponse(responseCode = "200", description = "List of all customers.")
     @GetMapping
     public List<CustomerDto> getAllCustomers() {
-        log.info("Request received to get all customers.");
+        log.debug("Request received to get all customers.");
         return customerService.getAllCustomers();
     }
 
     @Operation(description = "Update an existing customer.")
     @ApiResponse(responseCode = "200", description = "Customer updated successfully.")
     @ApiResponse(responseCode = "404", description = "Customer not found.")
+    @ApiResponse(responseCode = "409", description = "Customer was modified concurrently.")
+    @ApiResponse(responseCode = "412", description = "Customer version does not match If-Match.")
     @PutMapping("/{id}")
-    public CustomerDto updateCustomer(@PathVariable Long id, @RequestBody @Valid CustomerDto customerDto) {
-        log.info("Request received to update customer with ID: {}", id);
-        return customerService.updateCustomer(id, customerDto);
+    public ResponseEntity<CustomerDto> updateCustomer(@PathVariable Long id,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                      @RequestBody @Valid CustomerDto customerDto) {
+        log.debug("Request received to update customer with ID: {}", id);
+        Long expectedVersion = VersionETags.expectedVersion(ifMatch);
+        CustomerDto updatedCustomer = retryExecutor.execute(() -> customerService.updateCustomer(id, customerDto, expectedVersion),
+                () -> customerService.getCustomerVersion(id));
+        return ResponseEntity.ok().eTag(VersionETags.of(updatedCustomer.getVersion())).body(updatedCustomer);
+    }
+
+    @Operation(description = "Partially update an existing customer, only the provided fields are changed.")
+    @ApiResponse(responseCode = "200", description = "Customer patched successfully.")
+    @ApiResponse(responseCode = "400", description = "No field to patch was provided.")
+    @ApiResponse(responseCode = "404", description = "Customer not found.")
+    @ApiResponse(responseCode = "409", description = "Legal ID already used.")
+    @ApiResponse(responseCode = "412", description = "Customer version does not match If-Match.")
+    @PatchMapping("/{id}")
+    public ResponseEntity<CustomerDto> patchCustomer(@PathVariable Long id,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                     @RequestBody @Valid CustomerPatchRequest customerPatchRequest) {
+        log.debug("Request received to patch customer with ID: {}", id);
+        CustomerDto patchedCustomer = customerService.patchCustomer(id, customerPatchRequest, VersionETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(VersionETags.of(patchedCustomer.getVersion())).body(patchedCustomer);
     }
 
     @Operation(description = "Delete a customer by ID.")
@@ -85,7 +161,7 @@ public class CustomerControllerV1 {
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteCustomer(@PathVariable Long id) {
-        log.info("Request received to delete customer with ID: {}", id);
+        log.debug("Request received to delete customer with ID: {}", id);
         customerService.deleteCustomer(id);
     }
 }
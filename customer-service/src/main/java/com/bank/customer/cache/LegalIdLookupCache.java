@@ -0,0 +1,181 @@
+package com.bank.customer.cache;
+
+import com.bank.customer.exception.SystemException;
+import com.bank.customer.model.dto.CustomerDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent lookups of the same legal ID into one database load and keeps the result for a short time.
+ * Only found customers are cached; a miss is shared with the callers waiting on the same load and then forgotten.
+ * <p>
+ * Writers call {@link #evict(Long)}, which also discards loads already in flight so they cannot cache what they read
+ * before the write. Inside a transaction the eviction is repeated after completion, since a lookup racing the commit
+ * still sees the old row.
+ */
+@Component
+public class LegalIdLookupCache {
+
+    private record Entry(CustomerDto customer, long expiresAt) {
+    }
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, CompletableFuture<CustomerDto>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, String> legalIdsById = new HashMap<>();
+    // Bumped by every eviction; a load only caches its result if no eviction happened while it ran.
+    private long generation;
+
+    private final Counter hitCounter;
+    private final Counter coalescedCounter;
+    private final Counter loadCounter;
+
+    public LegalIdLookupCache(MeterRegistry meterRegistry,
+                              @Value("${customer.legal-id-lookup.enabled}") boolean enabled,
+                              @Value("${customer.legal-id-lookup.ttl-ms}") long ttlMs,
+                              @Value("${customer.legal-id-lookup.max-entries}") int maxEntries) {
+        this(meterRegistry, enabled, ttlMs, maxEntries, System::nanoTime);
+    }
+
+    LegalIdLookupCache(MeterRegistry meterRegistry, boolean enabled, long ttlMs, int maxEntries, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+        this.hitCounter = meterRegistry.counter("customer.legal.id.lookups", "result", "hit");
+        this.coalescedCounter = meterRegistry.counter("customer.legal.id.lookups", "result", "coalesced");
+        this.loadCounter = meterRegistry.counter("customer.legal.id.lookups", "result", "load");
+    }
+
+    public CustomerDto get(String legalId, Supplier<CustomerDto> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CustomerDto cached = cached(legalId);
+        if (cached != null) {
+            hitCounter.increment();
+            return cached;
+        }
+
+        CompletableFuture<CustomerDto> load = new CompletableFuture<>();
+        CompletableFuture<CustomerDto> existing = inFlight.putIfAbsent(legalId, load);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return await(existing);
+        }
+
+        loadCounter.increment();
+        long startGeneration = currentGeneration();
+        try {
+            CustomerDto customer = loader.get();
+            store(legalId, customer, startGeneration);
+            load.complete(customer);
+            return customer;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(legalId, load);
+        }
+    }
+
+    public void evict(Long id) {
+        if (!enabled) {
+            return;
+        }
+        evictNow(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(id);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long id) {
+        String legalId;
+        synchronized (this) {
+            generation++;
+            legalId = legalIdsById.remove(id);
+            if (legalId != null) {
+                entries.remove(legalId);
+            }
+        }
+        if (legalId != null) {
+            inFlight.remove(legalId);
+        }
+    }
+
+    private synchronized CustomerDto cached(String legalId) {
+        Entry entry = entries.get(legalId);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.expiresAt() >= 0) {
+            remove(legalId, entry);
+            return null;
+        }
+        return entry.customer();
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized void store(String legalId, CustomerDto customer, long startGeneration) {
+        if (ttlNanos <= 0 || customer.getId() == null || generation != startGeneration) {
+            return;
+        }
+        Entry previous = entries.put(legalId, new Entry(customer, nanoClock.getAsLong() + ttlNanos));
+        if (previous != null) {
+            legalIdsById.remove(previous.customer().getId(), legalId);
+        }
+        String previousLegalId = legalIdsById.put(customer.getId(), legalId);
+        if (previousLegalId != null && !previousLegalId.equals(legalId)) {
+            entries.remove(previousLegalId);
+        }
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            Map.Entry<String, Entry> evicted = eldest.next();
+            legalIdsById.remove(evicted.getValue().customer().getId(), evicted.getKey());
+            eldest.remove();
+        }
+    }
+
+    private void remove(String legalId, Entry entry) {
+        entries.remove(legalId);
+        legalIdsById.remove(entry.customer().getId(), legalId);
+    }
+
+    private static CustomerDto await(CompletableFuture<CustomerDto> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new SystemException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.bank.customer.cache;
+
+import com.bank.customer.exception.SystemException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the UTF-8 JSON encoding of single-customer responses, keyed by customer ID and valid for one version.
+ * Bounded by the total number of cached bytes, evicting the least recently used entries first.
+ */
+@Component
+public class SerializedResponseCache {
+
+    private record Entry(long version, byte[] body) {
+    }
+
+    private final ObjectMapper objectMapper;
+    @Getter
+    private final boolean enabled;
+    private final long maxBytes;
+
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter bytesSavedCounter;
+
+    public SerializedResponseCache(ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${customer.response-cache.enabled}") boolean enabled,
+                                   @Value("${customer.response-cache.max-bytes}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.hitCounter = meterRegistry.counter("customer.response.cache.hits");
+        this.missCounter = meterRegistry.counter("customer.response.cache.misses");
+        this.bytesSavedCounter = Counter.builder("customer.response.cache.bytes.saved")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("customer.response.cache.size", this, SerializedResponseCache::totalBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("customer.response.cache.hit.ratio", this, SerializedResponseCache::hitRatio)
+                .register(meterRegistry);
+    }
+
+    public byte[] get(Long id, Long version) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(id);
+        }
+        if (entry == null || entry.version() != normalize(version)) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        bytesSavedCounter.increment(entry.body().length);
+        return entry.body();
+    }
+
+    public byte[] put(Long id, Long version, Object dto) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new SystemException(e);
+        }
+        if (!enabled || body.length > maxBytes) {
+            return body;
+        }
+        synchronized (this) {
+            Entry previous = entries.put(id, new Entry(normalize(version), body));
+            totalBytes += body.length - (previous == null ? 0 : previous.body().length);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= eldest.next().body().length;
+                eldest.remove();
+            }
+        }
+        return body;
+    }
+
+    public void evict(Long id) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            Entry removed = entries.remove(id);
+            if (removed != null) {
+                totalBytes -= removed.body().length;
+            }
+        }
+    }
+
+    private synchronized double totalBytes() {
+        return totalBytes;
+    }
+
+    private double hitRatio() {
+        double hits = hitCounter.count();
+        double lookups = hits + missCounter.count();
+        return lookups == 0 ? 0 : hits / lookups;
+    }
+
+    private static long normalize(Long version) {
+        return Objects.requireNonNullElse(version, 0L);
+    }
+}
@@ -0,0 +1,18 @@
+package com.bank.customer.client;
+
+import com.bank.customer.config.FeignClientConfig;
+import com.bank.customer.model.dto.AccountDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@FeignClient(name = "account-service",
+        url = "${account.service.url}",
+        configuration = FeignClientConfig.class)
+public interface AccountServiceClient {
+
+    @GetMapping("/api/v1/account")
+    List<AccountDto> getAccountsByCustomerId(@RequestParam("customerId") Long customerId);
+}
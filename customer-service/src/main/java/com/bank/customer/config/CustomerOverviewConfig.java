@@ -0,0 +1,31 @@
+package com.bank.customer.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Threads of their own for the overview's calls, so a slow account service fills a small bounded queue and is then
+ * turned away instead of taking over the shared task executor.
+ */
+@Configuration
+public class CustomerOverviewConfig {
+
+    public static final String OVERVIEW_EXECUTOR = "customerOverviewExecutor";
+
+    @Bean(OVERVIEW_EXECUTOR)
+    ThreadPoolTaskExecutor customerOverviewExecutor(ObjectProvider<TaskDecorator> taskDecorator,
+                                                    @Value("${customer.overview.pool-size}") int poolSize,
+                                                    @Value("${customer.overview.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("overview-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        taskDecorator.ifUnique(executor::setTaskDecorator);
+        return executor;
+    }
+}
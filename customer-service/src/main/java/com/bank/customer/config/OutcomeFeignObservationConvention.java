@@ -0,0 +1,22 @@
+package com.bank.customer.config;
+
+import feign.Response;
+import feign.micrometer.DefaultFeignObservationConvention;
+import feign.micrometer.FeignContext;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+
+/**
+ * Adds Spring's {@code outcome} tag to Feign's {@code http.client.requests} timers, so remote calls can be split into
+ * success, client error and server error without parsing status codes; calls that got no response are {@code UNKNOWN}.
+ */
+class OutcomeFeignObservationConvention extends DefaultFeignObservationConvention {
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(FeignContext context) {
+        Response response = context.getResponse();
+        Outcome outcome = response != null ? Outcome.forStatus(response.status()) : Outcome.UNKNOWN;
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of("outcome", outcome.name()));
+    }
+}
@@ -3,6 +3,7 @@ package com.bank.customer.config;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.amqp.RabbitTemplateCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,6 +16,8 @@ public class RabbitMQConfig {
     public static final String CUSTOMER_UPDATED_ROUTING_KEY = "customer.event.updated";
     public static final String CUSTOMER_DELETED_ROUTING_KEY = "customer.event.deleted";
 
+    public static final String PUBLISHED_AT_HEADER = "x-published-at";
+
     @Bean
     public TopicExchange customerEventsTopicExchange() {
         return new TopicExchange(CUSTOMER_EVENTS_TOPIC);
@@ -24,4 +27,15 @@ public class RabbitMQConfig {
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
     }
+
+    /**
+     * Stamps every published message in epoch millis; the AMQP timestamp property only has second resolution.
+     */
+    @Bean
+    public RabbitTemplateCustomizer publishTimestampCustomizer() {
+        return rabbitTemplate -> rabbitTemplate.addBeforePublishPostProcessors(message -> {
+            message.getMessageProperties().setHeader(PUBLISHED_AT_HEADER, System.currentTimeMillis());
+            return message;
+        });
+    }
 }
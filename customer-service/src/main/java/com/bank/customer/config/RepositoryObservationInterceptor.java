@@ -0,0 +1,33 @@
+package com.bank.customer.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Wraps every repository method in an observation, which becomes a child span of the calling request and a timer
+ * tagged by repository and method.
+ */
+class RepositoryObservationInterceptor implements MethodInterceptor {
+
+    private final ObservationRegistry observationRegistry;
+    private final String observationName;
+    private final String repository;
+
+    RepositoryObservationInterceptor(ObservationRegistry observationRegistry, String observationName, Class<?> repositoryInterface) {
+        this.observationRegistry = observationRegistry;
+        this.observationName = observationName;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String method = invocation.getMethod().getName();
+        return Observation.createNotStarted(observationName, observationRegistry)
+                .contextualName(repository + "." + method)
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", method)
+                .observeChecked(invocation::proceed);
+    }
+}
@@ -24,8 +24,10 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize ->
                         authorize
                                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
+                                .requestMatchers(HttpMethod.POST, "/actuator/loggers/**").hasRole("ADMIN")
                                 .requestMatchers(HttpMethod.POST, "/api/v1/customer").hasRole("ADMIN")
                                 .requestMatchers(HttpMethod.PUT, "/api/v1/customer/**").hasRole("ADMIN")
+                                .requestMatchers(HttpMethod.PATCH, "/api/v1/customer/**").hasRole("ADMIN")
                                 .requestMatchers(HttpMethod.DELETE, "/api/v1/customer/**").hasRole("ADMIN")
                                 .requestMatchers(HttpMethod.GET, "/api/v1/customer", "/api/v1/customer/**").hasAnyRole("USER", "ADMIN")
                                 .anyRequest().authenticated()
@@ -0,0 +1,52 @@
+package com.bank.customer.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Tracing beyond what Boot instruments on its own: spans around repository calls and an optional file exporter.
+ * HTTP, Feign and RabbitMQ hops are traced through their observations, see {@code management.tracing.*}.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    static BeanPostProcessor repositoryObservationPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxyFactory, repository) ->
+                            proxyFactory.addAdvice(0, new RepositoryObservationInterceptor(
+                                    observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP), "customer.repository",
+                                    repository.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnExpression("!'${customer.tracing.file:}'.isEmpty()")
+    JsonLinesSpanExporter jsonLinesSpanExporter(@Value("${customer.tracing.file}") Path file) throws IOException {
+        return new JsonLinesSpanExporter(file);
+    }
+
+    /**
+     * Carries the trace context onto the task executor, so the overview fan-out calls stay in the request trace.
+     */
+    @Bean
+    ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+}
@@ -3,6 +3,8 @@ package com.bank.customer.event;
 import com.bank.customer.config.RabbitMQConfig;
 import com.bank.customer.exception.SystemException;
 import com.bank.customer.model.dto.CustomerDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -14,6 +16,7 @@ import org.springframework.stereotype.Component;
 public class CustomerEventPublisher {
 
     private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
 
     public void publishCustomerCreatedEvent(CustomerDto customerDto) {
         sendEvent(RabbitMQConfig.CUSTOMER_CREATED_ROUTING_KEY, customerDto, customerDto.getId());
@@ -28,10 +31,13 @@ public class CustomerEventPublisher {
     }
 
     private <T> void sendEvent(String routingKey, T message, Object messageId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             rabbitTemplate.convertAndSend(RabbitMQConfig.CUSTOMER_EVENTS_TOPIC, routingKey, message);
+            sample.stop(meterRegistry.timer("customer.events.publish", "routing.key", routingKey, "outcome", "success"));
             log.info("Published event to exchange '{}' with routing key '{}' for ID: {}.", RabbitMQConfig.CUSTOMER_EVENTS_TOPIC, routingKey, messageId);
         } catch (Exception e) {
+            sample.stop(meterRegistry.timer("customer.events.publish", "routing.key", routingKey, "outcome", "failure"));
             log.error("Failed to publish event to exchange '{}' with routing key '{}' for ID: {}.", RabbitMQConfig.CUSTOMER_EVENTS_TOPIC, routingKey, messageId, e);
             throw new SystemException(e);
         }
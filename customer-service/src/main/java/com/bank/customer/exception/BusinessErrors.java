@@ -7,7 +7,11 @@ import org.springframework.http.HttpStatus;
 public enum BusinessErrors {
 
     NO_SUCH_CUSTOMER(HttpStatus.NOT_FOUND, "No such customer!"),
-    CUSTOMER_LEGAL_ID_USED(HttpStatus.CONFLICT, "Customer Legal ID is already used!");
+    CUSTOMER_LEGAL_ID_USED(HttpStatus.CONFLICT, "Customer Legal ID is already used!"),
+    CONCURRENT_UPDATE(HttpStatus.CONFLICT, "Customer was modified concurrently, please reload and try again!"),
+    VERSION_MISMATCH(HttpStatus.PRECONDITION_FAILED, "Customer version does not match the If-Match header!"),
+    RATE_LIMITED(HttpStatus.TOO_MANY_REQUESTS, "Too many write requests from this client, please retry later!"),
+    OVERLOADED(HttpStatus.TOO_MANY_REQUESTS, "Service is handling too many writes, please retry later!");
 
     private final HttpStatus httpStatus;
     private final String message;
@@ -18,7 +22,7 @@ public enum BusinessErrors {
     }
 
     public BusinessException exception() {
-        return new BusinessException(httpStatus, message);
+        return new BusinessException(this);
     }
 
 }
\ No newline at end of file
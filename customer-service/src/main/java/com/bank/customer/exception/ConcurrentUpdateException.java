@@ -0,0 +1,19 @@
+package com.bank.customer.exception;
+
+import lombok.Getter;
+
+import java.io.Serial;
+
+@Getter
+public class ConcurrentUpdateException extends BusinessException {
+
+    @Serial
+    private static final long serialVersionUID = -2368504793451169308L;
+
+    private final Long currentVersion;
+
+    public ConcurrentUpdateException(Long currentVersion) {
+        super(BusinessErrors.CONCURRENT_UPDATE);
+        this.currentVersion = currentVersion;
+    }
+}
@@ -0,0 +1,17 @@
+package com.bank.customer.model.dto;
+
+import lombok.Data;
+
+@Data
+public class AccountDto {
+
+    private Long id;
+
+    private String accountNumber;
+
+    private AccountType type;
+
+    private Double balance;
+
+    private AccountStatus status;
+}
@@ -0,0 +1,7 @@
+package com.bank.customer.model.dto;
+
+public enum AccountStatus {
+    ACTIVE,
+    INACTIVE,
+    SUSPENDED
+}
@@ -0,0 +1,7 @@
+package com.bank.customer.model.dto;
+
+public enum AccountType {
+    SALARY,
+    SAVINGS,
+    INVESTMENT
+}
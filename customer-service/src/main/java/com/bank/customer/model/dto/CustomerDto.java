@@ -3,12 +3,16 @@ package com.bank.customer.model.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.io.Serial;
 import java.io.Serializable;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CustomerDto implements Serializable {
 
     @Serial
@@ -29,4 +33,6 @@ public class CustomerDto implements Serializable {
     private CustomerStatus status;
 
     private String address;
+
+    private Long version;
 }
@@ -0,0 +1,17 @@
+package com.bank.customer.model.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CustomerOverviewDto {
+
+    private CustomerDto customer;
+
+    private List<AccountDto> accounts;
+
+    private boolean customerDegraded;
+
+    private boolean accountsDegraded;
+}
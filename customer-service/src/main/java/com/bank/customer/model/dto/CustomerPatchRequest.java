@@ -0,0 +1,21 @@
+package com.bank.customer.model.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class CustomerPatchRequest {
+
+    @Size(min = 1, message = "Name cannot be empty")
+    private String name;
+
+    @Pattern(regexp = "^\\d{7}$", message = "Legal ID must be 7 digits.")
+    private String legalId;
+
+    private CustomerType type;
+
+    private CustomerStatus status;
+
+    private String address;
+}
@@ -0,0 +1,51 @@
+package com.bank.customer.model.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a customer in the name search order: name prefix matches ({@link #NAME_PREFIX}), then address prefix
+ * matches, both by lower-cased text, then fuzzy matches by trigram distance; ascending ID breaks ties. {@code key}
+ * holds the lower-cased text or the distance. Sent to clients as an opaque base64url {@code tier:id:key} string.
+ */
+public record CustomerSearchCursor(int tier, String key, long id) {
+
+    public static final int NAME_PREFIX = 0;
+    public static final int ADDRESS_PREFIX = 1;
+    public static final int FUZZY = 2;
+
+    public static CustomerSearchCursor parse(String value) {
+        String[] parts = decode(value).split(":", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid search cursor.");
+        }
+        int tier;
+        long id;
+        try {
+            tier = Integer.parseInt(parts[0]);
+            id = Long.parseLong(parts[1]);
+            if (tier == FUZZY) {
+                Float.parseFloat(parts[2]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid search cursor.", e);
+        }
+        if (tier < NAME_PREFIX || tier > FUZZY) {
+            throw new IllegalArgumentException("Invalid search cursor.");
+        }
+        return new CustomerSearchCursor(tier, parts[2], id);
+    }
+
+    public String format() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((tier + ":" + id + ":" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String value) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search cursor.", e);
+        }
+    }
+}
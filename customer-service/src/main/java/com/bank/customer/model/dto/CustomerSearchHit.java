@@ -0,0 +1,4 @@
+package com.bank.customer.model.dto;
+
+public record CustomerSearchHit(CustomerDto customer, CustomerSearchCursor cursor) {
+}
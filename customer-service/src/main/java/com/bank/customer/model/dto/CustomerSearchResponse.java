@@ -0,0 +1,21 @@
+package com.bank.customer.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSearchResponse {
+
+    private List<CustomerDto> customers;
+
+    private int size;
+
+    private boolean hasNext;
+
+    private String next;
+}
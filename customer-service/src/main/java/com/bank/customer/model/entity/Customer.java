@@ -9,6 +9,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.Data;
 
 @Data
@@ -35,4 +36,7 @@ public class Customer {
 
     @Column
     private String address;
+
+    @Version
+    private Long version;
 }
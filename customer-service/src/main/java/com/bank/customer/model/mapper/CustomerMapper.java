@@ -3,15 +3,18 @@ package com.bank.customer.model.mapper;
 import com.bank.customer.model.dto.CustomerDto;
 import com.bank.customer.model.entity.Customer;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
 @Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 public interface CustomerMapper {
 
+    @Mapping(target = "version", ignore = true)
     Customer toEntity(CustomerDto customerDto);
 
     CustomerDto toDto(Customer customer);
 
+    @Mapping(target = "version", ignore = true)
     void updateCustomerFromDto(CustomerDto dto, @MappingTarget Customer entity);
 }
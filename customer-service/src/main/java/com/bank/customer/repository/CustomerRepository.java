@@ -1,11 +1,29 @@
 package com.bank.customer.repository;
 
+import com.bank.customer.model.dto.CustomerDto;
 import com.bank.customer.model.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerRepositoryCustom {
+
+    String DTO_SELECT = "SELECT new com.bank.customer.model.dto.CustomerDto("
+            + "c.id, c.name, c.legalId, c.type, c.status, c.address, c.version) FROM Customer c";
 
     Optional<Customer> findByLegalId(String legalId);
+
+    @Query(DTO_SELECT + " WHERE c.id = :id")
+    Optional<CustomerDto> findDtoById(Long id);
+
+    @Query(DTO_SELECT + " WHERE c.legalId = :legalId")
+    Optional<CustomerDto> findDtoByLegalId(String legalId);
+
+    @Query(DTO_SELECT)
+    List<CustomerDto> findAllDtos();
+
+    @Query("SELECT COALESCE(c.version, 0) FROM Customer c WHERE c.id = :id")
+    Optional<Long> findVersionById(Long id);
 }
@@ -0,0 +1,16 @@
+package com.bank.customer.repository;
+
+import com.bank.customer.model.dto.CustomerDto;
+import com.bank.customer.model.dto.CustomerPatchRequest;
+import com.bank.customer.model.dto.CustomerSearchCursor;
+import com.bank.customer.model.dto.CustomerSearchHit;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CustomerRepositoryCustom {
+
+    Optional<CustomerDto> patchCustomer(Long id, CustomerPatchRequest patch, Long expectedVersion);
+
+    List<CustomerSearchHit> searchByName(String query, CustomerSearchCursor after, int limit);
+}
@@ -0,0 +1,176 @@
+package com.bank.customer.repository;
+
+import com.bank.customer.model.dto.CustomerDto;
+import com.bank.customer.model.dto.CustomerPatchRequest;
+import com.bank.customer.model.dto.CustomerSearchCursor;
+import com.bank.customer.model.dto.CustomerSearchHit;
+import com.bank.customer.model.dto.CustomerStatus;
+import com.bank.customer.model.dto.CustomerType;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Applies a partial update as a single {@code UPDATE ... RETURNING} statement, bypassing the persistence context,
+ * and runs the name search against the indexes created by the {@code V4} migration.
+ */
+public class CustomerRepositoryCustomImpl implements CustomerRepositoryCustom {
+
+    private static final String RETURNING_COLUMNS = " RETURNING id, name, legal_id, type, status, address, version";
+
+    // Each tier of the name search is read in its own index order and continues after the cursor inside that read, so
+    // a page costs the same however many customers match. Prefix matches come from range scans of the lower-cased
+    // text_pattern_ops indexes; ~<~ orders by bytes like they do, which a row comparison cannot express.
+    private static final String NAME_PREFIX_MATCHES = """
+            SELECT id, name, legal_id, type, status, address, version, lower(name) AS sort_key
+            FROM customer
+            WHERE lower(name) ~>=~ :prefix AND lower(name) ~<~ :prefixEnd AND lower(name) ~>=~ :from
+              AND (CAST(:afterId AS BIGINT) IS NULL OR lower(name) ~>~ :from OR id > CAST(:afterId AS BIGINT))
+            ORDER BY lower(name) USING ~<~, id
+            LIMIT :limit
+            """;
+
+    private static final String ADDRESS_PREFIX_MATCHES = """
+            SELECT id, name, legal_id, type, status, address, version, lower(address) AS sort_key
+            FROM customer
+            WHERE lower(address) ~>=~ :prefix AND lower(address) ~<~ :prefixEnd AND lower(address) ~>=~ :from
+              AND (CAST(:afterId AS BIGINT) IS NULL OR lower(address) ~>~ :from OR id > CAST(:afterId AS BIGINT))
+              AND NOT starts_with(lower(name), :prefix)
+            ORDER BY lower(address) USING ~<~, id
+            LIMIT :limit
+            """;
+
+    // Fuzzy matches are read nearest first from the GiST index of each column, then merged on the distance of the
+    // closer column. Every customer in the page is among the nearest :limit of the column it is closest by.
+    private static final String FUZZY_MATCHES = """
+            SELECT id, name, legal_id, type, status, address, version, distance
+            FROM (
+                (SELECT id, name, legal_id, type, status, address, version,
+                        LEAST(:query <<-> name, :query <<-> address) AS distance
+                 FROM customer
+                 WHERE :query <% name
+                   AND NOT starts_with(lower(name), :prefix) AND NOT COALESCE(starts_with(lower(address), :prefix), FALSE)
+                   AND (CAST(:afterId AS BIGINT) IS NULL OR (LEAST(:query <<-> name, :query <<-> address), id)
+                        > (CAST(:afterDistance AS REAL), CAST(:afterId AS BIGINT)))
+                 ORDER BY :query <<-> name, id
+                 LIMIT :limit)
+                UNION
+                (SELECT id, name, legal_id, type, status, address, version,
+                        LEAST(:query <<-> name, :query <<-> address) AS distance
+                 FROM customer
+                 WHERE :query <% address
+                   AND NOT starts_with(lower(name), :prefix) AND NOT COALESCE(starts_with(lower(address), :prefix), FALSE)
+                   AND (CAST(:afterId AS BIGINT) IS NULL OR (LEAST(:query <<-> name, :query <<-> address), id)
+                        > (CAST(:afterDistance AS REAL), CAST(:afterId AS BIGINT)))
+                 ORDER BY :query <<-> address, id
+                 LIMIT :limit)
+            ) AS nearest
+            ORDER BY distance, id
+            LIMIT :limit
+            """;
+
+    private static final RowMapper<CustomerDto> CUSTOMER_DTO_ROW_MAPPER = (rs, rowNum) -> {
+        CustomerDto dto = new CustomerDto();
+        dto.setId(rs.getLong("id"));
+        dto.setName(rs.getString("name"));
+        dto.setLegalId(rs.getString("legal_id"));
+        dto.setType(CustomerType.valueOf(rs.getString("type")));
+        dto.setStatus(CustomerStatus.valueOf(rs.getString("status")));
+        dto.setAddress(rs.getString("address"));
+        dto.setVersion(rs.getLong("version"));
+        return dto;
+    };
+
+    private final JdbcClient jdbcClient;
+
+    public CustomerRepositoryCustomImpl(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public Optional<CustomerDto> patchCustomer(Long id, CustomerPatchRequest patch, Long expectedVersion) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringJoiner assignments = new StringJoiner(", ");
+        if (patch.getName() != null) {
+            assignments.add("name = :name");
+            params.put("name", patch.getName());
+        }
+        if (patch.getLegalId() != null) {
+            assignments.add("legal_id = :legalId");
+            params.put("legalId", patch.getLegalId());
+        }
+        if (patch.getType() != null) {
+            assignments.add("type = :type");
+            params.put("type", patch.getType().name());
+        }
+        if (patch.getStatus() != null) {
+            assignments.add("status = :status");
+            params.put("status", patch.getStatus().name());
+        }
+        if (patch.getAddress() != null) {
+            assignments.add("address = :address");
+            params.put("address", patch.getAddress());
+        }
+        assignments.add("version = COALESCE(version, 0) + 1");
+        params.put("id", id);
+        String condition = " WHERE id = :id";
+        if (expectedVersion != null) {
+            condition += " AND COALESCE(version, 0) = :expectedVersion";
+            params.put("expectedVersion", expectedVersion);
+        }
+
+        return jdbcClient.sql("UPDATE customer SET " + assignments + condition + RETURNING_COLUMNS)
+                .params(params)
+                .query(CUSTOMER_DTO_ROW_MAPPER)
+                .optional();
+    }
+
+    @Override
+    public List<CustomerSearchHit> searchByName(String query, CustomerSearchCursor after, int limit) {
+        List<CustomerSearchHit> hits = new ArrayList<>();
+        for (int tier = after == null ? CustomerSearchCursor.NAME_PREFIX : after.tier();
+             tier <= CustomerSearchCursor.FUZZY && hits.size() < limit; tier++) {
+            hits.addAll(searchTier(tier, query, after != null && after.tier() == tier ? after : null, limit - hits.size()));
+        }
+        return hits;
+    }
+
+    private List<CustomerSearchHit> searchTier(int tier, String query, CustomerSearchCursor after, int limit) {
+        // Lower-cased here rather than by the database so that the range end can be derived from it.
+        String prefix = query.toLowerCase(Locale.ROOT);
+        if (tier == CustomerSearchCursor.FUZZY) {
+            return jdbcClient.sql(FUZZY_MATCHES)
+                    .param("query", query)
+                    .param("prefix", prefix)
+                    .param("afterDistance", after == null ? null : Float.parseFloat(after.key()))
+                    .param("afterId", after == null ? null : after.id())
+                    .param("limit", limit)
+                    .query((rs, rowNum) -> new CustomerSearchHit(CUSTOMER_DTO_ROW_MAPPER.mapRow(rs, rowNum),
+                            new CustomerSearchCursor(tier, Float.toString(rs.getFloat("distance")), rs.getLong("id"))))
+                    .list();
+        }
+        return jdbcClient.sql(tier == CustomerSearchCursor.NAME_PREFIX ? NAME_PREFIX_MATCHES : ADDRESS_PREFIX_MATCHES)
+                .param("prefix", prefix)
+                .param("prefixEnd", prefixEnd(prefix))
+                .param("from", after == null ? prefix : after.key())
+                .param("afterId", after == null ? null : after.id())
+                .param("limit", limit)
+                .query((rs, rowNum) -> new CustomerSearchHit(CUSTOMER_DTO_ROW_MAPPER.mapRow(rs, rowNum),
+                        new CustomerSearchCursor(tier, rs.getString("sort_key"), rs.getLong("id"))))
+                .list();
+    }
+
+    // The least string above every string starting with the prefix, in byte order: its last code point plus one.
+    private static String prefixEnd(String prefix) {
+        int last = prefix.codePointBefore(prefix.length());
+        int next = last + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : last + 1;
+        return prefix.substring(0, prefix.length() - Character.charCount(last)) + Character.toString(next);
+    }
+}
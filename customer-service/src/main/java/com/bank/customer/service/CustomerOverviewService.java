@@ -0,0 +1,8 @@
+package com.bank.customer.service;
+
+import com.bank.customer.model.dto.CustomerOverviewDto;
+
+public interface CustomerOverviewService {
+
+    CustomerOverviewDto getOverview(Long id);
+}
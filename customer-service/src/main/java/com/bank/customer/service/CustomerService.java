@@ -1,6 +1,8 @@
 package com.bank.customer.service;
 
 import com.bank.customer.model.dto.CustomerDto;
+import com.bank.customer.model.dto.CustomerPatchRequest;
+import com.bank.customer.model.dto.CustomerSearchResponse;
 
 import java.util.List;
 
@@ -10,11 +12,17 @@ public interface CustomerService {
 
     CustomerDto getCustomer(Long id);
 
+    Long getCustomerVersion(Long id);
+
     CustomerDto getCustomer(String legalId);
 
+    CustomerSearchResponse searchCustomersByName(String query, String after, int size);
+
     List<CustomerDto> getAllCustomers();
 
-    CustomerDto updateCustomer(Long id, CustomerDto customerDto);
+    CustomerDto updateCustomer(Long id, CustomerDto customerDto, Long expectedVersion);
+
+    CustomerDto patchCustomer(Long id, CustomerPatchRequest customerPatchRequest, Long expectedVersion);
 
     void deleteCustomer(Long id);
 }
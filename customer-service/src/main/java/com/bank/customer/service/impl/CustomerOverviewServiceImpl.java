@@ -0,0 +1,114 @@
+package com.bank.customer.service.impl;
+
+import com.bank.customer.client.AccountServiceClient;
+import com.bank.customer.config.CustomerOverviewConfig;
+import com.bank.customer.exception.BusinessException;
+import com.bank.customer.exception.SystemException;
+import com.bank.customer.model.dto.AccountDto;
+import com.bank.customer.model.dto.CustomerDto;
+import com.bank.customer.model.dto.CustomerOverviewDto;
+import com.bank.customer.service.CustomerOverviewService;
+import com.bank.customer.service.CustomerService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Service
+@Timed("customer.service")
+public class CustomerOverviewServiceImpl implements CustomerOverviewService {
+
+    private final CustomerService customerService;
+    private final AccountServiceClient accountServiceClient;
+    private final AsyncTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final long deadlineMs;
+
+    public CustomerOverviewServiceImpl(CustomerService customerService,
+                                       AccountServiceClient accountServiceClient,
+                                       @Qualifier(CustomerOverviewConfig.OVERVIEW_EXECUTOR) AsyncTaskExecutor executor,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${customer.overview.deadline-ms}") long deadlineMs) {
+        this.customerService = customerService;
+        this.accountServiceClient = accountServiceClient;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.deadlineMs = deadlineMs;
+    }
+
+    @Override
+    public CustomerOverviewDto getOverview(Long id) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        Future<CustomerDto> customer = submit(() -> customerService.getCustomer(id));
+        Future<List<AccountDto>> accounts = submit(() -> accountServiceClient.getAccountsByCustomerId(id));
+
+        CustomerOverviewDto overview = new CustomerOverviewDto();
+        try {
+            overview.setCustomer(await(customer, deadline));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BusinessException businessException) {
+                // An unknown customer has no accounts to wait for; a call not started yet is never made.
+                accounts.cancel(true);
+                throw businessException;
+            }
+            degrade(id, "customer", e.getCause());
+            overview.setCustomerDegraded(true);
+        } catch (TimeoutException e) {
+            degrade(id, "customer", e);
+            overview.setCustomerDegraded(true);
+        }
+        try {
+            overview.setAccounts(await(accounts, deadline));
+        } catch (ExecutionException e) {
+            degrade(id, "accounts", e.getCause());
+            overview.setAccounts(List.of());
+            overview.setAccountsDegraded(true);
+        } catch (TimeoutException e) {
+            degrade(id, "accounts", e);
+            overview.setAccounts(List.of());
+            overview.setAccountsDegraded(true);
+        }
+        return overview;
+    }
+
+    // A full queue fails the part right away rather than making it wait for a thread past its deadline.
+    private <T> Future<T> submit(Callable<T> call) {
+        try {
+            return executor.submit(call);
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Cancels a call still running at the deadline, which interrupts it and frees its thread for the next overview.
+    private static <T> T await(Future<T> future, long deadline) throws ExecutionException, TimeoutException {
+        try {
+            return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SystemException(e);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    private void degrade(Long id, String part, Throwable cause) {
+        log.warn("Part {} of the overview of customer {} not available: {}", part, id, cause.toString());
+        meterRegistry.counter("customer.overview.degraded", "part", part).increment();
+    }
+}
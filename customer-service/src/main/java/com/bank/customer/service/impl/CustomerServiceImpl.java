@@ -1,13 +1,20 @@
 package com.bank.customer.service.impl;
 
+import com.bank.customer.cache.LegalIdLookupCache;
+import com.bank.customer.cache.SerializedResponseCache;
 import com.bank.customer.event.CustomerEventPublisher;
 import com.bank.customer.exception.BusinessErrors;
 import com.bank.customer.model.dto.CustomerDto;
+import com.bank.customer.model.dto.CustomerPatchRequest;
+import com.bank.customer.model.dto.CustomerSearchCursor;
+import com.bank.customer.model.dto.CustomerSearchHit;
+import com.bank.customer.model.dto.CustomerSearchResponse;
 import com.bank.customer.model.dto.CustomerStatus;
 import com.bank.customer.model.entity.Customer;
 import com.bank.customer.model.mapper.CustomerMapper;
 import com.bank.customer.repository.CustomerRepository;
 import com.bank.customer.service.CustomerService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,20 +25,23 @@ import java.util.Objects;
 
 @Slf4j
 @Service
+@Timed("customer.service")
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
 
+    private static final int MIN_SEARCH_QUERY_LENGTH = 2;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
     private final CustomerEventPublisher eventPublisher;
+    private final SerializedResponseCache responseCache;
+    private final LegalIdLookupCache legalIdLookupCache;
 
     @Override
     @Transactional
     public CustomerDto createCustomer(CustomerDto customerDto) {
-        customerRepository.findByLegalId(customerDto.getLegalId()).ifPresent(c -> {
-            throw BusinessErrors.CUSTOMER_LEGAL_ID_USED.exception();
-        });
-
+        // A used legal ID is rejected by the unique constraint, GlobalExceptionHandler maps it to CUSTOMER_LEGAL_ID_USED.
         Customer customer = customerMapper.toEntity(customerDto);
         customer.setStatus(CustomerStatus.ACTIVE);
         customer = customerRepository.save(customer);
@@ -44,42 +54,60 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public CustomerDto getCustomer(Long id) {
-        return customerRepository.findById(id)
-                .map(customerMapper::toDto)
+        return customerRepository.findDtoById(id)
                 .orElseThrow(BusinessErrors.NO_SUCH_CUSTOMER::exception);
     }
 
     @Override
-    public CustomerDto getCustomer(String legalId) {
-        return customerRepository.findByLegalId(legalId)
-                .map(customerMapper::toDto)
+    public Long getCustomerVersion(Long id) {
+        return customerRepository.findVersionById(id)
                 .orElseThrow(BusinessErrors.NO_SUCH_CUSTOMER::exception);
     }
 
+    @Override
+    public CustomerDto getCustomer(String legalId) {
+        return legalIdLookupCache.get(legalId, () -> customerRepository.findDtoByLegalId(legalId)
+                .orElseThrow(BusinessErrors.NO_SUCH_CUSTOMER::exception));
+    }
+
+    @Override
+    public CustomerSearchResponse searchCustomersByName(String query, String after, int size) {
+        String trimmedQuery = query == null ? "" : query.trim();
+        if (trimmedQuery.length() < MIN_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at least " + MIN_SEARCH_QUERY_LENGTH + " characters.");
+        }
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_SEARCH_PAGE_SIZE + ".");
+        }
+        CustomerSearchCursor cursor = after == null || after.isBlank() ? null : CustomerSearchCursor.parse(after);
+
+        // One extra row tells whether a next page exists without counting every fuzzy match.
+        List<CustomerSearchHit> hits = customerRepository.searchByName(trimmedQuery, cursor, size + 1);
+        boolean hasNext = hits.size() > size;
+        List<CustomerSearchHit> page = hasNext ? hits.subList(0, size) : hits;
+        return new CustomerSearchResponse(page.stream().map(CustomerSearchHit::customer).toList(), size, hasNext,
+                hasNext ? page.getLast().cursor().format() : null);
+    }
+
     @Override
     public List<CustomerDto> getAllCustomers() {
         log.debug("Fetching all customers from the database.");
-        return customerRepository.findAll()
-                .stream()
-                .map(customerMapper::toDto)
-                .toList();
+        return customerRepository.findAllDtos();
     }
 
     @Override
     @Transactional
-    public CustomerDto updateCustomer(Long id, CustomerDto customerDto) {
+    public CustomerDto updateCustomer(Long id, CustomerDto customerDto, Long expectedVersion) {
         Customer customerToUpdate = customerRepository.findById(id)
                 .orElseThrow(BusinessErrors.NO_SUCH_CUSTOMER::exception);
-
-        // Check if the legal ID is being changed to one that already exists for another customer
-        if (!Objects.equals(customerToUpdate.getLegalId(), customerDto.getLegalId())) {
-            customerRepository.findByLegalId(customerDto.getLegalId()).ifPresent(c -> {
-                throw BusinessErrors.CUSTOMER_LEGAL_ID_USED.exception();
-            });
+        if (expectedVersion != null && !expectedVersion.equals(Objects.requireNonNullElse(customerToUpdate.getVersion(), 0L))) {
+            throw BusinessErrors.VERSION_MISMATCH.exception();
         }
 
         customerMapper.updateCustomerFromDto(customerDto, customerToUpdate);
-        Customer updatedCustomer = customerRepository.save(customerToUpdate);
+        Customer updatedCustomer = customerRepository.saveAndFlush(customerToUpdate);
+        responseCache.evict(id);
+        legalIdLookupCache.evict(id);
         log.info("Customer with ID {} updated successfully.", id);
 
         customerDto = customerMapper.toDto(updatedCustomer);
@@ -87,6 +115,25 @@ public class CustomerServiceImpl implements CustomerService {
         return customerDto;
     }
 
+    @Override
+    @Transactional
+    public CustomerDto patchCustomer(Long id, CustomerPatchRequest customerPatchRequest, Long expectedVersion) {
+        if (isEmpty(customerPatchRequest)) {
+            throw new IllegalArgumentException("At least one field must be provided to patch a customer.");
+        }
+
+        CustomerDto customerDto = customerRepository.patchCustomer(id, customerPatchRequest, expectedVersion)
+                .orElseThrow(() -> expectedVersion != null && customerRepository.existsById(id)
+                        ? BusinessErrors.VERSION_MISMATCH.exception()
+                        : BusinessErrors.NO_SUCH_CUSTOMER.exception());
+        responseCache.evict(id);
+        legalIdLookupCache.evict(id);
+        log.info("Customer with ID {} patched successfully.", id);
+
+        eventPublisher.publishCustomerUpdatedEvent(customerDto);
+        return customerDto;
+    }
+
     @Override
     @Transactional
     public void deleteCustomer(Long id) {
@@ -94,7 +141,14 @@ public class CustomerServiceImpl implements CustomerService {
             throw BusinessErrors.NO_SUCH_CUSTOMER.exception();
         }
         customerRepository.deleteById(id);
+        responseCache.evict(id);
+        legalIdLookupCache.evict(id);
         eventPublisher.publishCustomerDeletedEvent(id);
         log.info("Customer with ID {} deleted successfully.", id);
     }
+
+    private boolean isEmpty(CustomerPatchRequest patch) {
+        return patch.getName() == null && patch.getLegalId() == null && patch.getType() == null
+                && patch.getStatus() == null && patch.getAddress() == null;
+    }
 }
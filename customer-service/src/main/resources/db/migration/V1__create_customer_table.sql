@@ -0,0 +1,12 @@
+-- Matches the schema Hibernate generated before migrations, so databases created that way are baselined unchanged.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE TABLE IF NOT EXISTS customer (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name     VARCHAR(255) NOT NULL,
+    legal_id VARCHAR(255) NOT NULL CONSTRAINT uk_customer_legal_id UNIQUE,
+    type     VARCHAR(255) NOT NULL CHECK (type IN ('RETAIL', 'CORPORATE', 'INVESTMENT')),
+    status   VARCHAR(255) NOT NULL CHECK (status IN ('ACTIVE', 'INACTIVE', 'SUSPENDED', 'CLOSED')),
+    address  VARCHAR(255),
+    version  BIGINT
+);
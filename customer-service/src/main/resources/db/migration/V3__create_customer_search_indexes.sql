@@ -0,0 +1,7 @@
+-- Built concurrently, so writes continue while they build; Flyway runs this script outside a transaction.
+-- A failed build leaves an INVALID index behind that IF NOT EXISTS would skip: drop it before migrating again.
+
+-- Trigram indexes for searchByName: they answer both the ILIKE prefix match and the <% word similarity operator.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customer_name_trgm ON customer USING gin (name gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customer_address_trgm ON customer USING gin (address gin_trgm_ops);
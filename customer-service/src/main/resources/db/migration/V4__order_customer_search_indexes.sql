@@ -0,0 +1,17 @@
+-- Built concurrently, so writes continue while they build; Flyway runs this script outside a transaction.
+-- A failed build leaves an INVALID index behind that IF NOT EXISTS would skip: drop it before migrating again.
+
+-- Prefix matches for searchByName, read in (lower(name), id) order by range scans that can continue after a cursor.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customer_name_prefix ON customer (lower(name) text_pattern_ops, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customer_address_prefix ON customer (lower(address) text_pattern_ops, id);
+
+-- Fuzzy matches, read nearest first: GiST answers both the <% word similarity operator and the <<-> distance order,
+-- which the GIN indexes from V3 cannot, so those are dropped.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customer_name_trgm_gist ON customer USING gist (name gist_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customer_address_trgm_gist ON customer USING gist (address gist_trgm_ops);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_customer_name_trgm;
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_customer_address_trgm;
@@ -0,0 +1,72 @@
+package com.bank.customer.api.advice;
+
+import com.bank.customer.exception.BusinessErrors;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    // As the server reports it: the message in the server's language, the constraint in a field of its own.
+    private static final PSQLException LEGAL_ID_USED = new PSQLException(new ServerErrorMessage(
+            "SERROR\0C23505\0MFEHLER: doppelter Schlüsselwert verletzt Unique-Constraint\0nuk_customer_legal_id\0"));
+
+    private SimpleMeterRegistry meterRegistry;
+    private GlobalExceptionHandler exceptionHandler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        exceptionHandler = new GlobalExceptionHandler(meterRegistry);
+    }
+
+    @Test
+    void whenLegalIdConstraintIsViolatedThroughHibernate_shouldRespondWithLegalIdUsed() {
+        // Arrange
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", LEGAL_ID_USED, "insert", "uk_customer_legal_id"));
+
+        // Act
+        ErrorResponse response = exceptionHandler.handleDataIntegrityViolationException(ex);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(BusinessErrors.CUSTOMER_LEGAL_ID_USED.getHttpStatus());
+        assertThat(meterRegistry.counter("customer.business.rejections", "code", "CUSTOMER_LEGAL_ID_USED").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void whenLegalIdConstraintIsViolatedThroughJdbc_shouldRespondWithLegalIdUsed() {
+        // Arrange
+        DuplicateKeyException ex = new DuplicateKeyException("PreparedStatementCallback", LEGAL_ID_USED);
+
+        // Act
+        ErrorResponse response = exceptionHandler.handleDataIntegrityViolationException(ex);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(BusinessErrors.CUSTOMER_LEGAL_ID_USED.getHttpStatus());
+        assertThat(response.getBody().getDetail()).isEqualTo(BusinessErrors.CUSTOMER_LEGAL_ID_USED.getMessage());
+    }
+
+    @Test
+    void whenUnknownConstraintIsViolated_shouldRespondWithServerError() {
+        // Arrange
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("could not execute statement",
+                new PSQLException(new ServerErrorMessage("SERROR\0C23502\0Mnull value in column \"name\" violates not-null constraint\0")));
+
+        // Act
+        ErrorResponse response = exceptionHandler.handleDataIntegrityViolationException(ex);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
@@ -0,0 +1,46 @@
+package com.bank.customer.api.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(2, 3, now::get);
+
+    @Test
+    void whenBurstIsUsedUp_shouldReturnTimeUntilNextToken() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("batch")).isZero();
+        }
+
+        assertThat(rateLimiter.tryAcquire("batch")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    void whenTimePasses_shouldRefillAtConfiguredRate() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("batch");
+        }
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertThat(rateLimiter.tryAcquire("batch")).isZero();
+        assertThat(rateLimiter.tryAcquire("batch")).isPositive();
+    }
+
+    @Test
+    void whenOneClientIsThrottled_shouldStillAdmitOthers() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("batch");
+        }
+
+        assertThat(rateLimiter.tryAcquire("batch")).isPositive();
+        assertThat(rateLimiter.tryAcquire("teller")).isZero();
+        assertThat(rateLimiter.getTrackedClients()).isEqualTo(2);
+    }
+}
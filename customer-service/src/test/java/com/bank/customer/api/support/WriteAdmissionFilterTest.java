@@ -0,0 +1,107 @@
+package com.bank.customer.api.support;
+
+import com.bank.customer.exception.BusinessErrors;
+import com.bank.customer.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class WriteAdmissionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HandlerExceptionResolver exceptionResolver = mock(HandlerExceptionResolver.class);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void whenClientExceedsBurst_shouldRejectWithRetryAfter() throws Exception {
+        // Arrange
+        WriteAdmissionFilter filter = filter(1, 10);
+        authenticate("batch");
+        filter.doFilter(write(), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(write(), response, chain);
+
+        // Assert
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        verify(exceptionResolver).resolveException(any(), any(), isNull(),
+                argThat(e -> ((BusinessException) e).getError() == BusinessErrors.RATE_LIMITED));
+        assertThat(meterRegistry.counter("customer.write.admission.rejected", "reason", "rate").count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenConcurrencyLimitIsReached_shouldRejectAsOverloaded() throws Exception {
+        // Arrange
+        WriteAdmissionFilter filter = filter(100, 1);
+        authenticate("teller");
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        MockFilterChain blockingChain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                try {
+                    filter.doFilter(write(), nested, new MockFilterChain());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+
+        // Act
+        filter.doFilter(write(), new MockHttpServletResponse(), blockingChain);
+
+        // Assert
+        assertThat(nested.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        verify(exceptionResolver).resolveException(any(), any(), isNull(),
+                argThat(e -> ((BusinessException) e).getError() == BusinessErrors.OVERLOADED));
+        assertThat(meterRegistry.get("customer.write.admission.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void whenRequestIsRead_shouldNotBeLimited() throws Exception {
+        // Arrange
+        WriteAdmissionFilter filter = filter(1, 1);
+        authenticate("batch");
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/customer/1"), new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        // Assert
+        verify(exceptionResolver, never()).resolveException(any(), any(), any(), any());
+    }
+
+    private WriteAdmissionFilter filter(int burst, int limit) {
+        return new WriteAdmissionFilter(meterRegistry, exceptionResolver, true, 1, burst, limit, 1, limit, 2.0);
+    }
+
+    private static MockHttpServletRequest write() {
+        return new MockHttpServletRequest("POST", "/api/v1/customer");
+    }
+
+    private static void authenticate(String name) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(name, "secret"));
+    }
+}
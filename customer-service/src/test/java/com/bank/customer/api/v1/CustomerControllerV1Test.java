@@ -1,39 +1,58 @@
 package com.bank.customer.api.v1;
 
+import com.bank.customer.cache.SerializedResponseCache;
 import com.bank.customer.config.SecurityConfig;
 import com.bank.customer.exception.BusinessErrors;
 import com.bank.customer.model.dto.CustomerDto;
+import com.bank.customer.model.dto.CustomerOverviewDto;
+import com.bank.customer.model.dto.CustomerPatchRequest;
+import com.bank.customer.model.dto.CustomerSearchResponse;
 import com.bank.customer.model.dto.CustomerType;
+import com.bank.customer.model.entity.Customer;
+import com.bank.customer.service.CustomerOverviewService;
 import com.bank.customer.service.CustomerService;
+import com.bank.customer.service.support.OptimisticLockRetryExecutor;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CustomerControllerV1.class)
-@Import(SecurityConfig.class)
+@AutoConfigureObservability(tracing = false)
+@Import({SecurityConfig.class, OptimisticLockRetryExecutor.class})
 class CustomerControllerV1Test {
 
     @Autowired
@@ -42,9 +61,18 @@ class CustomerControllerV1Test {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockitoBean
     private CustomerService customerService;
 
+    @MockitoBean
+    private SerializedResponseCache responseCache;
+
+    @MockitoBean
+    private CustomerOverviewService customerOverviewService;
+
     @Test
     @WithMockUser(username = "admin", roles = "ADMIN")
     void whenCreateCustomer_withValidDataAndAdminRole_shouldReturnCreated() throws Exception {
@@ -146,6 +174,68 @@ class CustomerControllerV1Test {
                 .andExpect(jsonPath("$.name").value("Test Corp"));
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetCustomerById_shouldReturnVersionETag() throws Exception {
+        CustomerDto responseDto = new CustomerDto();
+        responseDto.setId(1L);
+        responseDto.setVersion(2L);
+
+        when(customerService.getCustomer(1L)).thenReturn(responseDto);
+
+        mockMvc.perform(get("/api/v1/customer/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetCustomerById_withMatchingIfNoneMatch_shouldReturnNotModifiedWithoutLoadingCustomer() throws Exception {
+        when(customerService.getCustomerVersion(1L)).thenReturn(2L);
+
+        mockMvc.perform(get("/api/v1/customer/{id}", 1L).header("If-None-Match", "W/\"1\", \"2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"2\""));
+
+        verify(customerService, never()).getCustomer(anyLong());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetCustomerById_withCachedResponse_shouldWriteCachedBytesWithoutLoadingCustomer() throws Exception {
+        when(responseCache.isEnabled()).thenReturn(true);
+        when(customerService.getCustomerVersion(1L)).thenReturn(2L);
+        when(responseCache.get(1L, 2L)).thenReturn("{\"id\":1,\"name\":\"Zoë\"}".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(get("/api/v1/customer/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.name").value("Zoë"));
+
+        verify(customerService, never()).getCustomer(anyLong());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetCustomerById_withCacheMiss_shouldLoadCustomerAndCacheIt() throws Exception {
+        CustomerDto responseDto = new CustomerDto();
+        responseDto.setId(1L);
+        responseDto.setVersion(2L);
+
+        when(responseCache.isEnabled()).thenReturn(true);
+        when(customerService.getCustomerVersion(1L)).thenReturn(2L);
+        when(customerService.getCustomer(1L)).thenReturn(responseDto);
+        when(responseCache.put(1L, 2L, responseDto)).thenReturn(objectMapper.writeValueAsBytes(responseDto));
+
+        mockMvc.perform(get("/api/v1/customer/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.id").value(1L));
+
+        verify(responseCache).put(1L, 2L, responseDto);
+    }
+
     @Test
     @WithMockUser(username = "user", roles = "USER")
     void whenGetCustomerById_withNonExistentId_shouldReturnNotFound() throws Exception {
@@ -155,6 +245,75 @@ class CustomerControllerV1Test {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenBusinessExceptionIsHandled_shouldCountRejectionByCode() throws Exception {
+        when(customerService.getCustomer(anyLong())).thenThrow(BusinessErrors.NO_SUCH_CUSTOMER.exception());
+        double before = meterRegistry.counter("customer.business.rejections", "code", "NO_SUCH_CUSTOMER").count();
+
+        mockMvc.perform(get("/api/v1/customer/{id}", 99L))
+                .andExpect(status().isNotFound());
+
+        assertThat(meterRegistry.counter("customer.business.rejections", "code", "NO_SUCH_CUSTOMER").count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetCustomerOverview_withSlowAccounts_shouldReturnPartialOverview() throws Exception {
+        CustomerDto customer = new CustomerDto();
+        customer.setId(1L);
+        customer.setName("Test Corp");
+
+        CustomerOverviewDto overview = new CustomerOverviewDto();
+        overview.setCustomer(customer);
+        overview.setAccounts(List.of());
+        overview.setAccountsDegraded(true);
+
+        when(customerOverviewService.getOverview(1L)).thenReturn(overview);
+
+        mockMvc.perform(get("/api/v1/customer/{id}/overview", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customer.name").value("Test Corp"))
+                .andExpect(jsonPath("$.accounts").isEmpty())
+                .andExpect(jsonPath("$.customerDegraded").value(false))
+                .andExpect(jsonPath("$.accountsDegraded").value(true));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenGetCustomerOverview_withNonExistentId_shouldReturnNotFound() throws Exception {
+        when(customerOverviewService.getOverview(anyLong())).thenThrow(BusinessErrors.NO_SUCH_CUSTOMER.exception());
+
+        mockMvc.perform(get("/api/v1/customer/{id}/overview", 99L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenSearchCustomersByName_shouldReturnPage() throws Exception {
+        CustomerDto customer = new CustomerDto();
+        customer.setId(1L);
+        customer.setName("John Smith");
+
+        when(customerService.searchCustomersByName("joh", "0:0.8:4", 20))
+                .thenReturn(new CustomerSearchResponse(List.of(customer), 20, true, "0:0.75:1"));
+
+        mockMvc.perform(get("/api/v1/customer/search/name").param("q", "joh").param("after", "0:0.8:4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers[0].name").value("John Smith"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.next").value("0:0.75:1"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenSearchCustomersByName_withInvalidQuery_shouldReturnBadRequest() throws Exception {
+        when(customerService.searchCustomersByName("j", null, 20)).thenThrow(new IllegalArgumentException("too short"));
+
+        mockMvc.perform(get("/api/v1/customer/search/name").param("q", "j"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(username = "user", roles = "USER")
     void whenGetAllCustomers_shouldReturnCustomerList() throws Exception {
@@ -196,7 +355,7 @@ class CustomerControllerV1Test {
         responseDto.setId(1L);
         responseDto.setName("Updated Name");
 
-        when(customerService.updateCustomer(anyLong(), any(CustomerDto.class))).thenReturn(responseDto);
+        when(customerService.updateCustomer(anyLong(), any(CustomerDto.class), any())).thenReturn(responseDto);
 
         mockMvc.perform(put("/api/v1/customer/{id}", 1L)
                         .with(csrf())
@@ -206,6 +365,47 @@ class CustomerControllerV1Test {
                 .andExpect(jsonPath("$.name").value("Updated Name"));
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void whenUpdateCustomer_withIfMatch_shouldPassExpectedVersion() throws Exception {
+        CustomerDto requestDto = new CustomerDto();
+        requestDto.setName("Updated Name");
+        requestDto.setLegalId("1234567");
+        requestDto.setType(CustomerType.RETAIL);
+
+        CustomerDto responseDto = new CustomerDto();
+        responseDto.setId(1L);
+        responseDto.setVersion(4L);
+
+        when(customerService.updateCustomer(eq(1L), any(CustomerDto.class), eq(3L))).thenReturn(responseDto);
+
+        mockMvc.perform(put("/api/v1/customer/{id}", 1L)
+                        .with(csrf())
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void whenUpdateCustomer_withStaleIfMatch_shouldReturnPreconditionFailed() throws Exception {
+        CustomerDto requestDto = new CustomerDto();
+        requestDto.setName("Updated Name");
+        requestDto.setLegalId("1234567");
+        requestDto.setType(CustomerType.RETAIL);
+
+        when(customerService.updateCustomer(eq(1L), any(CustomerDto.class), eq(3L))).thenThrow(BusinessErrors.VERSION_MISMATCH.exception());
+
+        mockMvc.perform(put("/api/v1/customer/{id}", 1L)
+                        .with(csrf())
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @WithMockUser(username = "user", roles = "USER")
     void whenUpdateCustomer_withUserRole_shouldReturnForbidden() throws Exception {
@@ -227,7 +427,7 @@ class CustomerControllerV1Test {
         requestDto.setLegalId("1234567");
         requestDto.setType(CustomerType.RETAIL);
 
-        when(customerService.updateCustomer(anyLong(), any(CustomerDto.class))).thenThrow(BusinessErrors.NO_SUCH_CUSTOMER.exception());
+        when(customerService.updateCustomer(anyLong(), any(CustomerDto.class), any())).thenThrow(BusinessErrors.NO_SUCH_CUSTOMER.exception());
 
         mockMvc.perform(put("/api/v1/customer/{id}", 99L)
                         .with(csrf())
@@ -236,6 +436,28 @@ class CustomerControllerV1Test {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void whenUpdateCustomer_andConflictPersists_shouldReturnConflictWithCurrentVersion() throws Exception {
+        CustomerDto requestDto = new CustomerDto();
+        requestDto.setName("Updated Name");
+        requestDto.setLegalId("1234567");
+        requestDto.setType(CustomerType.RETAIL);
+
+        when(customerService.updateCustomer(anyLong(), any(CustomerDto.class), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Customer.class, 1L));
+        when(customerService.getCustomerVersion(1L)).thenReturn(5L);
+
+        mockMvc.perform(put("/api/v1/customer/{id}", 1L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.currentVersion").value(5L));
+
+        verify(customerService, times(3)).updateCustomer(anyLong(), any(CustomerDto.class), any());
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = "ADMIN")
     void whenUpdateCustomer_withExistingLegalId_shouldReturnConflict() throws Exception {
@@ -244,7 +466,7 @@ class CustomerControllerV1Test {
         requestDto.setLegalId("1234568"); // Different legal ID
         requestDto.setType(CustomerType.RETAIL);
 
-        when(customerService.updateCustomer(anyLong(), any(CustomerDto.class))).thenThrow(BusinessErrors.CUSTOMER_LEGAL_ID_USED.exception());
+        when(customerService.updateCustomer(anyLong(), any(CustomerDto.class), any())).thenThrow(BusinessErrors.CUSTOMER_LEGAL_ID_USED.exception());
 
         mockMvc.perform(put("/api/v1/customer/{id}", 1L)
                         .with(csrf())
@@ -253,6 +475,52 @@ class CustomerControllerV1Test {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void whenPatchCustomer_withAdminRole_shouldReturnOk() throws Exception {
+        CustomerPatchRequest requestDto = new CustomerPatchRequest();
+        requestDto.setAddress("New Address");
+
+        CustomerDto responseDto = new CustomerDto();
+        responseDto.setId(1L);
+        responseDto.setAddress("New Address");
+
+        when(customerService.patchCustomer(anyLong(), any(CustomerPatchRequest.class), any())).thenReturn(responseDto);
+
+        mockMvc.perform(patch("/api/v1/customer/{id}", 1L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address").value("New Address"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void whenPatchCustomer_withInvalidLegalId_shouldReturnBadRequest() throws Exception {
+        CustomerPatchRequest requestDto = new CustomerPatchRequest();
+        requestDto.setLegalId("12");
+
+        mockMvc.perform(patch("/api/v1/customer/{id}", 1L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void whenPatchCustomer_withUserRole_shouldReturnForbidden() throws Exception {
+        CustomerPatchRequest requestDto = new CustomerPatchRequest();
+        requestDto.setAddress("New Address");
+
+        mockMvc.perform(patch("/api/v1/customer/{id}", 1L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = "ADMIN")
     void whenDeleteCustomer_withAdminRole_shouldReturnNoContent() throws Exception {
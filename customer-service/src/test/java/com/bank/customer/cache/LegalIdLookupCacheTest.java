@@ -0,0 +1,158 @@
+package com.bank.customer.cache;
+
+import com.bank.customer.exception.BusinessErrors;
+import com.bank.customer.exception.BusinessException;
+import com.bank.customer.model.dto.CustomerDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LegalIdLookupCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private LegalIdLookupCache lookupCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lookupCache = new LegalIdLookupCache(meterRegistry, true, 1000, 2, now::get);
+    }
+
+    @Test
+    void whenConcurrentLookupsForSameLegalId_shouldShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<CustomerDto> slowLoader = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return customer(1L, "1234567");
+        };
+
+        List<Future<CustomerDto>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> lookupCache.get("1234567", slowLoader)));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> lookupCache.get("1234567", slowLoader)));
+            }
+            while (meterRegistry.counter("customer.legal.id.lookups", "result", "coalesced").count() < 4) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+        }
+
+        for (Future<CustomerDto> result : results) {
+            assertThat(result.get().getId()).isEqualTo(1L);
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void whenLookedUpAgainWithinTtl_shouldServeCachedResult() {
+        lookupCache.get("1234567", loader(1L, "1234567"));
+
+        lookupCache.get("1234567", loader(1L, "1234567"));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        lookupCache.get("1234567", loader(1L, "1234567"));
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(meterRegistry.counter("customer.legal.id.lookups", "result", "hit").count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenCustomerIsEvicted_shouldLoadAgain() {
+        lookupCache.get("1234567", loader(1L, "1234567"));
+
+        lookupCache.evict(1L);
+        lookupCache.get("1234567", loader(1L, "1234567"));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void whenEvictedWhileLoading_shouldNotCacheLoadedResult() {
+        lookupCache.get("1234567", () -> {
+            lookupCache.evict(1L);
+            return loader(1L, "1234567").get();
+        });
+
+        lookupCache.get("1234567", loader(1L, "1234567"));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void whenCustomerIsMissing_shouldNotCacheTheMiss() {
+        Supplier<CustomerDto> missing = () -> {
+            loads.incrementAndGet();
+            throw BusinessErrors.NO_SUCH_CUSTOMER.exception();
+        };
+
+        assertThrows(BusinessException.class, () -> lookupCache.get("7654321", missing));
+        assertThrows(BusinessException.class, () -> lookupCache.get("7654321", missing));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void whenMaxEntriesExceeded_shouldEvictLeastRecentlyUsed() {
+        lookupCache.get("1111111", loader(1L, "1111111"));
+        lookupCache.get("2222222", loader(2L, "2222222"));
+        lookupCache.get("1111111", loader(1L, "1111111"));
+
+        lookupCache.get("3333333", loader(3L, "3333333"));
+        lookupCache.get("1111111", loader(1L, "1111111"));
+        lookupCache.get("2222222", loader(2L, "2222222"));
+
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void whenDisabled_shouldAlwaysLoad() {
+        lookupCache = new LegalIdLookupCache(meterRegistry, false, 1000, 2, now::get);
+
+        lookupCache.get("1234567", loader(1L, "1234567"));
+        lookupCache.get("1234567", loader(1L, "1234567"));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private Supplier<CustomerDto> loader(Long id, String legalId) {
+        return () -> {
+            loads.incrementAndGet();
+            return customer(id, legalId);
+        };
+    }
+
+    private static CustomerDto customer(Long id, String legalId) {
+        CustomerDto customer = new CustomerDto();
+        customer.setId(id);
+        customer.setLegalId(legalId);
+        return customer;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
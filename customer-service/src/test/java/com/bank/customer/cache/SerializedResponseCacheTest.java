@@ -0,0 +1,82 @@
+package com.bank.customer.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SerializedResponseCacheTest {
+
+    private static final Map<String, String> TEN_BYTE_DTO = Map.of("v", "aa");
+
+    private SimpleMeterRegistry meterRegistry;
+    private SerializedResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        responseCache = new SerializedResponseCache(new ObjectMapper(), meterRegistry, true, 25);
+    }
+
+    @Test
+    void whenPut_shouldReturnUtf8JsonAndServeItForSameVersion() {
+        byte[] body = responseCache.put(1L, 3L, TEN_BYTE_DTO);
+
+        assertThat(new String(body, StandardCharsets.UTF_8)).isEqualTo("{\"v\":\"aa\"}");
+        assertThat(responseCache.get(1L, 3L)).isSameAs(body);
+        assertThat(meterRegistry.counter("customer.response.cache.hits").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("customer.response.cache.bytes.saved").count()).isEqualTo(10);
+    }
+
+    @Test
+    void whenVersionChanged_shouldMiss() {
+        responseCache.put(1L, 3L, TEN_BYTE_DTO);
+
+        assertThat(responseCache.get(1L, 4L)).isNull();
+        assertThat(meterRegistry.counter("customer.response.cache.misses").count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenNullVersion_shouldBeTreatedAsZero() {
+        responseCache.put(1L, null, TEN_BYTE_DTO);
+
+        assertThat(responseCache.get(1L, 0L)).isNotNull();
+    }
+
+    @Test
+    void whenTotalBytesExceeded_shouldEvictLeastRecentlyUsed() {
+        responseCache.put(1L, 0L, TEN_BYTE_DTO);
+        responseCache.put(2L, 0L, TEN_BYTE_DTO);
+        responseCache.get(1L, 0L);
+
+        responseCache.put(3L, 0L, TEN_BYTE_DTO);
+
+        assertThat(responseCache.get(1L, 0L)).isNotNull();
+        assertThat(responseCache.get(2L, 0L)).isNull();
+        assertThat(responseCache.get(3L, 0L)).isNotNull();
+        assertThat(meterRegistry.get("customer.response.cache.size").gauge().value()).isEqualTo(20);
+    }
+
+    @Test
+    void whenEvicted_shouldMissAndReleaseBytes() {
+        responseCache.put(1L, 0L, TEN_BYTE_DTO);
+
+        responseCache.evict(1L);
+
+        assertThat(responseCache.get(1L, 0L)).isNull();
+        assertThat(meterRegistry.get("customer.response.cache.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void whenDisabled_shouldSerializeWithoutCaching() {
+        SerializedResponseCache disabledCache = new SerializedResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), false, 25);
+
+        assertThat(disabledCache.put(1L, 0L, TEN_BYTE_DTO)).isNotEmpty();
+        assertThat(disabledCache.get(1L, 0L)).isNull();
+    }
+}
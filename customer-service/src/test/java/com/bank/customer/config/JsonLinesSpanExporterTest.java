@@ -0,0 +1,48 @@
+package com.bank.customer.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonLinesSpanExporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void whenSpansEnd_shouldAppendOneJsonLinePerSpan(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("traces/spans.jsonl");
+        try (SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new JsonLinesSpanExporter(file)))
+                .build()) {
+            Tracer tracer = tracerProvider.get("test");
+            Span parent = tracer.spanBuilder("parent").startSpan();
+            try (Scope scope = parent.makeCurrent()) {
+                tracer.spanBuilder("child").setAttribute("repository", "SampleRepository").startSpan().end();
+            } finally {
+                parent.end();
+            }
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        JsonNode child = objectMapper.readTree(lines.get(0));
+        JsonNode parent = objectMapper.readTree(lines.get(1));
+        assertThat(child.get("name").asText()).isEqualTo("child");
+        assertThat(child.get("traceId").asText()).isEqualTo(parent.get("traceId").asText());
+        assertThat(child.get("parentSpanId").asText()).isEqualTo(parent.get("spanId").asText());
+        assertThat(child.get("attributes").get("repository").asText()).isEqualTo("SampleRepository");
+        assertThat(parent.get("parentSpanId").isNull()).isTrue();
+    }
+}
@@ -0,0 +1,59 @@
+package com.bank.customer.config;
+
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import feign.micrometer.FeignContext;
+import io.micrometer.common.KeyValue;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutcomeFeignObservationConventionTest {
+
+    private final OutcomeFeignObservationConvention convention = new OutcomeFeignObservationConvention();
+
+    @Test
+    void whenResponseIsServerError_shouldTagServerErrorOutcome() {
+        FeignContext context = context();
+        context.setResponse(response(context, 503));
+
+        assertThat(convention.getLowCardinalityKeyValues(context)).contains(KeyValue.of("outcome", "SERVER_ERROR"));
+    }
+
+    @Test
+    void whenResponseIsOk_shouldTagSuccessOutcome() {
+        FeignContext context = context();
+        context.setResponse(response(context, 200));
+
+        assertThat(convention.getLowCardinalityKeyValues(context)).contains(KeyValue.of("outcome", "SUCCESS"));
+    }
+
+    @Test
+    void whenThereIsNoResponse_shouldTagUnknownOutcome() {
+        assertThat(convention.getLowCardinalityKeyValues(context())).contains(KeyValue.of("outcome", "UNKNOWN"));
+    }
+
+    private static FeignContext context() {
+        MethodMetadata metadata = mock(MethodMetadata.class);
+        when(metadata.template()).thenReturn(new RequestTemplate().uri("/api/v1/resource/{id}"));
+        RequestTemplate template = new RequestTemplate()
+                .method(Request.HttpMethod.GET)
+                .uri("/api/v1/resource/1")
+                .methodMetadata(metadata)
+                .feignTarget(new Target.HardCodedTarget<>(Object.class, "resource", "http://localhost"));
+        return new FeignContext(Request.create(Request.HttpMethod.GET, "http://localhost/api/v1/resource/1",
+                Map.of(), null, StandardCharsets.UTF_8, template));
+    }
+
+    private static Response response(FeignContext context, int status) {
+        return Response.builder().status(status).request(context.getCarrier()).headers(Map.of()).build();
+    }
+}
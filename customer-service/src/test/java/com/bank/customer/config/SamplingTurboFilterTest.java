@@ -0,0 +1,63 @@
+package com.bank.customer.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    @Test
+    void whenRateIsZero_shouldDropInfoButKeepWarn() {
+        SamplingTurboFilter filter = new SamplingTurboFilter(Map.of("customer.access", 0.0));
+        Logger logger = loggerContext.getLogger("customer.access");
+
+        assertThat(filter.decide(null, logger, Level.INFO, "GET /", null, null)).isEqualTo(FilterReply.DENY);
+        assertThat(filter.decide(null, logger, Level.WARN, "GET /", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(null, logger, Level.INFO, null, null, null)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void whenLoggerHasNoRate_shouldInheritFromClosestParent() {
+        SamplingTurboFilter filter = new SamplingTurboFilter(Map.of("com.bank", 0.0, "com.bank.customer.api", 1.0));
+
+        assertThat(filter.decide(null, loggerContext.getLogger("com.bank.customer.service.Impl"), Level.INFO, "x", null, null))
+                .isEqualTo(FilterReply.DENY);
+        assertThat(filter.decide(null, loggerContext.getLogger("com.bank.customer.api.v1.Controller"), Level.INFO, "x", null, null))
+                .isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(null, loggerContext.getLogger("org.hibernate.SQL"), Level.DEBUG, "x", null, null))
+                .isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void whenRateIsPartial_shouldKeepRoughlyThatShare() {
+        SamplingTurboFilter filter = new SamplingTurboFilter(Map.of("customer.access", 0.25));
+        Logger logger = loggerContext.getLogger("customer.access");
+
+        long kept = IntStream.range(0, 10_000)
+                .filter(i -> filter.decide(null, logger, Level.INFO, "x", null, null) == FilterReply.NEUTRAL)
+                .count();
+
+        assertThat(kept).isBetween(2_000L, 3_000L);
+    }
+
+    @Test
+    void whenStopped_shouldDetachFromContext() {
+        SamplingTurboFilter filter = new SamplingTurboFilter(Map.of());
+        filter.setContext(loggerContext);
+        filter.start();
+        loggerContext.addTurboFilter(filter);
+
+        filter.stop();
+
+        assertThat(loggerContext.getTurboFilterList()).doesNotContain(filter);
+    }
+}
@@ -3,14 +3,16 @@ package com.bank.customer.event;
 import com.bank.customer.config.RabbitMQConfig;
 import com.bank.customer.exception.SystemException;
 import com.bank.customer.model.dto.CustomerDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -26,9 +28,15 @@ class CustomerEventPublisherTest {
     @Mock
     private RabbitTemplate rabbitTemplate;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private CustomerEventPublisher customerEventPublisher;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        customerEventPublisher = new CustomerEventPublisher(rabbitTemplate, meterRegistry);
+    }
+
     @Test
     void whenPublishCustomerCreatedEvent_shouldSendToCorrectRoutingKey() {
         // Arrange
@@ -45,6 +53,8 @@ class CustomerEventPublisherTest {
                 eq(RabbitMQConfig.CUSTOMER_CREATED_ROUTING_KEY),
                 eq(customerDto)
         );
+        assertThat(meterRegistry.timer("customer.events.publish", "routing.key", RabbitMQConfig.CUSTOMER_CREATED_ROUTING_KEY, "outcome", "success").count())
+                .isEqualTo(1);
     }
 
     @Test
@@ -91,5 +101,7 @@ class CustomerEventPublisherTest {
 
         // Act & Assert
         assertThrows(SystemException.class, () -> customerEventPublisher.publishCustomerCreatedEvent(customerDto));
+        assertThat(meterRegistry.timer("customer.events.publish", "routing.key", RabbitMQConfig.CUSTOMER_CREATED_ROUTING_KEY, "outcome", "failure").count())
+                .isEqualTo(1);
     }
 }
\ No newline at end of file
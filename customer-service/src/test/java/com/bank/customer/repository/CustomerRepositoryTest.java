@@ -1,6 +1,9 @@
 package com.bank.customer.repository;
 
 import com.bank.customer.config.TestContainersConfiguration;
+import com.bank.customer.model.dto.CustomerDto;
+import com.bank.customer.model.dto.CustomerPatchRequest;
+import com.bank.customer.model.dto.CustomerSearchHit;
 import com.bank.customer.model.dto.CustomerStatus;
 import com.bank.customer.model.dto.CustomerType;
 import com.bank.customer.model.entity.Customer;
@@ -9,12 +12,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.simple.JdbcClient;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
 @Import(TestContainersConfiguration.class)
 class CustomerRepositoryTest {
 
@@ -24,6 +30,9 @@ class CustomerRepositoryTest {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private JdbcClient jdbcClient;
+
     @Test
     void whenFindByLegalId_withExistingId_shouldReturnCustomer() {
         // Arrange
@@ -45,6 +54,54 @@ class CustomerRepositoryTest {
         assertThat(found.get().getLegalId()).isEqualTo(newCustomer.getLegalId());
     }
 
+    @Test
+    void whenFindDtoById_withExistingId_shouldSelectStraightIntoDto() {
+        // Arrange
+        Customer customer = new Customer();
+        customer.setName("Projected Customer");
+        customer.setLegalId("2345678");
+        customer.setType(CustomerType.CORPORATE);
+        customer.setAddress("1 Index Road");
+        customer.setStatus(CustomerStatus.ACTIVE);
+        entityManager.persistAndFlush(customer);
+        entityManager.clear();
+
+        // Act
+        Optional<CustomerDto> found = customerRepository.findDtoById(customer.getId());
+        Optional<CustomerDto> foundByLegalId = customerRepository.findDtoByLegalId("2345678");
+
+        // Assert
+        assertThat(found).contains(new CustomerDto(customer.getId(), "Projected Customer", "2345678",
+                CustomerType.CORPORATE, CustomerStatus.ACTIVE, "1 Index Road", customer.getVersion()));
+        assertThat(foundByLegalId).isEqualTo(found);
+        assertThat(entityManager.getEntityManager().contains(customer)).isFalse();
+    }
+
+    @Test
+    void whenPatchCustomer_withExistingId_shouldUpdateOnlyProvidedFields() {
+        // Arrange
+        Customer customer = new Customer();
+        customer.setName("Patch Customer");
+        customer.setLegalId("7654321");
+        customer.setType(CustomerType.RETAIL);
+        customer.setAddress("Old Street");
+        customer.setStatus(CustomerStatus.ACTIVE);
+        entityManager.persistAndFlush(customer);
+        entityManager.clear();
+
+        CustomerPatchRequest patch = new CustomerPatchRequest();
+        patch.setAddress("New Street");
+
+        // Act
+        Optional<CustomerDto> patched = customerRepository.patchCustomer(customer.getId(), patch, null);
+
+        // Assert
+        assertThat(patched).isPresent();
+        assertThat(patched.get().getAddress()).isEqualTo("New Street");
+        assertThat(patched.get().getName()).isEqualTo("Patch Customer");
+        assertThat(patched.get().getVersion()).isEqualTo(customer.getVersion() + 1);
+    }
+
     @Test
     void whenFindByLegalId_withNonExistingId_shouldReturnEmpty() {
         // Act
@@ -53,4 +110,107 @@ class CustomerRepositoryTest {
         // Assert
         assertThat(found).isNotPresent();
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenSearchByName_shouldRankPrefixMatchesFirstAndTolerateTypos() {
+        // Arrange
+        Customer prefixMatch = persistCustomer("Jonathan Smith", "2000001", "1 Main Street");
+        Customer fuzzyMatch = persistCustomer("Mary Jonathon", "2000002", "2 Side Road");
+        Customer addressMatch = persistCustomer("Peter Parker", "2000003", "Jonathan Lane 3");
+        persistCustomer("Paul Jones", "2000004", "4 Queens Road");
+
+        // Act
+        List<CustomerSearchHit> found = customerRepository.searchByName("Jonath", null, 10);
+        List<CustomerSearchHit> typo = customerRepository.searchByName("Jonathon Smith", null, 10);
+
+        // Assert
+        assertThat(found).extracting(hit -> hit.customer().getId())
+                .containsExactlyInAnyOrder(prefixMatch.getId(), addressMatch.getId(), fuzzyMatch.getId());
+        assertThat(found).extracting(hit -> hit.customer().getId()).last().isEqualTo(fuzzyMatch.getId());
+        assertThat(typo).extracting(hit -> hit.customer().getId()).first().isEqualTo(prefixMatch.getId());
+    }
+
+    @Test
+    void whenSearchByName_afterCursor_shouldContinueWhereThePreviousPageEnded() {
+        // Arrange
+        for (int i = 1; i <= 5; i++) {
+            persistCustomer("Jonathan Smith " + i, "300000" + i, i + " Main Street");
+        }
+        persistCustomer("Mary Jonathon", "3000006", "6 Side Road");
+
+        // Act
+        List<CustomerSearchHit> all = customerRepository.searchByName("Jonath", null, 10);
+        List<CustomerSearchHit> firstPage = customerRepository.searchByName("Jonath", null, 4);
+        List<CustomerSearchHit> secondPage = customerRepository.searchByName("Jonath", firstPage.getLast().cursor(), 4);
+
+        // Assert
+        assertThat(all).hasSize(6);
+        assertThat(firstPage).containsExactlyElementsOf(all.subList(0, 4));
+        assertThat(secondPage).containsExactlyElementsOf(all.subList(4, 6));
+    }
+
+    @Test
+    void whenSearchByName_withMoreMatchesThanOnePageReads_shouldStillRankTheBestHitFirstAndPageThroughAll() {
+        // Arrange
+        for (int i = 1; i <= 1200; i++) {
+            persistCustomer("Mary Jonathon " + i, String.valueOf(4000000 + i), i + " Side Road");
+        }
+        Customer best = persistCustomer("Jonathan Smith", "5000000", "1 Main Street");
+
+        // Act
+        List<CustomerSearchHit> firstPage = customerRepository.searchByName("Jonath", null, 20);
+        List<Long> ids = new ArrayList<>();
+        List<CustomerSearchHit> page = firstPage;
+        while (!page.isEmpty()) {
+            page.forEach(hit -> ids.add(hit.customer().getId()));
+            page = customerRepository.searchByName("Jonath", page.getLast().cursor(), 100);
+        }
+
+        // Assert
+        assertThat(firstPage).extracting(hit -> hit.customer().getId()).first().isEqualTo(best.getId());
+        assertThat(ids).hasSize(1201).doesNotHaveDuplicates();
+    }
+
+    private Customer persistCustomer(String name, String legalId, String address) {
+        Customer customer = new Customer();
+        customer.setName(name);
+        customer.setLegalId(legalId);
+        customer.setType(CustomerType.RETAIL);
+        customer.setAddress(address);
+        customer.setStatus(CustomerStatus.ACTIVE);
+        return entityManager.persistAndFlush(customer);
+    }
+
+    @Test
+    void whenQueryingByLegalId_shouldUseUniqueIndex() {
+        assertThat(explain("SELECT id, name, legal_id, type, status, address, version FROM customer WHERE legal_id = '1234567'"))
+                .contains("uk_customer_legal_id");
+    }
+
+    @Test
+    void whenQueryingById_shouldUsePrimaryKey() {
+        assertThat(explain("SELECT id, name, legal_id, type, status, address, version FROM customer WHERE id = 1"))
+                .contains("customer_pkey");
+    }
+
+    @Test
+    void whenSearchingByName_shouldReadEachTierInIndexOrder() {
+        String namePrefix = explain("SELECT id FROM customer WHERE lower(name) ~>=~ 'jo' AND lower(name) ~<~ 'jp' "
+                + "ORDER BY lower(name) USING ~<~, id LIMIT 20");
+        String addressPrefix = explain("SELECT id FROM customer WHERE lower(address) ~>=~ 'jo' AND lower(address) ~<~ 'jp' "
+                + "ORDER BY lower(address) USING ~<~, id LIMIT 20");
+        String nameFuzzy = explain("SELECT id FROM customer WHERE 'jo' <% name ORDER BY 'jo' <<-> name LIMIT 20");
+        String addressFuzzy = explain("SELECT id FROM customer WHERE 'jo' <% address ORDER BY 'jo' <<-> address LIMIT 20");
+
+        assertThat(namePrefix).contains("idx_customer_name_prefix").doesNotContain("Sort");
+        assertThat(addressPrefix).contains("idx_customer_address_prefix").doesNotContain("Sort");
+        assertThat(nameFuzzy).contains("idx_customer_name_trgm_gist").contains("Order By").doesNotContain("Sort");
+        assertThat(addressFuzzy).contains("idx_customer_address_trgm_gist").contains("Order By").doesNotContain("Sort");
+    }
+
+    // Sequential scans are disabled because the planner rightly prefers them on the near-empty test table.
+    private String explain(String sql) {
+        jdbcClient.sql("SET LOCAL enable_seqscan = off").update();
+        return String.join("\n", jdbcClient.sql("EXPLAIN " + sql).query(String.class).list());
+    }
+}
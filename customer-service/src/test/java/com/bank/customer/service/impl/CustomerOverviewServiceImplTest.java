@@ -0,0 +1,188 @@
+package com.bank.customer.service.impl;
+
+import com.bank.customer.client.AccountServiceClient;
+import com.bank.customer.exception.BusinessErrors;
+import com.bank.customer.exception.BusinessException;
+import com.bank.customer.model.dto.AccountDto;
+import com.bank.customer.model.dto.CustomerDto;
+import com.bank.customer.model.dto.CustomerOverviewDto;
+import com.bank.customer.service.CustomerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerOverviewServiceImplTest {
+
+    @Mock
+    private CustomerService customerService;
+
+    @Mock
+    private AccountServiceClient accountServiceClient;
+
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerOverviewServiceImpl overviewService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        overviewService = overviewService(4, 4);
+    }
+
+    private CustomerOverviewServiceImpl overviewService(int poolSize, int queueCapacity) {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return new CustomerOverviewServiceImpl(customerService, accountServiceClient, executor, meterRegistry, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void whenBothPartsRespond_shouldReturnFullOverview() {
+        // Arrange
+        CustomerDto customer = new CustomerDto();
+        customer.setId(1L);
+        AccountDto account = new AccountDto();
+        account.setId(10L);
+        when(customerService.getCustomer(1L)).thenReturn(customer);
+        when(accountServiceClient.getAccountsByCustomerId(1L)).thenReturn(List.of(account));
+
+        // Act
+        CustomerOverviewDto overview = overviewService.getOverview(1L);
+
+        // Assert
+        assertThat(overview.getCustomer()).isEqualTo(customer);
+        assertThat(overview.getAccounts()).containsExactly(account);
+        assertThat(overview.isCustomerDegraded()).isFalse();
+        assertThat(overview.isAccountsDegraded()).isFalse();
+    }
+
+    @Test
+    void whenAccountsExceedDeadline_shouldReturnCustomerWithDegradedAccounts() throws InterruptedException {
+        // Arrange
+        CustomerDto customer = new CustomerDto();
+        customer.setId(1L);
+        when(customerService.getCustomer(1L)).thenReturn(customer);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(accountServiceClient.getAccountsByCustomerId(1L)).thenAnswer(invocation -> sleepUntilInterrupted(interrupted));
+
+        // Act
+        CustomerOverviewDto overview = overviewService.getOverview(1L);
+
+        // Assert
+        assertThat(overview.getCustomer()).isEqualTo(customer);
+        assertThat(overview.getAccounts()).isEmpty();
+        assertThat(overview.isAccountsDegraded()).isTrue();
+        assertThat(meterRegistry.counter("customer.overview.degraded", "part", "accounts").count()).isEqualTo(1);
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).as("late call cancelled").isTrue();
+    }
+
+    @Test
+    void whenNoThreadIsFree_shouldDegradeWithoutWaitingForOne() {
+        // Arrange
+        overviewService = overviewService(1, 0);
+        CustomerDto customer = new CustomerDto();
+        when(customerService.getCustomer(1L)).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return customer;
+        });
+
+        // Act
+        CustomerOverviewDto overview = overviewService.getOverview(1L);
+
+        // Assert
+        assertThat(overview.getCustomer()).isEqualTo(customer);
+        assertThat(overview.isAccountsDegraded()).isTrue();
+        verify(accountServiceClient, never()).getAccountsByCustomerId(1L);
+    }
+
+    @Test
+    void whenAccountServiceFails_shouldReturnCustomerWithDegradedAccounts() {
+        // Arrange
+        when(customerService.getCustomer(1L)).thenReturn(new CustomerDto());
+        when(accountServiceClient.getAccountsByCustomerId(1L)).thenThrow(new IllegalStateException("connection refused"));
+
+        // Act
+        CustomerOverviewDto overview = overviewService.getOverview(1L);
+
+        // Assert
+        assertThat(overview.isCustomerDegraded()).isFalse();
+        assertThat(overview.isAccountsDegraded()).isTrue();
+    }
+
+    @Test
+    void whenCustomerLookupFails_shouldReturnAccountsWithDegradedCustomer() {
+        // Arrange
+        AccountDto account = new AccountDto();
+        when(customerService.getCustomer(1L)).thenThrow(new IllegalStateException("pool exhausted"));
+        when(accountServiceClient.getAccountsByCustomerId(1L)).thenReturn(List.of(account));
+
+        // Act
+        CustomerOverviewDto overview = overviewService.getOverview(1L);
+
+        // Assert
+        assertThat(overview.getCustomer()).isNull();
+        assertThat(overview.isCustomerDegraded()).isTrue();
+        assertThat(overview.getAccounts()).containsExactly(account);
+    }
+
+    @Test
+    void whenCustomerDoesNotExist_shouldThrowNotFound() {
+        // Arrange
+        when(customerService.getCustomer(1L)).thenThrow(BusinessErrors.NO_SUCH_CUSTOMER.exception());
+        lenient().when(accountServiceClient.getAccountsByCustomerId(1L)).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> overviewService.getOverview(1L));
+    }
+
+    @Test
+    void whenCustomerDoesNotExist_shouldCancelTheAccountsCall() throws InterruptedException {
+        // Arrange
+        when(customerService.getCustomer(1L)).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            throw BusinessErrors.NO_SUCH_CUSTOMER.exception();
+        });
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(accountServiceClient.getAccountsByCustomerId(1L)).thenAnswer(invocation -> sleepUntilInterrupted(interrupted));
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> overviewService.getOverview(1L));
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).as("accounts call cancelled").isTrue();
+    }
+
+    private static List<AccountDto> sleepUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(5_000);
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+        return List.of();
+    }
+}
@@ -1,8 +1,15 @@
 package com.bank.customer.service.impl;
 
+import com.bank.customer.cache.LegalIdLookupCache;
+import com.bank.customer.cache.SerializedResponseCache;
 import com.bank.customer.event.CustomerEventPublisher;
+import com.bank.customer.exception.BusinessErrors;
 import com.bank.customer.exception.BusinessException;
 import com.bank.customer.model.dto.CustomerDto;
+import com.bank.customer.model.dto.CustomerPatchRequest;
+import com.bank.customer.model.dto.CustomerSearchCursor;
+import com.bank.customer.model.dto.CustomerSearchHit;
+import com.bank.customer.model.dto.CustomerSearchResponse;
 import com.bank.customer.model.dto.CustomerStatus;
 import com.bank.customer.model.dto.CustomerType;
 import com.bank.customer.model.entity.Customer;
@@ -14,13 +21,18 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -38,6 +50,12 @@ class CustomerServiceImplTest {
     @Mock
     private CustomerEventPublisher eventPublisher;
 
+    @Mock
+    private SerializedResponseCache responseCache;
+
+    @Mock
+    private LegalIdLookupCache legalIdLookupCache;
+
     @InjectMocks
     private CustomerServiceImpl customerService;
 
@@ -53,7 +71,6 @@ class CustomerServiceImplTest {
         Customer savedCustomerEntity = new Customer();
         savedCustomerEntity.setId(1L);
 
-        when(customerRepository.findByLegalId("1234567")).thenReturn(Optional.empty());
         when(customerMapper.toEntity(requestDto)).thenReturn(customerEntity);
         when(customerRepository.save(customerEntity)).thenReturn(savedCustomerEntity);
         when(customerMapper.toDto(savedCustomerEntity)).thenReturn(new CustomerDto());
@@ -68,35 +85,32 @@ class CustomerServiceImplTest {
         Customer savedCustomer = customerCaptor.getValue();
 
         assertThat(savedCustomer.getStatus()).isEqualTo(CustomerStatus.ACTIVE);
+        verify(customerRepository, never()).findByLegalId(any(String.class));
         verify(eventPublisher).publishCustomerCreatedEvent(any(CustomerDto.class));
     }
 
     @Test
-    void whenCreateCustomer_withDuplicateLegalId_shouldThrowException() {
+    void whenCreateCustomer_withLegalIdRejectedByConstraint_shouldPropagateViolation() {
         // Arrange
         CustomerDto requestDto = new CustomerDto();
         requestDto.setLegalId("7654321");
+        Customer customerEntity = new Customer();
 
-        when(customerRepository.findByLegalId("7654321")).thenReturn(Optional.of(new Customer()));
+        when(customerMapper.toEntity(requestDto)).thenReturn(customerEntity);
+        when(customerRepository.save(customerEntity)).thenThrow(new DataIntegrityViolationException("duplicate"));
 
         // Act & Assert
-        assertThrows(BusinessException.class, () -> {
-            customerService.createCustomer(requestDto);
-        });
-
+        assertThrows(DataIntegrityViolationException.class, () -> customerService.createCustomer(requestDto));
         verify(eventPublisher, never()).publishCustomerCreatedEvent(any(CustomerDto.class));
     }
 
     @Test
     void whenGetCustomer_withExistingId_shouldReturnDto() {
         // Arrange
-        Customer customer = new Customer();
-        customer.setId(1L);
         CustomerDto customerDto = new CustomerDto();
         customerDto.setId(1L);
 
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(customerMapper.toDto(customer)).thenReturn(customerDto);
+        when(customerRepository.findDtoById(1L)).thenReturn(Optional.of(customerDto));
 
         // Act
         CustomerDto result = customerService.getCustomer(1L);
@@ -104,11 +118,12 @@ class CustomerServiceImplTest {
         // Assert
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
+        verify(customerMapper, never()).toDto(any(Customer.class));
     }
 
     @Test
     void whenGetCustomer_withNonExistingId_shouldThrowException() {
-        when(customerRepository.findById(99L)).thenReturn(Optional.empty());
+        when(customerRepository.findDtoById(99L)).thenReturn(Optional.empty());
         assertThrows(BusinessException.class, () -> customerService.getCustomer(99L));
     }
 
@@ -116,15 +131,12 @@ class CustomerServiceImplTest {
     void whenGetCustomer_withExistingLegalId_shouldReturnDto() {
         // Arrange
         String legalId = "12345";
-        Customer customer = new Customer();
-        customer.setId(1L);
-        customer.setLegalId(legalId);
         CustomerDto customerDto = new CustomerDto();
         customerDto.setId(1L);
         customerDto.setLegalId(legalId);
 
-        when(customerRepository.findByLegalId(legalId)).thenReturn(Optional.of(customer));
-        when(customerMapper.toDto(customer)).thenReturn(customerDto);
+        when(customerRepository.findDtoByLegalId(legalId)).thenReturn(Optional.of(customerDto));
+        loadThroughLookupCache(legalId);
 
         // Act
         CustomerDto result = customerService.getCustomer(legalId);
@@ -138,27 +150,79 @@ class CustomerServiceImplTest {
     void whenGetCustomer_withNonExistingLegalId_shouldThrowException() {
         // Arrange
         String legalId = "non-existent";
-        when(customerRepository.findByLegalId(legalId)).thenReturn(Optional.empty());
+        when(customerRepository.findDtoByLegalId(legalId)).thenReturn(Optional.empty());
+        loadThroughLookupCache(legalId);
 
         // Act & Assert
         assertThrows(BusinessException.class, () -> customerService.getCustomer(legalId));
     }
 
+    @Test
+    void whenGetCustomer_withCachedLegalId_shouldNotQueryRepository() {
+        // Arrange
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setLegalId("1234567");
+        when(legalIdLookupCache.get(eq("1234567"), any())).thenReturn(customerDto);
+
+        // Act
+        CustomerDto result = customerService.getCustomer("1234567");
+
+        // Assert
+        assertThat(result).isSameAs(customerDto);
+        verify(customerRepository, never()).findDtoByLegalId(any());
+    }
+
+    @Test
+    void whenSearchCustomersByName_withMoreRowsThanPageSize_shouldTrimAndReturnCursorOfLastRow() {
+        // Arrange
+        List<CustomerSearchHit> rows = List.of(
+                new CustomerSearchHit(new CustomerDto(), new CustomerSearchCursor(0, "jo smith", 8L)),
+                new CustomerSearchHit(new CustomerDto(), new CustomerSearchCursor(2, "0.25", 3L)),
+                new CustomerSearchHit(new CustomerDto(), new CustomerSearchCursor(2, "0.4", 5L)));
+        when(customerRepository.searchByName("jo", new CustomerSearchCursor(0, "jo adams", 2L), 3)).thenReturn(rows);
+
+        // Act
+        CustomerSearchResponse result = customerService.searchCustomersByName("  jo ", new CustomerSearchCursor(0, "jo adams", 2L).format(), 2);
+
+        // Assert
+        assertThat(result.getCustomers()).hasSize(2);
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(CustomerSearchCursor.parse(result.getNext())).isEqualTo(new CustomerSearchCursor(2, "0.25", 3L));
+    }
+
+    @Test
+    void whenSearchCustomersByName_withLastPage_shouldReportNoNextPage() {
+        // Arrange
+        when(customerRepository.searchByName("john", null, 21))
+                .thenReturn(List.of(new CustomerSearchHit(new CustomerDto(), new CustomerSearchCursor(0, "john", 1L))));
+
+        // Act
+        CustomerSearchResponse result = customerService.searchCustomersByName("john", null, 20);
+
+        // Assert
+        assertThat(result.getCustomers()).hasSize(1);
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getNext()).isNull();
+    }
+
+    @Test
+    void whenSearchCustomersByName_withTooShortQueryOversizedPageOrBadCursor_shouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> customerService.searchCustomersByName(" j ", null, 20));
+        assertThrows(IllegalArgumentException.class, () -> customerService.searchCustomersByName("john", null, 101));
+        assertThrows(IllegalArgumentException.class, () -> customerService.searchCustomersByName("john", new CustomerSearchCursor(2, "x", 1L).format(), 20));
+        verify(customerRepository, never()).searchByName(any(), any(), anyInt());
+    }
+
     @Test
     void whenGetAllCustomers_shouldReturnDtoList() {
         // Arrange
-        Customer customer1 = new Customer();
+        CustomerDto customer1 = new CustomerDto();
         customer1.setId(1L);
-        Customer customer2 = new Customer();
+        CustomerDto customer2 = new CustomerDto();
         customer2.setId(2L);
 
-        when(customerRepository.findAll()).thenReturn(List.of(customer1, customer2));
-        when(customerMapper.toDto(any(Customer.class))).thenAnswer(invocation -> {
-            Customer c = invocation.getArgument(0);
-            CustomerDto dto = new CustomerDto();
-            dto.setId(c.getId());
-            return dto;
-        });
+        when(customerRepository.findAllDtos()).thenReturn(List.of(customer1, customer2));
 
         // Act
         List<CustomerDto> result = customerService.getAllCustomers();
@@ -171,7 +235,7 @@ class CustomerServiceImplTest {
     @Test
     void whenGetAllCustomers_withNoCustomers_shouldReturnEmptyList() {
         // Arrange
-        when(customerRepository.findAll()).thenReturn(List.of());
+        when(customerRepository.findAllDtos()).thenReturn(List.of());
 
         // Act
         List<CustomerDto> result = customerService.getAllCustomers();
@@ -194,15 +258,17 @@ class CustomerServiceImplTest {
         existingCustomer.setLegalId("1234567");
 
         when(customerRepository.findById(customerId)).thenReturn(Optional.of(existingCustomer));
-        when(customerRepository.findByLegalId(requestDto.getLegalId())).thenReturn(Optional.empty());
-        when(customerRepository.save(any(Customer.class))).thenReturn(existingCustomer);
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenReturn(existingCustomer);
         when(customerMapper.toDto(existingCustomer)).thenReturn(new CustomerDto());
 
         // Act
-        customerService.updateCustomer(customerId, requestDto);
+        customerService.updateCustomer(customerId, requestDto, null);
 
         // Assert
-        verify(customerRepository).save(existingCustomer);
+        verify(customerRepository).saveAndFlush(existingCustomer);
+        verify(customerRepository, never()).findByLegalId(any(String.class));
+        verify(responseCache).evict(customerId);
+        verify(legalIdLookupCache).evict(customerId);
         verify(eventPublisher).publishCustomerUpdatedEvent(any(CustomerDto.class));
     }
 
@@ -222,17 +288,16 @@ class CustomerServiceImplTest {
 
 
         when(customerRepository.findById(customerId)).thenReturn(Optional.of(existingCustomer));
-        // findByLegalId should not be called in this case
-        when(customerRepository.save(any(Customer.class))).thenReturn(existingCustomer);
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenReturn(existingCustomer);
         when(customerMapper.toDto(existingCustomer)).thenReturn(new CustomerDto());
         doNothing().when(customerMapper).updateCustomerFromDto(requestDto, existingCustomer);
 
 
         // Act
-        customerService.updateCustomer(customerId, requestDto);
+        customerService.updateCustomer(customerId, requestDto, null);
 
         // Assert
-        verify(customerRepository).save(existingCustomer);
+        verify(customerRepository).saveAndFlush(existingCustomer);
         verify(customerRepository, never()).findByLegalId(any(String.class));
         verify(eventPublisher).publishCustomerUpdatedEvent(any(CustomerDto.class));
     }
@@ -245,12 +310,12 @@ class CustomerServiceImplTest {
         when(customerRepository.findById(customerId)).thenReturn(Optional.empty());
 
         // Act & Assert
-        assertThrows(BusinessException.class, () -> customerService.updateCustomer(customerId, requestDto));
+        assertThrows(BusinessException.class, () -> customerService.updateCustomer(customerId, requestDto, null));
         verify(eventPublisher, never()).publishCustomerUpdatedEvent(any());
     }
 
     @Test
-    void whenUpdateCustomer_withDuplicateLegalId_shouldThrowException() {
+    void whenUpdateCustomer_withDuplicateLegalId_shouldPropagateViolation() {
         // Arrange
         long customerId = 1L;
         CustomerDto requestDto = new CustomerDto();
@@ -260,18 +325,115 @@ class CustomerServiceImplTest {
         existingCustomer.setId(customerId);
         existingCustomer.setLegalId("1234567"); // The original legal ID
 
-        Customer conflictingCustomer = new Customer(); // Another customer that already has the new legal ID
-        conflictingCustomer.setId(2L);
-        conflictingCustomer.setLegalId("1112223");
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(existingCustomer));
+        when(customerRepository.saveAndFlush(existingCustomer)).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> customerService.updateCustomer(customerId, requestDto, null));
+        verify(responseCache, never()).evict(any());
+        verify(eventPublisher, never()).publishCustomerUpdatedEvent(any());
+    }
+
+    @Test
+    void whenUpdateCustomer_withStaleExpectedVersion_shouldThrowVersionMismatch() {
+        // Arrange
+        long customerId = 1L;
+        CustomerDto requestDto = new CustomerDto();
+        requestDto.setLegalId("1234567");
+
+        Customer existingCustomer = new Customer();
+        existingCustomer.setId(customerId);
+        existingCustomer.setLegalId("1234567");
+        existingCustomer.setVersion(4L);
 
         when(customerRepository.findById(customerId)).thenReturn(Optional.of(existingCustomer));
-        when(customerRepository.findByLegalId(requestDto.getLegalId())).thenReturn(Optional.of(conflictingCustomer));
 
         // Act & Assert
-        assertThrows(BusinessException.class, () -> customerService.updateCustomer(customerId, requestDto));
+        BusinessException exception = assertThrows(BusinessException.class, () -> customerService.updateCustomer(customerId, requestDto, 3L));
+        assertThat(exception.getStatus()).isEqualTo(BusinessErrors.VERSION_MISMATCH.getHttpStatus());
+        verify(customerRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void whenPatchCustomer_withStaleExpectedVersion_shouldThrowVersionMismatch() {
+        // Arrange
+        long customerId = 1L;
+        CustomerPatchRequest patch = new CustomerPatchRequest();
+        patch.setName("New Name");
+        when(customerRepository.patchCustomer(customerId, patch, 3L)).thenReturn(Optional.empty());
+        when(customerRepository.existsById(customerId)).thenReturn(true);
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () -> customerService.patchCustomer(customerId, patch, 3L));
+        assertThat(exception.getStatus()).isEqualTo(BusinessErrors.VERSION_MISMATCH.getHttpStatus());
         verify(eventPublisher, never()).publishCustomerUpdatedEvent(any());
     }
 
+    @Test
+    void whenGetCustomerVersion_withExistingId_shouldReturnVersion() {
+        // Arrange
+        when(customerRepository.findVersionById(1L)).thenReturn(Optional.of(2L));
+
+        // Act & Assert
+        assertThat(customerService.getCustomerVersion(1L)).isEqualTo(2L);
+    }
+
+    @Test
+    void whenPatchCustomer_withExistingId_shouldPublishReturnedRow() {
+        // Arrange
+        long customerId = 1L;
+        CustomerPatchRequest patch = new CustomerPatchRequest();
+        patch.setAddress("New Address");
+        CustomerDto patchedDto = new CustomerDto();
+        patchedDto.setId(customerId);
+        patchedDto.setAddress("New Address");
+
+        when(customerRepository.patchCustomer(customerId, patch, null)).thenReturn(Optional.of(patchedDto));
+
+        // Act
+        CustomerDto result = customerService.patchCustomer(customerId, patch, null);
+
+        // Assert
+        assertThat(result).isSameAs(patchedDto);
+        verify(customerRepository, never()).findById(any());
+        verify(responseCache).evict(customerId);
+        verify(legalIdLookupCache).evict(customerId);
+        verify(eventPublisher).publishCustomerUpdatedEvent(patchedDto);
+    }
+
+    @Test
+    void whenPatchCustomer_withNonExistentId_shouldThrowException() {
+        // Arrange
+        long customerId = 99L;
+        CustomerPatchRequest patch = new CustomerPatchRequest();
+        patch.setName("New Name");
+        when(customerRepository.patchCustomer(customerId, patch, null)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> customerService.patchCustomer(customerId, patch, null));
+        verify(eventPublisher, never()).publishCustomerUpdatedEvent(any());
+    }
+
+    @Test
+    void whenPatchCustomer_withDuplicateLegalId_shouldPropagateViolation() {
+        // Arrange
+        long customerId = 1L;
+        CustomerPatchRequest patch = new CustomerPatchRequest();
+        patch.setLegalId("1112223");
+        when(customerRepository.patchCustomer(customerId, patch, null)).thenThrow(new DuplicateKeyException("duplicate"));
+
+        // Act & Assert
+        assertThrows(DuplicateKeyException.class, () -> customerService.patchCustomer(customerId, patch, null));
+        verify(eventPublisher, never()).publishCustomerUpdatedEvent(any());
+    }
+
+    @Test
+    void whenPatchCustomer_withNoFields_shouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> customerService.patchCustomer(1L, new CustomerPatchRequest(), null));
+        verify(customerRepository, never()).patchCustomer(any(), any(), any());
+    }
+
     @Test
     void whenDeleteCustomer_withExistingId_shouldSucceedAndPublishEvent() {
         // Arrange
@@ -284,6 +446,8 @@ class CustomerServiceImplTest {
 
         // Assert
         verify(customerRepository).deleteById(customerId);
+        verify(responseCache).evict(customerId);
+        verify(legalIdLookupCache).evict(customerId);
         verify(eventPublisher).publishCustomerDeletedEvent(customerId);
     }
 
@@ -297,4 +461,8 @@ class CustomerServiceImplTest {
         assertThrows(BusinessException.class, () -> customerService.deleteCustomer(customerId));
         verify(eventPublisher, never()).publishCustomerDeletedEvent(any());
     }
+
+    private void loadThroughLookupCache(String legalId) {
+        when(legalIdLookupCache.get(eq(legalId), any())).thenAnswer(invocation -> invocation.<Supplier<CustomerDto>>getArgument(1).get());
+    }
 }
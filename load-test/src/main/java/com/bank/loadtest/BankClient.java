@@ -0,0 +1,190 @@
+package com.bank.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues the scenario operations against both services and keeps track of the customers and accounts they create,
+ * so reads and deletes always target rows that exist.
+ */
+public class BankClient {
+
+    /** Status reported for requests that never got a response. */
+    public static final int NO_RESPONSE = 0;
+    /** Status reported when there was nothing to run the operation on, e.g. no customer left to delete. */
+    public static final int SKIPPED = -1;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI customerUrl;
+    private final URI accountUrl;
+    private final String authorization;
+
+    private final IdPool customers = new IdPool();
+    private final IdPool accounts = new IdPool();
+    private final Map<Long, Set<Long>> accountsByCustomer = new ConcurrentHashMap<>();
+    private final AtomicLong nextLegalId;
+    private final Map<Long, String> legalIds = new ConcurrentHashMap<>();
+
+    public BankClient(URI customerUrl, URI accountUrl, String username, String password) {
+        this.customerUrl = customerUrl;
+        this.accountUrl = accountUrl;
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        // Start from a time-derived base so repeated runs against the same database do not reuse legal IDs.
+        this.nextLegalId = new AtomicLong(1_000_000 + System.currentTimeMillis() / 1000 % 4_000_000);
+    }
+
+    public void seed(Scenario.Seed seed) {
+        for (int i = 0; i < seed.customers(); i++) {
+            execute(Operation.CREATE_CUSTOMER);
+        }
+        for (int i = 0; i < seed.customers() * seed.accountsPerCustomer(); i++) {
+            execute(Operation.CREATE_ACCOUNT);
+        }
+    }
+
+    /**
+     * Runs one operation and returns its HTTP status, {@link #NO_RESPONSE} or {@link #SKIPPED}.
+     */
+    public int execute(Operation operation) {
+        return switch (operation) {
+            case GET_CUSTOMER -> withCustomer(id -> get(customerUrl, "/api/v1/customer/" + id));
+            case GET_CUSTOMER_OVERVIEW -> withCustomer(id -> get(customerUrl, "/api/v1/customer/" + id + "/overview"));
+            case GET_ACCOUNT -> withId(accounts.random(), id -> get(accountUrl, "/api/v1/account/" + id));
+            case GET_CUSTOMER_ACCOUNTS -> withCustomer(id -> get(accountUrl, "/api/v1/account?customerId=" + id));
+            case LIST_ACCOUNTS -> get(accountUrl, "/api/v1/account");
+            case STREAM_ACCOUNTS -> get(accountUrl, "/api/v1/account/stream");
+            case CREATE_CUSTOMER -> createCustomer();
+            case CREATE_ACCOUNT -> withCustomer(this::createAccount);
+            case DELETE_CUSTOMER -> deleteCustomer().status();
+        };
+    }
+
+    /**
+     * Deletes a random customer and returns the status together with the customer and whether it had accounts.
+     */
+    public Deletion deleteCustomer() {
+        OptionalLong id = customers.removeRandom();
+        if (id.isEmpty()) {
+            return new Deletion(SKIPPED, 0, false);
+        }
+        long customerId = id.getAsLong();
+        Set<Long> owned = accountsByCustomer.remove(customerId);
+        if (owned != null) {
+            owned.forEach(accounts::remove);
+        }
+        int status = send(request(customerUrl, "/api/v1/customer/" + customerId).DELETE().build()).status();
+        return new Deletion(status, customerId, owned != null && !owned.isEmpty());
+    }
+
+    public boolean hasAccounts(long customerId) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request(accountUrl, "/api/v1/account?customerId=" + customerId).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        return response.statusCode() != 200 || !objectMapper.readTree(response.body()).isEmpty();
+    }
+
+    public int customerCount() {
+        return customers.size();
+    }
+
+    public int accountCount() {
+        return accounts.size();
+    }
+
+    private int createCustomer() {
+        String legalId = String.format("%07d", nextLegalId.getAndIncrement() % 10_000_000);
+        String body = """
+                {"name": "Load Customer %s", "legalId": "%s", "type": "CORPORATE", "address": "%s Load Street"}
+                """.formatted(legalId, legalId, legalId);
+        Response response = send(request(customerUrl, "/api/v1/customer").POST(json(body)).build());
+        response.id().ifPresent(id -> {
+            legalIds.put(id, legalId);
+            customers.add(id);
+        });
+        return response.status();
+    }
+
+    private int createAccount(long customerId) {
+        String legalId = legalIds.get(customerId);
+        if (legalId == null) {
+            return SKIPPED;
+        }
+        String body = """
+                {"customerLegalId": "%s", "type": "SAVINGS", "balance": 500.0, "status": "ACTIVE"}
+                """.formatted(legalId);
+        Response response = send(request(accountUrl, "/api/v1/account").POST(json(body)).build());
+        response.id().ifPresent(id -> {
+            accounts.add(id);
+            accountsByCustomer.computeIfAbsent(customerId, key -> ConcurrentHashMap.newKeySet()).add(id);
+        });
+        return response.status();
+    }
+
+    private int get(URI base, String path) {
+        return send(request(base, path).GET().build()).status();
+    }
+
+    private int withCustomer(IdOperation operation) {
+        return withId(customers.random(), operation);
+    }
+
+    private static int withId(OptionalLong id, IdOperation operation) {
+        return id.isPresent() ? operation.run(id.getAsLong()) : SKIPPED;
+    }
+
+    private HttpRequest.Builder request(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", authorization);
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+
+    private Response send(HttpRequest request) {
+        HttpRequest withContentType = request.bodyPublisher().isPresent()
+                ? HttpRequest.newBuilder(request, (name, value) -> true).header("Content-Type", "application/json").build()
+                : request;
+        try {
+            HttpResponse<byte[]> response = httpClient.send(withContentType, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 201) {
+                JsonNode created = objectMapper.readTree(response.body());
+                return new Response(201, OptionalLong.of(created.get("id").asLong()));
+            }
+            return new Response(response.statusCode(), OptionalLong.empty());
+        } catch (IOException e) {
+            return new Response(NO_RESPONSE, OptionalLong.empty());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(NO_RESPONSE, OptionalLong.empty());
+        }
+    }
+
+    public record Deletion(int status, long customerId, boolean hadAccounts) {
+    }
+
+    private record Response(int status, OptionalLong id) {
+    }
+
+    @FunctionalInterface
+    private interface IdOperation {
+        int run(long id);
+    }
+}
@@ -0,0 +1,122 @@
+package com.bank.loadtest;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how long the account service takes to drop a deleted customer's accounts: from the moment
+ * {@code customer.event.deleted} is seen on the broker until the accounts-by-customer read comes back empty.
+ * <p>
+ * The probe binds its own exclusive queue to the customer exchange, so it observes the event at the same time as the
+ * account service's listener without taking messages away from it.
+ */
+public class DeletionLagProbe implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DeletionLagProbe.class);
+
+    static final String CUSTOMER_EVENTS_TOPIC = "customer.events.topic";
+    static final String CUSTOMER_DELETED_ROUTING_KEY = "customer.event.deleted";
+
+    private static final long POLL_INTERVAL_MILLIS = 20;
+    private static final Duration GIVE_UP_AFTER = Duration.ofSeconds(30);
+    private static final long EXPECTED = -1;
+
+    private final BankClient client;
+    private final Connection connection;
+    private final ExecutorService pollers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final Histogram lag = new ConcurrentHistogram(GIVE_UP_AFTER.toMillis(), 3);
+    private final AtomicLong timedOut = new AtomicLong();
+
+    public DeletionLagProbe(BankClient client, String host, int port) throws Exception {
+        this.client = client;
+        ConnectionFactory factory = new ConnectionFactory();
+        factory.setHost(host);
+        factory.setPort(port);
+        factory.setUsername(ServiceStack.USERNAME);
+        factory.setPassword(ServiceStack.PASSWORD);
+        this.connection = factory.newConnection("load-test-deletion-lag-probe");
+        Channel channel = connection.createChannel();
+        channel.exchangeDeclare(CUSTOMER_EVENTS_TOPIC, "topic", true);
+        String queue = channel.queueDeclare().getQueue();
+        channel.queueBind(queue, CUSTOMER_EVENTS_TOPIC, CUSTOMER_DELETED_ROUTING_KEY);
+        channel.basicConsume(queue, true, (tag, delivery) -> {
+            String body = new String(delivery.getBody(), StandardCharsets.UTF_8).trim();
+            onDeleted(Long.parseLong(body), System.nanoTime());
+        }, tag -> { });
+    }
+
+    /**
+     * Registers a customer whose deletion should be timed. The event may arrive before or after this call.
+     */
+    public void expect(long customerId) {
+        Long seenAt = pending.putIfAbsent(customerId, EXPECTED);
+        if (seenAt != null) {
+            pending.remove(customerId);
+            pollers.execute(() -> awaitRemoval(customerId, seenAt));
+        }
+    }
+
+    private void onDeleted(long customerId, long seenAt) {
+        Long previous = pending.putIfAbsent(customerId, seenAt);
+        if (previous != null && previous == EXPECTED) {
+            pending.remove(customerId);
+            pollers.execute(() -> awaitRemoval(customerId, seenAt));
+        }
+    }
+
+    private void awaitRemoval(long customerId, long seenAt) {
+        long deadline = seenAt + GIVE_UP_AFTER.toNanos();
+        try {
+            while (System.nanoTime() < deadline) {
+                if (!client.hasAccounts(customerId)) {
+                    lag.recordValue(Math.min(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seenAt), GIVE_UP_AFTER.toMillis()));
+                    return;
+                }
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+        } catch (IOException e) {
+            log.debug("Polling accounts of customer {} failed.", customerId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        timedOut.incrementAndGet();
+    }
+
+    /**
+     * Lag in milliseconds; resolution is bounded by the poll interval.
+     */
+    public Histogram lag() {
+        return lag;
+    }
+
+    public long timedOut() {
+        return timedOut.get();
+    }
+
+    /**
+     * Waits for outstanding polls so the last deletions of the run are still counted.
+     */
+    @Override
+    public void close() throws Exception {
+        pollers.shutdown();
+        pollers.awaitTermination(GIVE_UP_AFTER.toSeconds() + 5, TimeUnit.SECONDS);
+        connection.close();
+    }
+}
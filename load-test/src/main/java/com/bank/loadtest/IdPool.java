@@ -0,0 +1,48 @@
+package com.bank.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ids the load can pick at random, kept in a list so that picking and removing are O(1).
+ */
+class IdPool {
+
+    private final List<Long> ids = new ArrayList<>();
+
+    synchronized void add(long id) {
+        ids.add(id);
+    }
+
+    synchronized OptionalLong random() {
+        if (ids.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    synchronized OptionalLong removeRandom() {
+        if (ids.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        int index = ThreadLocalRandom.current().nextInt(ids.size());
+        long id = ids.get(index);
+        ids.set(index, ids.getLast());
+        ids.removeLast();
+        return OptionalLong.of(id);
+    }
+
+    synchronized void remove(long id) {
+        int index = ids.indexOf(id);
+        if (index >= 0) {
+            ids.set(index, ids.getLast());
+            ids.removeLast();
+        }
+    }
+
+    synchronized int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,109 @@
+package com.bank.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model driver: requests are scheduled on the scenario's arrival process regardless of how many are still in
+ * flight, and latency is taken from the scheduled start so queueing behind a slow request is counted rather than
+ * hidden (coordinated omission).
+ */
+public class LoadDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Scenario scenario;
+    private final BankClient client;
+    private final DeletionLagProbe lagProbe;
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+    public LoadDriver(Scenario scenario, BankClient client, DeletionLagProbe lagProbe) {
+        this.scenario = scenario;
+        this.client = client;
+        this.lagProbe = lagProbe;
+        for (Operation operation : scenario.mix().keySet()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    public Map<Operation, Stats> run() throws InterruptedException {
+        log.info("Warming up for {}s at {} req/s.", scenario.warmupSeconds(), scenario.arrivalRate());
+        drive(TimeUnit.SECONDS.toNanos(scenario.warmupSeconds()), false);
+        log.info("Measuring for {}s at {} req/s.", scenario.durationSeconds(), scenario.arrivalRate());
+        drive(TimeUnit.SECONDS.toNanos(scenario.durationSeconds()), true);
+        return stats;
+    }
+
+    private void drive(long durationNanos, boolean measured) throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            long intended = start;
+            while (intended - start < durationNanos) {
+                long scheduled = intended;
+                Operation operation = scenario.pick(ThreadLocalRandom.current().nextDouble());
+                executor.execute(() -> invoke(operation, scheduled, measured));
+                intended += scenario.nextArrivalNanos(ThreadLocalRandom.current().nextDouble());
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+    }
+
+    private void invoke(Operation operation, long scheduledNanos, boolean measured) {
+        int status;
+        if (operation == Operation.DELETE_CUSTOMER) {
+            BankClient.Deletion deletion = client.deleteCustomer();
+            status = deletion.status();
+            if (measured && status == 204 && deletion.hadAccounts()) {
+                lagProbe.expect(deletion.customerId());
+            }
+        } else {
+            status = client.execute(operation);
+        }
+        if (measured && status != BankClient.SKIPPED) {
+            stats.get(operation).record(status, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledNanos));
+        }
+    }
+
+    /**
+     * Latency histogram in microseconds plus response counts for one operation.
+     */
+    public static final class Stats {
+
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final AtomicLong failures = new AtomicLong();
+
+        void record(int status, long micros) {
+            latency.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            if (status < 200 || status >= 300) {
+                failures.incrementAndGet();
+            }
+        }
+
+        public Histogram latency() {
+            return latency;
+        }
+
+        public long failures() {
+            return failures.get();
+        }
+    }
+}
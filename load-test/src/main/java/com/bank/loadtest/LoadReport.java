@@ -0,0 +1,60 @@
+package com.bank.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prints the per-endpoint percentile table and writes full {@code .hgrm} distributions next to it for plotting.
+ */
+public final class LoadReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadReport() {
+    }
+
+    public static void write(Scenario scenario, Map<Operation, LoadDriver.Stats> stats, DeletionLagProbe lagProbe,
+                             Path outputDir, PrintStream out) throws IOException {
+        Files.createDirectories(outputDir);
+        out.printf(Locale.ROOT, "%nScenario '%s': %d req/s %s arrivals for %ds%n%n", scenario.name(),
+                scenario.arrivalRate(), scenario.arrivalProcess(), scenario.durationSeconds());
+        out.printf(Locale.ROOT, "%-22s %8s %8s %9s %9s %9s %9s %9s %8s%n",
+                "Endpoint", "Count", "Non-2xx", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms", "Rate/s");
+        for (Map.Entry<Operation, LoadDriver.Stats> entry : stats.entrySet()) {
+            Histogram latency = entry.getValue().latency();
+            out.printf(Locale.ROOT, "%-22s %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %8.1f%n",
+                    entry.getKey().endpoint(), latency.getTotalCount(), entry.getValue().failures(),
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                    millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()), (double) latency.getTotalCount() / scenario.durationSeconds());
+            writeDistribution(latency, outputDir.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm"),
+                    MICROS_PER_MILLI);
+        }
+
+        Histogram lag = lagProbe.lag();
+        out.printf(Locale.ROOT, "%nDeletion propagation (customer.event.deleted -> accounts gone): %d samples, %d timed out%n",
+                lag.getTotalCount(), lagProbe.timedOut());
+        if (lag.getTotalCount() > 0) {
+            out.printf(Locale.ROOT, "  p50 %d ms, p90 %d ms, p99 %d ms, max %d ms%n", lag.getValueAtPercentile(50),
+                    lag.getValueAtPercentile(90), lag.getValueAtPercentile(99), lag.getMaxValue());
+            writeDistribution(lag, outputDir.resolve("deletion-lag.hgrm"), 1.0);
+        }
+        out.printf(Locale.ROOT, "%nDistributions written to %s%n", outputDir.toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+
+    private static void writeDistribution(Histogram histogram, Path file, double scalingRatio) throws IOException {
+        try (PrintStream stream = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+            histogram.outputPercentileDistribution(stream, scalingRatio);
+        }
+    }
+}
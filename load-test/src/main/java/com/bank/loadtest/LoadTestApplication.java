@@ -0,0 +1,41 @@
+package com.bank.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Runs one scenario end to end: boots the stack, seeds data, drives the mix and prints the report.
+ * <p>
+ * Usage: {@code LoadTestApplication <scenario.yaml>}
+ */
+public final class LoadTestApplication {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestApplication.class);
+
+    private LoadTestApplication() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: LoadTestApplication <scenario.yaml>");
+        }
+        Scenario scenario = Scenario.load(Path.of(args[0]));
+        Path workDir = Path.of("target", "load-test");
+        try (ServiceStack stack = ServiceStack.start(workDir)) {
+            BankClient client = new BankClient(stack.customerUrl(), stack.accountUrl(), ServiceStack.USERNAME, ServiceStack.PASSWORD);
+            log.info("Seeding {} customers with {} accounts each.", scenario.seed().customers(), scenario.seed().accountsPerCustomer());
+            client.seed(scenario.seed());
+            log.info("Seeded {} customers and {} accounts.", client.customerCount(), client.accountCount());
+
+            Map<Operation, LoadDriver.Stats> stats;
+            DeletionLagProbe lagProbe = new DeletionLagProbe(client, stack.rabbitHost(), stack.rabbitPort());
+            try (lagProbe) {
+                stats = new LoadDriver(scenario, client, lagProbe).run();
+            }
+            LoadReport.write(scenario, stats, lagProbe, workDir.resolve(scenario.name()), System.out);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.bank.loadtest;
+
+/**
+ * The requests a scenario can mix, labelled with the endpoint they hit.
+ */
+public enum Operation {
+
+    GET_CUSTOMER("GET /api/v1/customer/{id}"),
+    GET_CUSTOMER_OVERVIEW("GET /api/v1/customer/{id}/overview"),
+    GET_ACCOUNT("GET /api/v1/account/{id}"),
+    GET_CUSTOMER_ACCOUNTS("GET /api/v1/account?customerId="),
+    LIST_ACCOUNTS("GET /api/v1/account"),
+    STREAM_ACCOUNTS("GET /api/v1/account/stream"),
+    CREATE_CUSTOMER("POST /api/v1/customer"),
+    CREATE_ACCOUNT("POST /api/v1/account"),
+    DELETE_CUSTOMER("DELETE /api/v1/customer/{id}");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,223 @@
+package com.bank.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Compares the plain account table with the 16-way hash-partitioned one at large row counts, straight against Postgres.
+ * <p>
+ * For each size in {@code load.partitioning.rows} both layouts are built with the service's schema, then timed on bulk
+ * load, {@code VACUUM ANALYZE}, the per-customer summaries read, a lookup by ID and deleting a customer's accounts (rolled
+ * back). Sizes default to 10M and 100M rows; the larger one needs roughly 40 GB of disk. Setting
+ * {@code load.partitioning.jdbc-url} benchmarks an existing database instead of a container.
+ * <p>
+ * Usage: {@code mvn compile exec:java -Dexec.mainClass=com.bank.loadtest.PartitioningBenchmark -Dload.partitioning.rows=10000000}
+ */
+public final class PartitioningBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitioningBenchmark.class);
+
+    private static final int PARTITIONS = 16;
+    private static final int ACCOUNTS_PER_CUSTOMER = 4;
+    private static final int SAMPLES = 2_000;
+    private static final int DELETE_SAMPLES = 200;
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(10);
+
+    private static final String COLUMNS = """
+                id             BIGINT           NOT NULL,
+                customer_id    BIGINT           NOT NULL,
+                account_number VARCHAR(255)     NOT NULL,
+                type           VARCHAR(255)     NOT NULL,
+                balance        DOUBLE PRECISION NOT NULL,
+                status         VARCHAR(255)     NOT NULL,
+                version        BIGINT           NOT NULL DEFAULT 0""";
+
+    // Every customer gets one account of each type plus a second savings account, as the account rules allow.
+    private static final String LOAD = """
+            INSERT INTO bench_account (id, customer_id, account_number, type, balance, status)
+            SELECT n, (n - 1) / %1$d + 1, lpad(((n - 1) / %1$d + 1)::text, 10, '0') || lpad(((n - 1) %% %1$d)::text, 3, '0'),
+                   (ARRAY['SALARY', 'SAVINGS', 'INVESTMENT', 'SAVINGS'])[(n - 1) %% %1$d + 1], random() * 10000, 'ACTIVE'
+            FROM generate_series(1, %2$d) AS n""";
+
+    private static final String SUMMARIES = "SELECT id, account_number, type, balance, status FROM bench_account"
+            + " WHERE customer_id = ? ORDER BY type, status";
+    private static final String BY_ID = "SELECT id, account_number, type, balance, status, version FROM bench_account"
+            + " WHERE id = ?";
+    private static final String DELETE_BY_CUSTOMER = "DELETE FROM bench_account WHERE customer_id = ?";
+
+    private record Result(long rows, String layout, long loadMillis, long vacuumMillis, long totalBytes,
+                          Histogram summaries, Histogram byId, Histogram deletes) {
+    }
+
+    private PartitioningBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long[] sizes = Arrays.stream(System.getProperty("load.partitioning.rows", "10000000,100000000").split(","))
+                .mapToLong(size -> Long.parseLong(size.trim()))
+                .toArray();
+        String url = System.getProperty("load.partitioning.jdbc-url");
+        List<Result> results = new ArrayList<>();
+        if (url != null) {
+            try (Connection connection = DriverManager.getConnection(url,
+                    System.getProperty("load.partitioning.username", ServiceStack.USERNAME),
+                    System.getProperty("load.partitioning.password", ServiceStack.PASSWORD))) {
+                run(connection, sizes, results);
+            }
+        } else {
+            try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+                    .withDatabaseName("account_db")
+                    .withUsername(ServiceStack.USERNAME)
+                    .withPassword(ServiceStack.PASSWORD)
+                    .withSharedMemorySize(1L << 30)
+                    .withCommand("postgres", "-c", "max_wal_size=8GB", "-c", "maintenance_work_mem=1GB")) {
+                postgres.start();
+                try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), ServiceStack.USERNAME,
+                        ServiceStack.PASSWORD)) {
+                    run(connection, sizes, results);
+                }
+            }
+        }
+        print(results, System.out);
+    }
+
+    private static void run(Connection connection, long[] sizes, List<Result> results) throws SQLException {
+        for (long rows : sizes) {
+            results.add(measure(connection, rows, false));
+            results.add(measure(connection, rows, true));
+        }
+        execute(connection, "DROP TABLE IF EXISTS bench_account");
+    }
+
+    private static Result measure(Connection connection, long rows, boolean partitioned) throws SQLException {
+        String layout = partitioned ? "hash x" + PARTITIONS : "plain";
+        log.info("Building the {} table with {} rows.", layout, rows);
+        createTable(connection, partitioned);
+
+        long start = System.nanoTime();
+        execute(connection, LOAD.formatted(ACCOUNTS_PER_CUSTOMER, rows));
+        createIndexes(connection, partitioned);
+        long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        execute(connection, "VACUUM ANALYZE bench_account");
+        long vacuumMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        long customers = rows / ACCOUNTS_PER_CUSTOMER;
+        SplittableRandom random = new SplittableRandom(42);
+        Histogram summaries = time(connection, SUMMARIES, SAMPLES, () -> random.nextLong(1, customers + 1), false);
+        Histogram byId = time(connection, BY_ID, SAMPLES, () -> random.nextLong(1, rows + 1), false);
+        Histogram deletes = time(connection, DELETE_BY_CUSTOMER, DELETE_SAMPLES,
+                () -> random.nextLong(1, customers + 1), true);
+
+        Result result = new Result(rows, layout, loadMillis, vacuumMillis, totalBytes(connection, partitioned),
+                summaries, byId, deletes);
+        log.info("{} rows, {}: loaded in {} ms, vacuumed in {} ms.", rows, layout, loadMillis, vacuumMillis);
+        return result;
+    }
+
+    private static void createTable(Connection connection, boolean partitioned) throws SQLException {
+        execute(connection, "DROP TABLE IF EXISTS bench_account");
+        if (!partitioned) {
+            execute(connection, "CREATE TABLE bench_account (" + COLUMNS + ")");
+            return;
+        }
+        execute(connection, "CREATE TABLE bench_account (" + COLUMNS + ") PARTITION BY HASH (customer_id)");
+        for (int remainder = 0; remainder < PARTITIONS; remainder++) {
+            execute(connection, "CREATE TABLE bench_account_p%02d PARTITION OF bench_account FOR VALUES WITH (MODULUS %d, REMAINDER %d)"
+                    .formatted(remainder, PARTITIONS, remainder));
+        }
+    }
+
+    // Built after the load, as a bulk import would; the keys mirror V3, V4 and V6 of the account service.
+    private static void createIndexes(Connection connection, boolean partitioned) throws SQLException {
+        if (partitioned) {
+            execute(connection, "ALTER TABLE bench_account ADD PRIMARY KEY (id, customer_id)");
+            execute(connection, "ALTER TABLE bench_account ADD UNIQUE (customer_id, account_number)");
+        } else {
+            execute(connection, "ALTER TABLE bench_account ADD PRIMARY KEY (id)");
+            execute(connection, "ALTER TABLE bench_account ADD UNIQUE (account_number)");
+        }
+        execute(connection, "CREATE INDEX ON bench_account (customer_id, type, status) INCLUDE (id, account_number, balance)");
+        execute(connection, "CREATE UNIQUE INDEX ON bench_account (customer_id) WHERE type = 'SALARY'");
+    }
+
+    private static Histogram time(Connection connection, String sql, int samples, LongSupplier keys,
+                                  boolean rollBack) throws SQLException {
+        Histogram histogram = new Histogram(MAX_LATENCY_MICROS, 3);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(!rollBack);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < samples; i++) {
+                statement.setLong(1, keys.getAsLong());
+                long start = System.nanoTime();
+                if (statement.execute()) {
+                    drain(statement.getResultSet());
+                }
+                histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), MAX_LATENCY_MICROS));
+                if (rollBack) {
+                    connection.rollback();
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return histogram;
+    }
+
+    private static void drain(ResultSet resultSet) throws SQLException {
+        try (resultSet) {
+            while (resultSet.next()) {
+                resultSet.getLong(1);
+            }
+        }
+    }
+
+    private static long totalBytes(Connection connection, boolean partitioned) throws SQLException {
+        String sql = partitioned
+                ? "SELECT sum(pg_total_relation_size(relid)) FROM pg_partition_tree('bench_account')"
+                : "SELECT pg_total_relation_size('bench_account')";
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void print(List<Result> results, PrintStream out) {
+        out.printf("%n%-11s %-9s %9s %9s %9s  %-19s %-19s %-19s%n", "rows", "layout", "load s", "vacuum s", "size MB",
+                "summaries p50/p99", "by id p50/p99", "delete p50/p99");
+        for (Result result : results) {
+            out.printf("%-11d %-9s %9.1f %9.1f %9d  %-19s %-19s %-19s%n", result.rows(), result.layout(),
+                    result.loadMillis() / 1000.0, result.vacuumMillis() / 1000.0, result.totalBytes() >> 20,
+                    percentiles(result.summaries()), percentiles(result.byId()), percentiles(result.deletes()));
+        }
+        out.println("Latencies in microseconds.");
+    }
+
+    private static String percentiles(Histogram histogram) {
+        return histogram.getValueAtPercentile(50) + " / " + histogram.getValueAtPercentile(99);
+    }
+}
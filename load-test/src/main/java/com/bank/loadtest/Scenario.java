@@ -0,0 +1,87 @@
+package com.bank.loadtest;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A load mix read from a YAML file: how fast requests arrive, for how long, and which operations they are.
+ * Arrivals follow an open model, so a slow service does not slow the arrivals down.
+ */
+public record Scenario(String name,
+                       int warmupSeconds,
+                       int durationSeconds,
+                       double arrivalRate,
+                       ArrivalProcess arrivalProcess,
+                       Seed seed,
+                       Map<Operation, Integer> mix) {
+
+    public enum ArrivalProcess {
+        POISSON,
+        CONSTANT
+    }
+
+    public record Seed(int customers, int accountsPerCustomer) {
+    }
+
+    private static final ObjectMapper YAML = YAMLMapper.builder()
+            .propertyNamingStrategy(PropertyNamingStrategies.KEBAB_CASE)
+            .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS)
+            .build();
+
+    public Scenario {
+        Objects.requireNonNull(name, "name");
+        arrivalProcess = Objects.requireNonNullElse(arrivalProcess, ArrivalProcess.POISSON);
+        seed = Objects.requireNonNullElse(seed, new Seed(100, 2));
+        if (warmupSeconds < 0 || durationSeconds <= 0 || arrivalRate <= 0) {
+            throw new IllegalArgumentException("Scenario " + name + " needs a positive duration and arrival rate.");
+        }
+        if (mix == null || mix.isEmpty() || mix.values().stream().anyMatch(weight -> weight == null || weight < 0)
+                || mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Scenario " + name + " needs a mix with non-negative weights.");
+        }
+        mix = new EnumMap<>(mix);
+    }
+
+    public static Scenario load(Path path) throws IOException {
+        return YAML.readValue(path.toFile(), Scenario.class);
+    }
+
+    /**
+     * Picks an operation with probability proportional to its weight, given a uniform value in {@code [0, 1)}.
+     */
+    public Operation pick(double uniform) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        double target = uniform * total;
+        Operation last = null;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            if (entry.getValue() == 0) {
+                continue;
+            }
+            last = entry.getKey();
+            target -= entry.getValue();
+            if (target < 0) {
+                return last;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Nanoseconds until the next arrival, given a uniform value in {@code [0, 1)}.
+     */
+    public long nextArrivalNanos(double uniform) {
+        double meanNanos = 1e9 / arrivalRate;
+        return switch (arrivalProcess) {
+            case CONSTANT -> Math.round(meanNanos);
+            case POISSON -> Math.round(-Math.log(1 - uniform) * meanNanos);
+        };
+    }
+}
@@ -0,0 +1,208 @@
+package com.bank.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Boots Postgres and RabbitMQ in containers and both services as local processes from their packaged jars.
+ * <p>
+ * Setting {@code load.customer-url} and {@code load.account-url} skips all of that and targets an already running
+ * stack instead, with {@code load.rabbitmq.*} pointing at its broker.
+ */
+public class ServiceStack implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceStack.class);
+
+    static final String USERNAME = "admin";
+    static final String PASSWORD = "admin";
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+    private URI customerUrl;
+    private URI accountUrl;
+    private String rabbitHost;
+    private int rabbitPort;
+
+    public static ServiceStack start(Path workDir) throws Exception {
+        ServiceStack stack = new ServiceStack();
+        try {
+            String customerUrl = System.getProperty("load.customer-url");
+            String accountUrl = System.getProperty("load.account-url");
+            if (customerUrl != null && accountUrl != null) {
+                stack.attach(URI.create(customerUrl), URI.create(accountUrl));
+            } else {
+                stack.boot(workDir);
+            }
+            return stack;
+        } catch (Exception e) {
+            stack.close();
+            throw e;
+        }
+    }
+
+    public URI customerUrl() {
+        return customerUrl;
+    }
+
+    public URI accountUrl() {
+        return accountUrl;
+    }
+
+    public String rabbitHost() {
+        return rabbitHost;
+    }
+
+    public int rabbitPort() {
+        return rabbitPort;
+    }
+
+    private void attach(URI customerUrl, URI accountUrl) {
+        this.customerUrl = customerUrl;
+        this.accountUrl = accountUrl;
+        this.rabbitHost = System.getProperty("load.rabbitmq.host", "localhost");
+        this.rabbitPort = Integer.getInteger("load.rabbitmq.port", 5672);
+        log.info("Targeting running services at {} and {}.", customerUrl, accountUrl);
+    }
+
+    private void boot(Path workDir) throws Exception {
+        PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+                .withDatabaseName("customer_db")
+                .withUsername(USERNAME)
+                .withPassword(PASSWORD);
+        resources.add(postgres);
+        RabbitMQContainer rabbit = new RabbitMQContainer("rabbitmq:3.13-management")
+                .withAdminUser(USERNAME)
+                .withAdminPassword(PASSWORD);
+        resources.add(rabbit);
+        Stream.of(postgres, rabbit).parallel().forEach(container -> container.start());
+        postgres.execInContainer("psql", "-U", USERNAME, "-d", "customer_db", "-c", "CREATE DATABASE account_db");
+
+        rabbitHost = rabbit.getHost();
+        rabbitPort = rabbit.getAmqpPort();
+        int customerPort = freePort();
+        int accountPort = freePort();
+        customerUrl = URI.create("http://localhost:" + customerPort);
+        accountUrl = URI.create("http://localhost:" + accountPort);
+
+        Map<String, String> env = new HashMap<>();
+        env.put("SPRING_DATASOURCE_HOST", postgres.getHost());
+        env.put("SPRING_DATASOURCE_PORT", String.valueOf(postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT)));
+        env.put("SPRING_DATASOURCE_USERNAME", USERNAME);
+        env.put("SPRING_DATASOURCE_PASSWORD", PASSWORD);
+        env.put("SPRING_RABBITMQ_HOST", rabbitHost);
+        env.put("SPRING_RABBITMQ_PORT", String.valueOf(rabbitPort));
+        env.put("SPRING_RABBITMQ_USERNAME", USERNAME);
+        env.put("SPRING_RABBITMQ_PASSWORD", PASSWORD);
+        env.put("CUSTOMER_SERVICE_URL", customerUrl.toString());
+        env.put("ACCOUNT_SERVICE_URL", accountUrl.toString());
+
+        Path logDir = Files.createDirectories(workDir.resolve("logs"));
+        launch("customer-service", customerPort, env, logDir);
+        launch("account-service", accountPort, env, logDir);
+        awaitHealthy(customerUrl);
+        awaitHealthy(accountUrl);
+        log.info("Services up at {} and {}, logs in {}.", customerUrl, accountUrl, logDir);
+    }
+
+    private void launch(String service, int port, Map<String, String> env, Path logDir) throws IOException {
+        Path jar = locateJar(service);
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>(List.of(java));
+        command.addAll(List.of(System.getProperty("load.jvm-args", "-Xmx512m").split("\\s+")));
+        command.addAll(List.of("-jar", jar.toString()));
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logDir.resolve(service + ".log").toFile());
+        builder.environment().putAll(env);
+        builder.environment().put("SERVER_PORT", String.valueOf(port));
+        log.info("Starting {} from {} on port {}.", service, jar, port);
+        Process process = builder.start();
+        resources.add(() -> {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        });
+    }
+
+    private static Path locateJar(String service) throws IOException {
+        String override = System.getProperty("load." + service + ".jar");
+        if (override != null) {
+            return Path.of(override);
+        }
+        Path target = Path.of(System.getProperty("load.project-dir", "..")).resolve(service).resolve("target");
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in " + target.toAbsolutePath()
+                            + ", run 'mvn -DskipTests package' in " + service + " first."));
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("Missing " + target.toAbsolutePath() + ", run 'mvn -DskipTests package' in "
+                    + service + " first.", e);
+        }
+    }
+
+    private static void awaitHealthy(URI baseUrl) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/actuator/health"))
+                .header("Authorization", "Basic " + Base64.getEncoder()
+                        .encodeToString((USERNAME + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8)))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet.
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(baseUrl + " did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (AutoCloseable resource : resources.reversed()) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                log.warn("Failed to stop {}.", resource, e);
+            }
+        }
+        resources.clear();
+    }
+}
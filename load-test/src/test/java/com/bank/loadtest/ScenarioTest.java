@@ -0,0 +1,77 @@
+package com.bank.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class ScenarioTest {
+
+    @Test
+    void load_shouldReadKebabCaseYaml() throws IOException {
+        Scenario scenario = Scenario.load(Path.of("scenarios", "mixed.yaml"));
+
+        assertThat(scenario.name()).isEqualTo("mixed");
+        assertThat(scenario.arrivalProcess()).isEqualTo(Scenario.ArrivalProcess.POISSON);
+        assertThat(scenario.seed().accountsPerCustomer()).isEqualTo(2);
+        assertThat(scenario.mix()).containsEntry(Operation.DELETE_CUSTOMER, 2);
+    }
+
+    @Test
+    void load_whenSeedAndArrivalProcessOmitted_shouldUseDefaults(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("minimal.yaml");
+        Files.writeString(file, """
+                name: minimal
+                duration-seconds: 10
+                arrival-rate: 5
+                mix:
+                  GET_CUSTOMER: 1
+                """);
+
+        Scenario scenario = Scenario.load(file);
+
+        assertThat(scenario.arrivalProcess()).isEqualTo(Scenario.ArrivalProcess.POISSON);
+        assertThat(scenario.seed()).isEqualTo(new Scenario.Seed(100, 2));
+        assertThat(scenario.warmupSeconds()).isZero();
+    }
+
+    @Test
+    void pick_shouldFollowWeights() {
+        Scenario scenario = scenario(Map.of(Operation.GET_CUSTOMER, 3, Operation.CREATE_CUSTOMER, 1, Operation.LIST_ACCOUNTS, 0));
+
+        assertThat(scenario.pick(0.0)).isEqualTo(Operation.GET_CUSTOMER);
+        assertThat(scenario.pick(0.74)).isEqualTo(Operation.GET_CUSTOMER);
+        assertThat(scenario.pick(0.75)).isEqualTo(Operation.CREATE_CUSTOMER);
+        assertThat(scenario.pick(0.999)).isEqualTo(Operation.CREATE_CUSTOMER);
+    }
+
+    @Test
+    void nextArrivalNanos_shouldMatchArrivalProcess() {
+        Scenario constant = new Scenario("c", 0, 1, 100, Scenario.ArrivalProcess.CONSTANT, null, Map.of(Operation.GET_CUSTOMER, 1));
+        Scenario poisson = new Scenario("p", 0, 1, 100, Scenario.ArrivalProcess.POISSON, null, Map.of(Operation.GET_CUSTOMER, 1));
+
+        assertThat(constant.nextArrivalNanos(0.9)).isEqualTo(10_000_000L);
+        assertThat(poisson.nextArrivalNanos(0.0)).isZero();
+        assertThat(poisson.nextArrivalNanos(1 - Math.exp(-1))).isCloseTo(10_000_000L, within(1L));
+    }
+
+    @Test
+    void constructor_whenMixIsEmptyOrNegative_shouldReject() {
+        assertThatThrownBy(() -> scenario(new EnumMap<>(Operation.class)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> scenario(Map.of(Operation.GET_CUSTOMER, -1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Scenario scenario(Map<Operation, Integer> mix) {
+        return new Scenario("test", 0, 60, 10, null, null, mix);
+    }
+}